@@ -0,0 +1,5 @@
+dist:
+	@mvn -Pjlink package -DskipTests
+
+benchmark-startup:
+	@scripts/startup-benchmark.sh
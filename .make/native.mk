@@ -0,0 +1,5 @@
+native:
+	@mvn -Pnative package -DskipTests
+
+native-test:
+	@mvn -Pnative verify -DskipSurefireReport
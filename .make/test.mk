@@ -1,2 +1,4 @@
 test:
-	@mvn verify -DskipSurefireReport
\ No newline at end of file
+	@mvn verify -DskipSurefireReport
+benchmark-properties:
+	@mvn test -Dtest=PropertiesScannerBenchmarkTests -Dyaproc.benchmark=true -DskipSurefireReport
@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+#
+# Measures the latency of a yaproc invocation converting a small file, for each launcher available
+# in target/: the shaded jar, the jlink distribution (with and without its class data sharing
+# archive, and moved to another directory) and the native executable.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#   BASELINE_JAR=/path/to/yaproc.jar  also measures another jar, such as a Spring Boot repackaged
+#                                     jar of a previous release, for comparison
+
+set -euo pipefail
+
+RUNS=${1:-20}
+ROOT=$(cd "$(dirname "$0")/.." && pwd -P)
+INPUT="$ROOT/src/main/resources/test.yaml"
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+# Never forward the invocations to a running daemon
+export YAPROC_SOCKET="$WORK/none.sock"
+
+now_ms() {
+  date +%s%3N
+}
+
+bench() {
+  local name=$1
+  shift
+  if ! "$@" json "$INPUT" "$WORK/output.json" -f >/dev/null 2>"$WORK/error.log"; then
+    echo "$name: failed, skipped" >&2
+    cat "$WORK/error.log" >&2
+    return
+  fi
+  local start end
+  start=$(now_ms)
+  for ((i = 0; i < RUNS; i++)); do
+    "$@" json "$INPUT" "$WORK/output.json" -f >/dev/null 2>&1
+  done
+  end=$(now_ms)
+  printf '%-28s %6d ms/invocation\n' "$name" $(((end - start) / RUNS))
+}
+
+echo "Converting $(basename "$INPUT") to JSON, $RUNS runs per launcher"
+if [ -n "${BASELINE_JAR:-}" ]; then
+  bench "baseline jar" java -jar "$BASELINE_JAR"
+fi
+if [ -f "$ROOT/target/yaproc.jar" ]; then
+  bench "shaded jar" java -jar "$ROOT/target/yaproc.jar"
+  bench "shaded jar, C1 + SerialGC" java -XX:TieredStopAtLevel=1 -XX:+UseSerialGC \
+    -jar "$ROOT/target/yaproc.jar"
+fi
+if [ -x "$ROOT/target/yaproc-dist/bin/yaproc" ]; then
+  bench "jlink distribution" "$ROOT/target/yaproc-dist/bin/yaproc"
+  YAPROC_CDS=false bench "jlink distribution, no CDS" "$ROOT/target/yaproc-dist/bin/yaproc"
+  # A copy elsewhere, whose first run (the warm-up of bench) dumps the archive for its location
+  cp -R "$ROOT/target/yaproc-dist" "$WORK/relocated"
+  bench "jlink distribution, moved" "$WORK/relocated/bin/yaproc"
+  if [ -s "$WORK/relocated/lib/yaproc.jsa.log" ] || [ ! -f "$WORK/relocated/lib/yaproc.jsa" ]; then
+    echo "jlink distribution, moved: class data sharing archive not used" >&2
+    cat "$WORK/relocated/lib/yaproc.jsa.log" >&2
+  fi
+fi
+if [ -x "$ROOT/target/yaproc" ]; then
+  bench "native executable" "$ROOT/target/yaproc"
+fi
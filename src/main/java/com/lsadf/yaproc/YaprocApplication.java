@@ -1,10 +1,16 @@
 package com.lsadf.yaproc;
 
+import com.lsadf.yaproc.command.DaemonCommand;
 import com.lsadf.yaproc.command.VersionCommand;
+import com.lsadf.yaproc.command.batch.BatchCommand;
 import com.lsadf.yaproc.command.concatenation.ConcatCommand;
 import com.lsadf.yaproc.command.conversion.JsonCommand;
+import com.lsadf.yaproc.command.conversion.NdjsonCommand;
 import com.lsadf.yaproc.command.conversion.PropertiesCommand;
 import com.lsadf.yaproc.command.conversion.YamlCommand;
+import com.lsadf.yaproc.daemon.DaemonClient;
+import com.lsadf.yaproc.util.StartupProfile;
+import java.util.OptionalInt;
 import picocli.CommandLine;
 
 /**
@@ -13,10 +19,12 @@ import picocli.CommandLine;
  * formats like JSON, YAML, and properties files. Additionally, the application allows concatenation
  * of multiple files of the same type.
  *
- * <p>Subcommands: - JsonCommand: Converts input files to JSON format. - PropertiesCommand: Converts
- * input files to properties format. - YamlCommand: Converts input files to YAML format. -
- * ConcatCommand: Concatenates multiple files of the same type. - CommandLine.HelpCommand: Provides
- * help information for supported commands.
+ * <p>Subcommands: - JsonCommand: Converts input files to JSON format. - NdjsonCommand: Converts
+ * input files to NDJSON (JSON Lines) format. - PropertiesCommand: Converts input files to
+ * properties format. - YamlCommand: Converts input files to YAML format. - ConcatCommand:
+ * Concatenates multiple files of the same type. - BatchCommand: Converts every file of a
+ * directory tree into a mirrored output tree. - DaemonCommand: Serves the other invocations from a
+ * warm JVM. - CommandLine.HelpCommand: Provides help information for supported commands.
  *
  * <p>The application sets a custom execution exception handler to handle specific exceptions, such
  * as file not found or unsupported file formats, and exits with appropriate status codes.
@@ -26,26 +34,41 @@ import picocli.CommandLine;
     footer = "lsadf - 2025",
     subcommands = {
       JsonCommand.class,
+      NdjsonCommand.class,
       PropertiesCommand.class,
       YamlCommand.class,
       ConcatCommand.class,
+      BatchCommand.class,
+      DaemonCommand.class,
       CommandLine.HelpCommand.class,
       VersionCommand.class
     })
 public class YaprocApplication {
 
   /**
-   * The main entry point for the Yaproc application. This method uses the PicoCLI framework to
-   * parse and execute command-line arguments, while handling any execution exceptions with a custom
-   * exception handler. After processing, it exits with an appropriate status code.
+   * The main entry point for the Yaproc application. When a daemon is running, the invocation is
+   * forwarded to it. Otherwise, this method uses the PicoCLI framework to parse and execute
+   * command-line arguments, while handling any execution exceptions with a custom exception
+   * handler. After processing, it exits with an appropriate status code.
    *
    * @param args the command-line arguments passed to the application
    */
   public static void main(String[] args) {
+    StartupProfile.markMain();
+    OptionalInt forwarded = DaemonClient.forward(args);
     int exitCode =
-        new CommandLine(new YaprocApplication())
-            .setExecutionExceptionHandler(new YaprocExceptionHandler())
-            .execute(args);
+        forwarded.isPresent() ? forwarded.getAsInt() : createCommandLine().execute(args);
     System.exit(exitCode);
   }
+
+  /**
+   * Creates the command line of the application, with its subcommands and exception handler.
+   *
+   * @return a new command line
+   */
+  public static CommandLine createCommandLine() {
+    return new CommandLine(new YaprocApplication())
+        .setCaseInsensitiveEnumValuesAllowed(true)
+        .setExecutionExceptionHandler(new YaprocExceptionHandler());
+  }
 }
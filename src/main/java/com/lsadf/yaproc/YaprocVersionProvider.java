@@ -10,8 +10,6 @@ public class YaprocVersionProvider implements CommandLine.IVersionProvider {
   private static final String MANIFEST_PATH = "META-INF/MANIFEST.MF";
   private static final String IMPLEMENTATION_VERSION = "Implementation-Version";
   private static final String GIT_LINK = "Git-Link";
-  private static final String PICOCLI = "picocli";
-  private static final String UNKNOWN = "Unknown";
 
   public String[] getVersion() throws IOException {
     Manifest manifest = getManifest();
@@ -35,12 +33,7 @@ public class YaprocVersionProvider implements CommandLine.IVersionProvider {
   }
 
   private String getPicocliVersion() {
-    try {
-      // Access the Picocli package and get the version using reflection
-      Package picocliPackage = Package.getPackage(PICOCLI);
-      return picocliPackage != null ? picocliPackage.getImplementationVersion() : UNKNOWN;
-    } catch (Exception e) {
-      return UNKNOWN;
-    }
+    // Picocli is shaded into the application jar, so its own manifest is not available
+    return CommandLine.VERSION;
   }
 }
@@ -0,0 +1,272 @@
+package com.lsadf.yaproc.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lsadf.yaproc.YaprocApplication;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.util.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An on-disk manifest of the conversions already done, used to skip the conversions whose output
+ * is still current.
+ *
+ * <p>The manifest is stored as a {@value #MANIFEST_NAME} JSON file in the output directory. For
+ * each output file, it records the input it was converted from (path, size, modification time and
+ * CRC32C checksum), the output format, a fingerprint of the options of the conversion and the
+ * version of the tool. The output file itself must still have the size and modification time
+ * recorded after it was written.
+ *
+ * <p>An input whose size and modification time are unchanged is considered up to date without
+ * being read. When only its modification time changed (after a checkout, for instance), its
+ * checksum is compared with the recorded one, and the output is kept if the content is the same.
+ *
+ * <p>Instances are thread-safe, so that a single cache can be shared by the files of a batch.
+ */
+@Slf4j
+public class ConversionCache {
+  /** Name of the manifest file, stored in the output directory. */
+  public static final String MANIFEST_NAME = ".yaproc-cache";
+
+  private static final int MANIFEST_VERSION = 1;
+  private static final ObjectMapper MAPPER =
+      new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+  private final Path directory;
+  private final Path manifestPath;
+  private final String toolVersion;
+  private final Map<String, Entry> entries;
+  private final AtomicBoolean changed = new AtomicBoolean();
+
+  private ConversionCache(Path directory, String toolVersion, Map<String, Entry> entries) {
+    this.directory = directory;
+    this.manifestPath = directory.resolve(MANIFEST_NAME);
+    this.toolVersion = toolVersion;
+    this.entries = new ConcurrentHashMap<>(entries);
+  }
+
+  /**
+   * Opens the cache of the given output directory, loading its manifest if there is one. A
+   * manifest that cannot be read is ignored, which only means that every conversion is done again.
+   *
+   * @param directory the directory where the outputs are written
+   * @return the cache of the directory
+   */
+  public static ConversionCache open(Path directory) {
+    Path root = directory.toAbsolutePath().normalize();
+    return new ConversionCache(root, getToolVersion(), loadEntries(root.resolve(MANIFEST_NAME)));
+  }
+
+  /**
+   * Opens the cache of the directory holding the given output file.
+   *
+   * @param output the output file
+   * @return the cache of the directory holding the output file
+   * @see #open(Path)
+   */
+  public static ConversionCache forOutput(File output) {
+    Path parent = output.toPath().toAbsolutePath().normalize().getParent();
+    return open(parent);
+  }
+
+  /**
+   * Indicates whether the output file is still current, i.e. whether it was produced by this
+   * version from the same input content, with the same format and options, and was not modified
+   * since.
+   *
+   * <p>The modification time of an input found unchanged by its checksum is updated in the entry,
+   * so that the next check does not read it again once the manifest is saved.
+   *
+   * @param input the input file
+   * @param output the output file
+   * @param format the format of the output file
+   * @param options a fingerprint of the options of the conversion
+   * @return {@code true} if the conversion can be skipped
+   * @throws IOException if the input file cannot be read
+   */
+  public boolean isUpToDate(File input, File output, FileFormat format, String options)
+      throws IOException {
+    String key = keyOf(output);
+    Entry entry = entries.get(key);
+    if (entry == null
+        || !toolVersion.equals(entry.getVersion())
+        || !format.name().equals(entry.getFormat())
+        || !Objects.equals(options, entry.getOptions())
+        || !pathOf(input).equals(entry.getInput())) {
+      return false;
+    }
+
+    Path outputPath = output.toPath();
+    if (!Files.isRegularFile(outputPath)
+        || Files.size(outputPath) != entry.getOutputSize()
+        || Files.getLastModifiedTime(outputPath).toMillis() != entry.getOutputModified()) {
+      return false;
+    }
+
+    Path inputPath = input.toPath();
+    long inputSize = Files.size(inputPath);
+    if (inputSize != entry.getInputSize()) {
+      return false;
+    }
+    long inputModified = Files.getLastModifiedTime(inputPath).toMillis();
+    if (inputModified == entry.getInputModified()) {
+      return true;
+    }
+
+    // Same size but touched since: compare the content
+    if (!checksum(input).equals(entry.getInputChecksum())) {
+      return false;
+    }
+    entry.setInputModified(inputModified);
+    changed.set(true);
+    return true;
+  }
+
+  /**
+   * Records a conversion that has just been done, so that it can be skipped next time.
+   *
+   * @param input the input file
+   * @param output the output file, already written
+   * @param format the format of the output file
+   * @param options a fingerprint of the options of the conversion
+   * @throws IOException if the input or output file cannot be read
+   */
+  public void record(File input, File output, FileFormat format, String options)
+      throws IOException {
+    Path inputPath = input.toPath();
+    Path outputPath = output.toPath();
+
+    Entry entry = new Entry();
+    entry.setInput(pathOf(input));
+    entry.setInputSize(Files.size(inputPath));
+    entry.setInputModified(Files.getLastModifiedTime(inputPath).toMillis());
+    entry.setInputChecksum(checksum(input));
+    entry.setOutputSize(Files.size(outputPath));
+    entry.setOutputModified(Files.getLastModifiedTime(outputPath).toMillis());
+    entry.setFormat(format.name());
+    entry.setOptions(options);
+    entry.setVersion(toolVersion);
+    entries.put(keyOf(output), entry);
+    changed.set(true);
+  }
+
+  /**
+   * Writes the manifest to the output directory. The entries recorded in the meantime by another
+   * process for other outputs are kept, and the manifest is replaced atomically when the file
+   * system allows it. Nothing is written when no entry was recorded or updated since the last save.
+   *
+   * @throws IOException if the manifest cannot be written
+   */
+  public void save() throws IOException {
+    if (!changed.get()) {
+      return;
+    }
+    Map<String, Entry> merged = new TreeMap<>(loadEntries(manifestPath));
+    merged.putAll(entries);
+
+    Manifest manifest = new Manifest();
+    manifest.setVersion(MANIFEST_VERSION);
+    manifest.setEntries(merged);
+
+    Files.createDirectories(directory);
+    Path temporary = Files.createTempFile(directory, MANIFEST_NAME, ".tmp");
+    try {
+      MAPPER.writerWithDefaultPrettyPrinter().writeValue(temporary.toFile(), manifest);
+      try {
+        Files.move(
+            temporary,
+            manifestPath,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+      changed.set(false);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Computes the CRC32C checksum of the content of a file. CRC32C is hardware accelerated on most
+   * platforms, which makes it much cheaper than a cryptographic hash for change detection.
+   *
+   * @param file the file to read
+   * @return the checksum, as an hexadecimal string
+   * @throws IOException if the file cannot be read
+   */
+  public static String checksum(File file) throws IOException {
+    ByteBuffer bytes = FileUtils.readBytes(file);
+    CRC32C crc = new CRC32C();
+    crc.update(bytes);
+    return Long.toHexString(crc.getValue());
+  }
+
+  private String keyOf(File output) {
+    Path path = output.toPath().toAbsolutePath().normalize();
+    return directory.relativize(path).toString().replace(File.separatorChar, '/');
+  }
+
+  private static String pathOf(File file) {
+    return file.toPath().toAbsolutePath().normalize().toString();
+  }
+
+  private static Map<String, Entry> loadEntries(Path manifestPath) {
+    if (!Files.isRegularFile(manifestPath)) {
+      return Map.of();
+    }
+    try {
+      Manifest manifest = MAPPER.readValue(manifestPath.toFile(), Manifest.class);
+      if (manifest.getVersion() != MANIFEST_VERSION || manifest.getEntries() == null) {
+        return Map.of();
+      }
+      return manifest.getEntries();
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable cache manifest {}: {}", manifestPath, e.getMessage());
+      return Map.of();
+    }
+  }
+
+  private static String getToolVersion() {
+    String version = YaprocApplication.class.getPackage().getImplementationVersion();
+    return version != null ? version : "dev";
+  }
+
+  /** The content of the manifest file. */
+  @Data
+  @NoArgsConstructor
+  static class Manifest {
+    private int version;
+    private Map<String, Entry> entries;
+  }
+
+  /** What is known about an output file and the input it was converted from. */
+  @Data
+  @NoArgsConstructor
+  static class Entry {
+    private String input;
+    private long inputSize;
+    private long inputModified;
+    private String inputChecksum;
+    private long outputSize;
+    private long outputModified;
+    private String format;
+    private String options;
+    private String version;
+  }
+}
@@ -0,0 +1,109 @@
+package com.lsadf.yaproc.cds;
+
+import com.lsadf.yaproc.YaprocApplication;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A training workload for Application Class-Data Sharing: runs every subcommand on the sample files
+ * bundled with the application, so that a JVM started with {@code -XX:ArchiveClassesAtExit} loads,
+ * and archives, the classes an invocation needs.
+ *
+ * <p>The commands run in a single JVM, through the same command line as the application, on copies
+ * of the samples in a temporary directory. The build fails if one of them fails, since the archive
+ * would then miss the classes of the failing path.
+ */
+@Slf4j
+public class CdsTraining {
+  private static final List<String> SAMPLES =
+      List.of("test.json", "test2.json", "test.yaml", "test.properties");
+
+  /**
+   * Runs the training workload.
+   *
+   * @param args unused
+   * @throws IOException if the samples cannot be copied
+   */
+  public static void main(String[] args) throws IOException {
+    Path directory = Files.createTempDirectory("yaproc-cds");
+    try {
+      train(directory);
+    } finally {
+      deleteTree(directory);
+    }
+  }
+
+  /**
+   * Runs every subcommand on the samples, copied into the given directory.
+   *
+   * @param directory the directory receiving the samples and the outputs
+   * @throws IOException if the samples cannot be copied
+   */
+  public static void train(Path directory) throws IOException {
+    // One directory per format, so that the batch outputs do not collide
+    Path in = directory.resolve("in");
+    for (String sample : SAMPLES) {
+      String extension = sample.substring(sample.lastIndexOf('.') + 1);
+      Path copy = in.resolve(extension).resolve(sample);
+      try (InputStream stream = CdsTraining.class.getResourceAsStream("/" + sample)) {
+        if (stream == null) {
+          throw new IOException("Missing sample: " + sample);
+        }
+        Files.createDirectories(copy.getParent());
+        Files.copy(stream, copy);
+      }
+    }
+    String json = in.resolve("json/test.json").toString();
+    String yaml = in.resolve("yaml/test.yaml").toString();
+    String properties = in.resolve("properties/test.properties").toString();
+    Path out = directory.resolve("out");
+
+    run("json", yaml, out.resolve("yaml.json").toString());
+    run("json", properties, out.resolve("properties.json").toString());
+    run("yaml", json, out.resolve("json.yaml").toString());
+    run("yaml", properties, out.resolve("properties.yaml.gz").toString());
+    run("properties", yaml, out.resolve("yaml.properties").toString());
+    run("properties", json, out.resolve("json.properties").toString());
+    run("ndjson", yaml, out.resolve("yaml.ndjson").toString(), "--parallel");
+    run("yaml", out.resolve("yaml.ndjson").toString(), out.resolve("ndjson.yaml").toString());
+    run("json", yaml, out.resolve("stream.json").toString(), "--stream");
+    run("json", yaml, out.resolve("cached.json").toString(), "--cache");
+    run("json", yaml, out.resolve("cached.json").toString(), "--cache");
+    String json2 = in.resolve("json/test2.json").toString();
+    run("concat", out.resolve("concat.json").toString(), json, json2);
+    run("batch", in.toString(), directory.resolve("batch").toString(), "--to", "yaml");
+    run("version");
+    run("help");
+  }
+
+  private static void run(String... args) {
+    log.info("Training: yaproc {}", String.join(" ", args));
+    int exitCode = YaprocApplication.createCommandLine().execute(args);
+    if (exitCode != 0) {
+      throw new IllegalStateException(
+          "Training invocation failed with exit code " + exitCode + ": " + String.join(" ", args));
+    }
+  }
+
+  private static void deleteTree(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths
+          .sorted(Comparator.reverseOrder())
+          .forEach(
+              path -> {
+                try {
+                  Files.delete(path);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    }
+  }
+}
@@ -2,9 +2,17 @@ package com.lsadf.yaproc.command;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.FileHandlerRegistry;
 import com.lsadf.yaproc.file.handler.input.InputFileHandler;
 import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
-import com.lsadf.yaproc.util.FileHandlerUtils;
+import com.lsadf.yaproc.file.handler.output.PropertiesOutputFileHandler;
+import com.lsadf.yaproc.util.StartupProfile;
+import com.lsadf.yaproc.watch.FileWatcher;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine;
 
@@ -21,8 +29,12 @@ public abstract class ACommand<I> implements YaprocCommand<I> {
       description = "Show debug information")
   protected boolean debug;
 
-  protected InputFileHandler inputFileHandler = FileHandlerUtils.initInputFileHandlers();
+  protected FileHandlerRegistry fileHandlerRegistry = FileHandlerRegistry.getDefault();
   protected OutputFileHandler outputFileHandler;
+  private int outputFileHandlerBufferSize;
+  private boolean outputFileHandlerSortKeys;
+  private InputFileHandler propertiesInputFileHandler;
+  private boolean overwriting;
 
   @Override
   public CommandLine.Model.CommandSpec getSpec() {
@@ -34,6 +46,16 @@ public abstract class ACommand<I> implements YaprocCommand<I> {
     return this.force;
   }
 
+  /**
+   * Indicates whether existing outputs are overwritten, either because of the force option or
+   * because they were written by a previous run in watch mode.
+   *
+   * @return {@code true} if existing outputs are overwritten
+   */
+  protected boolean isOverwrite() {
+    return this.force || this.overwriting;
+  }
+
   @Override
   public boolean isDebug() {
     return this.debug;
@@ -44,9 +66,19 @@ public abstract class ACommand<I> implements YaprocCommand<I> {
     return this.outputFileHandler;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Properties inputs are read by a handler of the command when the values are not typed by
+   * default or the keys are nested, the shared handler of the registry inferring the default types
+   * of flat keys.
+   */
   @Override
-  public InputFileHandler getInputFileHandler() {
-    return this.inputFileHandler;
+  public InputFileHandler getInputFileHandler(FileFormat format) {
+    if (format == FileFormat.PROPERTIES && propertiesInputFileHandler != null) {
+      return propertiesInputFileHandler;
+    }
+    return this.fileHandlerRegistry.getInputFileHandler(format);
   }
 
   @Override
@@ -56,5 +88,129 @@ public abstract class ACommand<I> implements YaprocCommand<I> {
       logger.setLevel(Level.DEBUG);
       getLogger().info("Debug mode enabled");
     }
+    StartupProfile.markSinceMain("main to command (command line model and parsing)");
+  }
+
+  /**
+   * Creates the handler of the command reading properties inputs, when the values are not typed by
+   * default or the keys are nested. Called by the commands converting properties files.
+   *
+   * @param propertiesOptions the properties options of the command
+   */
+  protected void initPropertiesInputFileHandler(PropertiesOptions propertiesOptions) {
+    propertiesInputFileHandler = propertiesOptions.createInputFileHandler();
+  }
+
+  /**
+   * Logs, in debug mode, where the start-up time of the run went, and which handlers it
+   * initialized. Called by the commands once their run is over.
+   */
+  protected void logStartupProfile() {
+    StartupProfile.log(getLogger());
+  }
+
+  /**
+   * Creates the output handler of the command, writing files of the given format. The handler only
+   * creates its mapper when content is first written. A command instance run several times, as in
+   * the daemon, keeps the handler of its previous run when neither the format nor the buffer size
+   * changed.
+   *
+   * @param format the output format of the command
+   * @param bufferSize the size of the output buffer, in bytes
+   */
+  protected void initOutputFileHandler(FileFormat format, int bufferSize) {
+    initOutputFileHandler(format, bufferSize, false);
+  }
+
+  /**
+   * Creates the output handler of the command, writing files of the given format, as {@link
+   * #initOutputFileHandler(FileFormat, int)} does. Properties outputs with sorted keys are written
+   * by a handler of the command, the handler of the registry keeping the order of the content.
+   *
+   * @param format the output format of the command
+   * @param bufferSize the size of the output buffer, in bytes
+   * @param sortKeys whether the keys of properties outputs are sorted
+   */
+  protected void initOutputFileHandler(FileFormat format, int bufferSize, boolean sortKeys) {
+    if (outputFileHandler == null
+        || outputFileHandler.getType() != format
+        || outputFileHandlerBufferSize != bufferSize
+        || outputFileHandlerSortKeys != sortKeys) {
+      outputFileHandler =
+          format == FileFormat.PROPERTIES && sortKeys
+              ? new PropertiesOutputFileHandler(bufferSize, true)
+              : fileHandlerRegistry.createOutputFileHandler(format, bufferSize);
+      outputFileHandlerBufferSize = bufferSize;
+      outputFileHandlerSortKeys = sortKeys;
+    }
+  }
+
+  /**
+   * Runs the given action once, then again after every batch of changes in the watched paths,
+   * until the thread is interrupted. The handlers of the command are kept between runs, so that
+   * the following conversions do not pay the initialization of the mappers again.
+   *
+   * <p>A failing run is logged and does not stop the watch, so that an input saved in an invalid
+   * state can be fixed and saved again.
+   *
+   * @param watchOptions the watch mode options of the command
+   * @param paths the files and directories to watch
+   * @param ignored the paths whose changes are ignored, such as a nested output directory
+   * @param action the action to run, receiving the changed paths (empty for the first run)
+   * @return the exit code of the command
+   * @throws Exception if the paths cannot be watched
+   */
+  protected Integer watch(
+      WatchOptions watchOptions,
+      Collection<Path> paths,
+      Collection<Path> ignored,
+      WatchAction action)
+      throws Exception {
+    try (FileWatcher watcher = new FileWatcher(watchOptions.getDebounce())) {
+      ignored.forEach(watcher::ignore);
+      for (Path path : paths) {
+        if (Files.isDirectory(path)) {
+          watcher.watchDirectory(path);
+        } else {
+          watcher.watchFile(path);
+        }
+      }
+
+      runWatched(action, Set.of());
+      // The outputs of the previous run are replaced from now on
+      this.overwriting = true;
+      getLogger().info("Watching {} for changes, press Ctrl+C to stop", paths);
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<Path> changes = watcher.awaitChanges();
+        getLogger().info("Detected changes in {}", changes);
+        runWatched(action, changes);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      this.overwriting = false;
+    }
+    return 0;
+  }
+
+  private void runWatched(WatchAction action, Set<Path> changes) {
+    try {
+      action.run(changes);
+    } catch (Exception e) {
+      // Already logged by the action, keep watching
+      getLogger().debug("Run failed while watching", e);
+    }
+  }
+
+  /** An action run by {@link #watch(WatchOptions, Collection, Collection, WatchAction)}. */
+  @FunctionalInterface
+  protected interface WatchAction {
+    /**
+     * Runs the action.
+     *
+     * @param changes the paths that changed since the previous run, empty for the first run
+     * @throws Exception if the run fails
+     */
+    void run(Set<Path> changes) throws Exception;
   }
 }
@@ -0,0 +1,40 @@
+package com.lsadf.yaproc.command;
+
+import com.lsadf.yaproc.util.FileUtils;
+import picocli.CommandLine;
+
+/** PicoCLI mixin holding the size of the output buffer, added to the commands writing files. */
+public class BufferSizeOptions {
+
+  @CommandLine.Spec(CommandLine.Spec.Target.MIXEE)
+  private CommandLine.Model.CommandSpec spec;
+
+  private int bufferSize = FileUtils.DEFAULT_BUFFER_SIZE;
+
+  /**
+   * Sets the size of the output buffer.
+   *
+   * @param bufferSize the size of the output buffer, in bytes
+   * @throws CommandLine.ParameterException if the size is not positive
+   */
+  @CommandLine.Option(
+      names = {"--buffer-size"},
+      defaultValue = "" + FileUtils.DEFAULT_BUFFER_SIZE,
+      description = "Size of the output buffer in bytes (default: ${DEFAULT-VALUE})")
+  public void setBufferSize(int bufferSize) {
+    if (bufferSize < 1) {
+      throw new CommandLine.ParameterException(
+          spec.commandLine(), "The buffer size must be positive: " + bufferSize);
+    }
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Gets the size of the output buffer.
+   *
+   * @return the size of the output buffer, in bytes
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+}
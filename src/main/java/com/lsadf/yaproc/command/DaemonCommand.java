@@ -0,0 +1,78 @@
+package com.lsadf.yaproc.command;
+
+import com.lsadf.yaproc.YaprocApplication;
+import com.lsadf.yaproc.daemon.DaemonProtocol;
+import com.lsadf.yaproc.daemon.DaemonServer;
+import com.lsadf.yaproc.util.MapperRegistry;
+import com.lsadf.yaproc.util.StartupProfile;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine;
+
+/**
+ * Starts a daemon serving the other yaproc invocations from a warm JVM, until it is interrupted.
+ * While the daemon runs, the yaproc command forwards its invocations to it, except the ones reading
+ * the standard input, watching files, running a batch or logging debug information.
+ */
+@Slf4j
+@CommandLine.Command(
+    name = "daemon",
+    description =
+        "Keeps a warm JVM serving the other yaproc invocations over a Unix domain socket, until"
+            + " interrupted")
+public class DaemonCommand implements Callable<Integer> {
+  @CommandLine.Spec private CommandLine.Model.CommandSpec spec;
+
+  @CommandLine.Option(
+      names = {"--socket"},
+      description =
+          "Path of the socket (default: $"
+              + DaemonProtocol.SOCKET_ENV
+              + ", or "
+              + DaemonProtocol.SOCKET_NAME
+              + " in $"
+              + DaemonProtocol.RUNTIME_DIR_ENV
+              + " or in a yaproc-<user> directory of the temporary directory)")
+  private Path socket = DaemonProtocol.getSocketPath();
+
+  @CommandLine.Option(
+      names = {"--threads"},
+      description = "Number of invocations served concurrently (default: number of processors)")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  @CommandLine.Option(
+      names = {"--warm-up"},
+      negatable = true,
+      defaultValue = "true",
+      fallbackValue = "true",
+      description =
+          "Prime the JSON and YAML mappers before serving, so that the first invocation does not"
+              + " pay for their serializer lookups (default: ${DEFAULT-VALUE})")
+  private boolean warmUp = true;
+
+  @Override
+  public Integer call() throws Exception {
+    if (threads < 1) {
+      throw new CommandLine.ParameterException(
+          spec.commandLine(), "The number of threads must be positive: " + threads);
+    }
+    DaemonServer server = new DaemonServer(socket, threads, YaprocApplication::createCommandLine);
+    try {
+      server.start();
+    } catch (Exception e) {
+      log.error(e.getMessage());
+      throw e;
+    }
+    if (warmUp) {
+      MapperRegistry.warmUp();
+    }
+    // The invocations served from now on do not pay for the start-up of the JVM
+    StartupProfile.log(log);
+    // Removes the socket when interrupted
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    log.info("Listening on {}", socket);
+    server.serve();
+    return 0;
+  }
+}
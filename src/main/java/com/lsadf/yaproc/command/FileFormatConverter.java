@@ -0,0 +1,31 @@
+package com.lsadf.yaproc.command;
+
+import com.lsadf.yaproc.file.FileFormat;
+import picocli.CommandLine;
+
+/**
+ * PicoCLI type converter turning a command-line value into a {@link FileFormat}. Both the format
+ * names (e.g. {@code JSON}) and their extensions (e.g. {@code yml}) are accepted,
+ * case-insensitively.
+ */
+public class FileFormatConverter implements CommandLine.ITypeConverter<FileFormat> {
+
+  /** {@inheritDoc} */
+  @Override
+  public FileFormat convert(String value) {
+    for (FileFormat fileFormat : FileFormat.values()) {
+      if (fileFormat.name().equalsIgnoreCase(value)) {
+        return fileFormat;
+      }
+    }
+    try {
+      return FileFormat.fromExtension(value);
+    } catch (IllegalArgumentException e) {
+      throw new CommandLine.TypeConversionException(
+          "Unsupported file format: "
+              + value
+              + ". Expected one of "
+              + FileFormat.getValidExtensions());
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.lsadf.yaproc.command;
+
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
+import com.lsadf.yaproc.file.handler.input.PropertiesInputFileHandler;
+import com.lsadf.yaproc.util.ScalarResolver;
+import com.lsadf.yaproc.util.ScalarType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import picocli.CommandLine;
+
+/**
+ * PicoCLI mixin holding the options reading and writing properties files, added to the commands
+ * converting them.
+ */
+public class PropertiesOptions {
+
+  @CommandLine.Option(
+      names = {"--infer"},
+      description =
+          "Types inferred from the values of properties inputs: ${COMPLETION-CANDIDATES}"
+              + " (default: ${DEFAULT-VALUE})")
+  private ScalarResolver.Inference infer = ScalarResolver.Inference.DEFAULT;
+
+  @CommandLine.Option(
+      names = {"--type"},
+      paramLabel = "KEY=TYPE",
+      description =
+          "Type of the values of a properties input key, instead of the inferred one: string, long,"
+              + " double, boolean or null. A key ending with * matches every key with its prefix")
+  private Map<String, ScalarType> typeHints = new LinkedHashMap<>();
+
+  @CommandLine.Option(
+      names = {"--nest"},
+      description =
+          "Unflatten the dotted keys of properties inputs into nested maps, and their [n] indices"
+              + " into lists. Keys that cannot be nested are kept flat")
+  private boolean nest;
+
+  @CommandLine.Option(
+      names = {"--sort-keys"},
+      description =
+          "Write the keys of properties outputs in sorted order, instead of the order of the input")
+  private boolean sortKeys;
+
+  /**
+   * Creates the handler reading properties inputs with these options.
+   *
+   * @return the handler, or {@code null} when the values are typed by default and the keys left
+   *     flat, as by the shared handler of the registry
+   */
+  public InputFileHandler createInputFileHandler() {
+    if (infer == ScalarResolver.Inference.DEFAULT && typeHints.isEmpty() && !nest) {
+      return null;
+    }
+    return new PropertiesInputFileHandler(
+        ScalarResolver.inferring(infer).withHints(typeHints), nest);
+  }
+
+  /**
+   * Indicates whether the keys of properties outputs are sorted rather than written in the order of
+   * the content.
+   *
+   * @return {@code true} if the keys are sorted
+   */
+  public boolean isSortKeys() {
+    return sortKeys;
+  }
+
+  /**
+   * Gets the options to be added to the options of the conversion cache.
+   *
+   * @return the fingerprint of the properties options
+   */
+  public String getCacheOptions() {
+    return ",infer=" + infer + ",types=" + typeHints + ",nest=" + nest + ",sortKeys=" + sortKeys;
+  }
+}
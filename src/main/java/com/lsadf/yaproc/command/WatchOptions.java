@@ -0,0 +1,43 @@
+package com.lsadf.yaproc.command;
+
+import java.time.Duration;
+import picocli.CommandLine;
+
+/**
+ * PicoCLI mixin holding the watch mode options, added to the commands able to run again whenever
+ * their inputs change.
+ */
+public class WatchOptions {
+
+  @CommandLine.Option(
+      names = {"--watch", "-w"},
+      description =
+          "Keep running and convert again whenever an input changes. Outputs are overwritten by the"
+              + " conversions following the first one")
+  private boolean watch;
+
+  @CommandLine.Option(
+      names = {"--debounce"},
+      description =
+          "Quiet period in milliseconds closing a burst of changes in watch mode (default:"
+              + " ${DEFAULT-VALUE})")
+  private long debounce = 200;
+
+  /**
+   * Indicates whether the command keeps running and runs again whenever an input changes.
+   *
+   * @return {@code true} in watch mode
+   */
+  public boolean isWatch() {
+    return watch;
+  }
+
+  /**
+   * Gets the quiet period closing a burst of changes in watch mode.
+   *
+   * @return the debounce delay
+   */
+  public Duration getDebounce() {
+    return Duration.ofMillis(debounce);
+  }
+}
@@ -1,5 +1,6 @@
 package com.lsadf.yaproc.command;
 
+import com.lsadf.yaproc.file.FileFormat;
 import com.lsadf.yaproc.file.handler.input.InputFileHandler;
 import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
 import java.io.File;
@@ -60,12 +61,13 @@ public interface YaprocCommand<I> extends Callable<Integer> {
   void init();
 
   /**
-   * Gets the input file handler associated with this command. The input file handler is responsible
-   * for processing input files and converting them into a usable format.
+   * Gets the input file handler reading files of the given format. The input file handler is
+   * responsible for processing input files and converting them into a usable format.
    *
-   * @return an {@link InputFileHandler} instance specific to the command
+   * @param format the format of the input files
+   * @return an {@link InputFileHandler} instance reading the given format
    */
-  InputFileHandler getInputFileHandler();
+  InputFileHandler getInputFileHandler(FileFormat format);
 
   /**
    * Gets the output file handler associated with this command. The output file handler is
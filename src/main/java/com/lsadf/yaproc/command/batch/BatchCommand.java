@@ -0,0 +1,338 @@
+package com.lsadf.yaproc.command.batch;
+
+import com.lsadf.yaproc.cache.ConversionCache;
+import com.lsadf.yaproc.command.ACommand;
+import com.lsadf.yaproc.command.BufferSizeOptions;
+import com.lsadf.yaproc.command.FileFormatConverter;
+import com.lsadf.yaproc.command.PropertiesOptions;
+import com.lsadf.yaproc.command.WatchOptions;
+import com.lsadf.yaproc.command.YaprocCommand;
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
+import com.lsadf.yaproc.util.FileUtils;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import picocli.CommandLine;
+
+/**
+ * Converts every supported file of a directory tree into a mirrored output tree, within a single
+ * JVM.
+ *
+ * <p>The files are converted concurrently on a work-stealing {@link ForkJoinPool} bounded by the
+ * {@code --threads} option. They are scheduled from the largest to the smallest, so that a large
+ * file is never started last and left running alone at the end of the batch.
+ *
+ * <p>With the {@code --cache} option, the files whose output is up to date according to the {@link
+ * ConversionCache} of the output directory are skipped.
+ *
+ * <p>A file that cannot be converted does not stop the batch: the failure is logged, the other
+ * files are still converted, and the command exits with a non-zero status.
+ */
+@Slf4j
+@CommandLine.Command(
+    name = "batch",
+    aliases = {"b"},
+    description = "Converts every supported file of a directory tree into a mirrored output tree")
+public class BatchCommand extends ACommand<File> implements YaprocCommand<File> {
+
+  @CommandLine.Parameters(
+      arity = "2",
+      description = "Command parameters list: the input directory and the output directory")
+  private List<File> parameters;
+
+  @CommandLine.Option(
+      names = {"--to", "-t"},
+      required = true,
+      converter = FileFormatConverter.class,
+      description = "Format of the output files")
+  private FileFormat to;
+
+  @CommandLine.Option(
+      names = {"--threads"},
+      description = "Number of files converted concurrently (default: number of processors)")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  @CommandLine.Option(
+      names = {"--multi-document", "-m"},
+      description = "Convert every document of multi-document input files one at a time")
+  private boolean multiDocument;
+
+  @CommandLine.Option(
+      names = {"--cache"},
+      description =
+          "Skip the files whose output is up to date, according to the "
+              + ConversionCache.MANIFEST_NAME
+              + " manifest of the output directory")
+  private boolean cache;
+
+  @CommandLine.Mixin private BufferSizeOptions bufferSizeOptions = new BufferSizeOptions();
+
+  @CommandLine.Mixin private WatchOptions watchOptions = new WatchOptions();
+
+  @CommandLine.Mixin private PropertiesOptions propertiesOptions = new PropertiesOptions();
+
+  private ConversionCache conversionCache;
+
+  private File input;
+  private File output;
+
+  @Override
+  public Integer call() throws Exception {
+    try {
+      init();
+      log.debug("Initializing batch command...");
+
+      if (!input.isDirectory()) {
+        throw new FileNotFoundException("Input directory does not exist: " + input);
+      }
+      if (threads < 1) {
+        throw new CommandLine.ParameterException(
+            spec.commandLine(), "The number of threads must be positive: " + threads);
+      }
+      conversionCache = cache ? ConversionCache.open(output.toPath()) : null;
+      if (!watchOptions.isWatch()) {
+        return convertBatch(listFiles(List.of(input.toPath())));
+      }
+    } catch (Exception e) {
+      log.error(e.getMessage());
+      throw e;
+    }
+
+    // Only the files that changed are converted again
+    return watch(
+        watchOptions,
+        List.of(input.toPath()),
+        List.of(output.toPath()),
+        changes -> {
+          List<BatchFile> files;
+          try {
+            files = listFiles(changes.isEmpty() ? List.of(input.toPath()) : changes);
+          } catch (IOException e) {
+            log.error(e.getMessage());
+            throw e;
+          }
+          if (!files.isEmpty()) {
+            convertBatch(files);
+          }
+        });
+  }
+
+  private Integer convertBatch(List<BatchFile> files) throws IOException, InterruptedException {
+    log.debug("Found {} files to convert to {}", files.size(), to);
+
+    long start = System.nanoTime();
+    int failures = convertAll(files);
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    if (conversionCache != null) {
+      conversionCache.save();
+    }
+    logStartupProfile();
+
+    if (failures > 0) {
+      log.error("Failed to convert {} of {} files", failures, files.size());
+      return CommandLine.ExitCode.SOFTWARE;
+    }
+    log.info("Converted {} files in {} ms", files.size(), elapsed);
+    return 0;
+  }
+
+  /**
+   * Lists the supported files found in the given paths of the input tree, largest first. Files
+   * already located in the output tree are skipped, so that the output directory may be nested in
+   * the input directory.
+   *
+   * @param roots files or directories of the input tree
+   * @throws IOException if the tree cannot be walked, or if several files would be converted to
+   *     the same output file, such as {@code app.yml} and {@code app.yaml}
+   */
+  private List<BatchFile> listFiles(Collection<Path> roots) throws IOException {
+    Path inputRoot = input.toPath().toAbsolutePath().normalize();
+    Path outputRoot = output.toPath().toAbsolutePath().normalize();
+    List<Path> candidates = new ArrayList<>();
+    for (Path root : roots) {
+      if (!Files.exists(root)) {
+        // Deleted since it changed
+        continue;
+      }
+      try (Stream<Path> paths = Files.walk(root.toAbsolutePath().normalize())) {
+        paths
+            .filter(Files::isRegularFile)
+            .filter(path -> !path.startsWith(outputRoot))
+            .forEach(candidates::add);
+      }
+    }
+    List<BatchFile> files = new ArrayList<>(candidates.size());
+    for (Path path : candidates) {
+      FileFormat format = formatOf(path.toFile());
+      if (format == null) {
+        log.debug("Skipping unsupported file: {}", path);
+        continue;
+      }
+      Path target = outputRoot.resolve(inputRoot.relativize(path));
+      files.add(new BatchFile(path.toFile(), format, outputFile(target), Files.size(path)));
+    }
+    checkDistinctOutputs(files);
+    files.sort(Comparator.comparingLong(BatchFile::getSize).reversed());
+    return files;
+  }
+
+  /** Fails before anything is converted if several files would overwrite each other's output. */
+  private static void checkDistinctOutputs(List<BatchFile> files) throws IOException {
+    Map<File, File> inputsByOutput = new HashMap<>();
+    List<String> conflicts = new ArrayList<>();
+    for (BatchFile file : files) {
+      File previous = inputsByOutput.putIfAbsent(file.getOutput(), file.getInput());
+      if (previous != null) {
+        conflicts.add(previous + " and " + file.getInput() + " -> " + file.getOutput());
+      }
+    }
+    if (!conflicts.isEmpty()) {
+      throw new IOException(
+          "Several input files would be converted to the same output file: "
+              + String.join(", ", conflicts));
+    }
+  }
+
+  private int convertAll(List<BatchFile> files) throws InterruptedException {
+    AtomicInteger failures = new AtomicInteger();
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      List<Future<?>> tasks = new ArrayList<>(files.size());
+      for (BatchFile file : files) {
+        tasks.add(pool.submit(() -> convert(file, failures)));
+      }
+      for (Future<?> task : tasks) {
+        try {
+          task.get();
+        } catch (ExecutionException e) {
+          // Failures are counted by the task itself, only unexpected errors end up here
+          log.error("Unexpected error during batch conversion", e.getCause());
+          failures.incrementAndGet();
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    return failures.get();
+  }
+
+  private void convert(BatchFile file, AtomicInteger failures) {
+    try {
+      boolean documents =
+          multiDocument || file.getFormat() == FileFormat.NDJSON || to == FileFormat.NDJSON;
+      String cacheOptions =
+          "from="
+              + file.getFormat()
+              + ",documents="
+              + documents
+              + propertiesOptions.getCacheOptions();
+      if (conversionCache != null
+          && conversionCache.isUpToDate(file.getInput(), file.getOutput(), to, cacheOptions)) {
+        log.debug("Output is up to date, skipping conversion: {}", file.getOutput());
+        return;
+      }
+
+      FileData fileData = FileUtils.readFile(file.getInput(), file.getFormat());
+      if (documents) {
+        FileUtils.writeFile(
+            file.getOutput(),
+            isOverwrite(),
+            bufferSizeOptions.getBufferSize(),
+            out -> {
+              try (OutputFileHandler.DocumentWriter writer =
+                  outputFileHandler.openDocumentWriter(out)) {
+                getInputFileHandler(file.getFormat()).handleDocuments(fileData, writer::write);
+              }
+            });
+      } else {
+        ContentMap content = getInputFileHandler(file.getFormat()).handleFile(fileData);
+        outputFileHandler.handleFile(file.getOutput(), content, isOverwrite());
+      }
+      if (conversionCache != null) {
+        conversionCache.record(file.getInput(), file.getOutput(), to, cacheOptions);
+      }
+      log.debug("Converted {} to {}", file.getInput(), file.getOutput());
+    } catch (Exception e) {
+      log.error("Failed to convert {}: {}", file.getInput(), e.getMessage());
+      failures.incrementAndGet();
+    }
+  }
+
+  private File outputFile(Path target) {
+    File file = target.toFile();
+    String name = file.getName();
+    boolean gzip = FileUtils.isGzipFile(file);
+    if (gzip) {
+      name = name.substring(0, name.length() - FileUtils.GZIP_EXTENSION.length() - 1);
+    }
+    int lastDotIndex = name.lastIndexOf('.');
+    String baseName = name.substring(0, lastDotIndex);
+    String outputName = baseName + "." + to.getDefaultExtension();
+    if (gzip) {
+      outputName += "." + FileUtils.GZIP_EXTENSION;
+    }
+    return new File(file.getParentFile(), outputName);
+  }
+
+  private static FileFormat formatOf(File file) {
+    try {
+      return FileFormat.fromExtension(FileUtils.getFileExtension(file));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public Logger getLogger() {
+    return log;
+  }
+
+  @Override
+  public File getInput() {
+    return input;
+  }
+
+  @Override
+  public File getOutput() {
+    return output;
+  }
+
+  @Override
+  public void init() {
+    super.init();
+    initPropertiesInputFileHandler(propertiesOptions);
+    initOutputFileHandler(
+        to, bufferSizeOptions.getBufferSize(), propertiesOptions.isSortKeys());
+    this.input = parameters.get(0);
+    this.output = parameters.get(1);
+  }
+
+  /** A file of the input tree, along with the file it is converted to. */
+  @Value
+  private static class BatchFile {
+    File input;
+    FileFormat format;
+    File output;
+    long size;
+  }
+}
@@ -1,14 +1,19 @@
 package com.lsadf.yaproc.command.concatenation;
 
 import com.lsadf.yaproc.command.ACommand;
+import com.lsadf.yaproc.command.BufferSizeOptions;
+import com.lsadf.yaproc.command.WatchOptions;
 import com.lsadf.yaproc.command.YaprocCommand;
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileData;
-import com.lsadf.yaproc.util.FileHandlerUtils;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
 import com.lsadf.yaproc.util.FileUtils;
 import com.lsadf.yaproc.util.ValidationUtils;
 import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import picocli.CommandLine;
@@ -23,6 +28,10 @@ public class ConcatCommand extends ACommand<List<File>> implements YaprocCommand
   @CommandLine.Parameters(arity = "2..*", description = "Command parameters list")
   private List<File> parameters;
 
+  @CommandLine.Mixin private BufferSizeOptions bufferSizeOptions = new BufferSizeOptions();
+
+  @CommandLine.Mixin private WatchOptions watchOptions = new WatchOptions();
+
   private List<File> input;
   private File output;
 
@@ -44,17 +53,24 @@ public class ConcatCommand extends ACommand<List<File>> implements YaprocCommand
   @Override
   public void init() {
     super.init();
-    this.outputFileHandler = FileHandlerUtils.initOutputFileHandlers();
     this.output = parameters.get(0);
     this.input = parameters.subList(1, parameters.size());
   }
 
   @Override
   public Integer call() throws Exception {
-    try {
-      init();
-      log.debug("Initializing concat command...");
+    init();
+    log.debug("Initializing concat command...");
+    if (!watchOptions.isWatch()) {
+      return concatenate();
+    }
+    // The output depends on every input, so any change triggers a full concatenation
+    List<Path> watched = input.stream().map(File::toPath).collect(Collectors.toList());
+    return watch(watchOptions, watched, List.of(), changes -> concatenate());
+  }
 
+  private Integer concatenate() throws Exception {
+    try {
       // Validate all input files have the same extension
       String commonExtension = validateFileExtensions();
       log.debug("Common file extension: " + commonExtension);
@@ -62,6 +78,14 @@ public class ConcatCommand extends ACommand<List<File>> implements YaprocCommand
       // Validate file format is supported
       ValidationUtils.validateFileFormat(commonExtension);
       log.debug("File format validation successful");
+      InputFileHandler inputFileHandler =
+          getInputFileHandler(FileFormat.fromExtension(commonExtension));
+
+      // The output may be written in another format than the inputs
+      String outputExtension = FileUtils.getFileExtension(output);
+      ValidationUtils.validateFileFormat(outputExtension);
+      initOutputFileHandler(
+          FileFormat.fromExtension(outputExtension), bufferSizeOptions.getBufferSize());
 
       // Concatenate files
       ContentMap concatMap = new ContentMap();
@@ -72,13 +96,15 @@ public class ConcatCommand extends ACommand<List<File>> implements YaprocCommand
       }
 
       // Write concatenated content to output file using the outputFileHandler
-      outputFileHandler.handleFile(output, concatMap, isForce());
+      outputFileHandler.handleFile(output, concatMap, isOverwrite());
       log.debug("Successfully wrote concatenated content to: " + getOutput());
 
       return 0;
     } catch (Exception e) {
       log.error(e.getMessage());
       throw e;
+    } finally {
+      logStartupProfile();
     }
   }
 
@@ -1,57 +1,324 @@
 package com.lsadf.yaproc.command.conversion;
 
+import com.lsadf.yaproc.cache.ConversionCache;
 import com.lsadf.yaproc.command.ACommand;
+import com.lsadf.yaproc.command.BufferSizeOptions;
+import com.lsadf.yaproc.command.FileFormatConverter;
+import com.lsadf.yaproc.command.PropertiesOptions;
+import com.lsadf.yaproc.command.WatchOptions;
 import com.lsadf.yaproc.command.YaprocCommand;
+import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.FileFormatDetector;
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
+import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
+import com.lsadf.yaproc.file.stream.TokenStreamConverter;
 import com.lsadf.yaproc.util.FileUtils;
-import com.lsadf.yaproc.util.ValidationUtils;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import picocli.CommandLine;
 
 public abstract class AConversionCommand extends ACommand<File> implements YaprocCommand<File> {
 
-  @CommandLine.Parameters(arity = "2", description = "Command parameters list")
+  @CommandLine.Parameters(
+      arity = "2",
+      description = "Command parameters list (use - for the standard input or output)")
   protected List<File> parameters;
 
+  @CommandLine.Option(
+      names = {"--stream", "-s"},
+      description =
+          "Stream JSON/YAML tokens straight to the output without loading the whole content in"
+              + " memory")
+  protected boolean stream;
+
+  @CommandLine.Option(
+      names = {"--from"},
+      converter = FileFormatConverter.class,
+      description =
+          "Format of the input, instead of detecting it from the input extension or content."
+              + " Required when reading from the standard input")
+  protected FileFormat from;
+
+  @CommandLine.Option(
+      names = {"--multi-document", "-m"},
+      description =
+          "Convert every document of a multi-document input (such as YAML documents separated by"
+              + " ---) one at a time")
+  protected boolean multiDocument;
+
+  @CommandLine.Option(
+      names = {"--parallel", "-p"},
+      description =
+          "Split a multi-document input on its document boundaries and parse the documents in"
+              + " parallel, preserving their order. Implies --multi-document")
+  protected boolean parallel;
+
+  @CommandLine.Option(
+      names = {"--cache"},
+      description =
+          "Skip the conversion when the output is up to date, according to the "
+              + ConversionCache.MANIFEST_NAME
+              + " manifest of the output directory")
+  protected boolean cache;
+
+  @CommandLine.Mixin protected BufferSizeOptions bufferSizeOptions = new BufferSizeOptions();
+
+  @CommandLine.Mixin protected WatchOptions watchOptions = new WatchOptions();
+
+  @CommandLine.Mixin protected PropertiesOptions propertiesOptions = new PropertiesOptions();
+
   protected File input;
   protected File output;
 
   @Override
   public Integer call() throws Exception {
+    init();
+    getLogger().debug("Initializing command...");
+    if (!watchOptions.isWatch()) {
+      return convertOnce();
+    }
+    if (FileUtils.isStandardStream(input) || FileUtils.isStandardStream(output)) {
+      throw new CommandLine.ParameterException(
+          spec.commandLine(),
+          "The --watch option cannot be used with the standard input or output");
+    }
+    return watch(watchOptions, List.of(input.toPath()), List.of(), changes -> convertOnce());
+  }
+
+  /**
+   * Converts the input into the output once, unless the conversion cache finds the output up to
+   * date.
+   *
+   * @return the exit code of the conversion
+   * @throws Exception if the conversion fails
+   */
+  private Integer convertOnce() throws Exception {
     try {
-      init();
-      getLogger().debug("Initializing command...");
+      boolean standardInput = FileUtils.isStandardStream(input);
+      boolean standardOutput = FileUtils.isStandardStream(output);
 
       // Check if input exists
-      if (!input.exists()) {
+      if (!standardInput && !input.exists()) {
         throw new FileNotFoundException("Input file does not exist: " + input);
       }
 
-      // get input extension
-      String inputExtension = FileUtils.getFileExtension(input);
-      getLogger().debug("Input file extension: {}", inputExtension);
+      FileFormat inputFormat = resolveInputFormat(standardInput);
+      FileFormat outputFormat = outputFileHandler.getType();
+      getLogger().debug("Converting from {} to {}", inputFormat, outputFormat);
 
-      // if input extension is not supported, throw an exception
-      ValidationUtils.validateFileFormat(inputExtension);
-      getLogger().debug("File format validation successful");
-
-      FileData fileData = FileUtils.readFile(input);
-      getLogger().debug("Read input file: {}", input);
-      getLogger().debug("File content length: {}", fileData.getContent().length());
-
-      ContentMap fileContent = inputFileHandler.handleFile(fileData);
-      getLogger().debug("Processed input file. Content map size: {}", fileContent.size());
+      ConversionCache conversionCache = null;
+      String cacheOptions = getCacheOptions(inputFormat);
+      if (cache) {
+        if (standardInput || standardOutput) {
+          getLogger().warn("The conversion cache is not used with the standard input or output");
+        } else {
+          conversionCache = ConversionCache.forOutput(output);
+          if (conversionCache.isUpToDate(input, output, outputFormat, cacheOptions)) {
+            getLogger().info("Output is up to date, skipping conversion: {}", output);
+            // The entry may have been refreshed with the new modification time of the input
+            conversionCache.save();
+            return 0;
+          }
+        }
+      }
 
-      outputFileHandler.handleFile(output, fileContent, isForce());
+      convert(inputFormat, outputFormat, standardInput, standardOutput);
       getLogger().debug("Successfully wrote output to: {}", output);
 
+      if (conversionCache != null && output.isFile()) {
+        conversionCache.record(input, output, outputFormat, cacheOptions);
+        conversionCache.save();
+      }
       return 0;
     } catch (Exception e) {
       getLogger().error(e.getMessage());
       throw e;
+    } finally {
+      logStartupProfile();
+    }
+  }
+
+  /**
+   * Converts the input into the output, choosing between token streaming, document by document
+   * conversion and whole content conversion.
+   *
+   * @param inputFormat the format of the input
+   * @param outputFormat the format of the output
+   * @param standardInput whether the input is read from the standard input
+   * @param standardOutput whether the output is written to the standard output
+   * @throws IOException if the input cannot be read or the output cannot be written
+   */
+  private void convert(
+      FileFormat inputFormat,
+      FileFormat outputFormat,
+      boolean standardInput,
+      boolean standardOutput)
+      throws IOException {
+    if (stream) {
+      if (TokenStreamConverter.supports(inputFormat, outputFormat)) {
+        streamTokens(inputFormat, outputFormat, standardInput, standardOutput);
+        return;
+      }
+      getLogger()
+          .warn(
+              "Streaming is not supported from {} to {}, falling back to regular conversion",
+              inputFormat,
+              outputFormat);
+    }
+
+    FileData fileData =
+        standardInput
+            ? FileUtils.readStandardInput(inputFormat)
+            : FileUtils.readFile(input, inputFormat);
+    getLogger().debug("Read input file: {}", input);
+    getLogger().debug("File content size: {} bytes", fileData.getSize());
+
+    // NDJSON holds one record per line, so it is always converted record by record
+    int bufferSize = bufferSizeOptions.getBufferSize();
+    if (isDocumentConversion(inputFormat, outputFormat)) {
+      if (standardOutput) {
+        writeDocuments(inputFormat, fileData, new BufferedOutputStream(System.out, bufferSize));
+      } else {
+        FileUtils.writeFile(
+            output, isOverwrite(), bufferSize, out -> writeDocuments(inputFormat, fileData, out));
+      }
+      return;
+    }
+
+    ContentMap fileContent = getInputFileHandler(inputFormat).handleFile(fileData);
+    getLogger().debug("Processed input file. Content map size: {}", fileContent.size());
+
+    if (standardOutput) {
+      OutputStream outputStream = new BufferedOutputStream(System.out, bufferSize);
+      outputFileHandler.write(fileContent, outputStream);
+    } else {
+      outputFileHandler.handleFile(output, fileContent, isOverwrite());
+    }
+  }
+
+  private boolean isDocumentConversion(FileFormat inputFormat, FileFormat outputFormat) {
+    return multiDocument
+        || parallel
+        || inputFormat == FileFormat.NDJSON
+        || outputFormat == FileFormat.NDJSON;
+  }
+
+  /**
+   * Builds a fingerprint of the options changing the output of the conversion, recorded in the
+   * conversion cache so that a conversion run with other options is not skipped.
+   *
+   * @param inputFormat the format of the input
+   * @return the fingerprint of the options
+   */
+  protected String getCacheOptions(FileFormat inputFormat) {
+    return "from="
+        + inputFormat
+        + ",stream="
+        + (stream && TokenStreamConverter.supports(inputFormat, outputFileHandler.getType()))
+        + ",documents="
+        + isDocumentConversion(inputFormat, outputFileHandler.getType())
+        + propertiesOptions.getCacheOptions();
+  }
+
+  /**
+   * Resolves the format of the input: the {@code --from} option takes precedence over the input
+   * extension, and is mandatory when reading from the standard input. When the extension does not
+   * name a supported format, the format is detected from the content of the input.
+   *
+   * @param standardInput whether the input is read from the standard input
+   * @return the format of the input
+   * @throws IOException if the input cannot be read to detect its format
+   */
+  private FileFormat resolveInputFormat(boolean standardInput) throws IOException {
+    if (from != null) {
+      getLogger().debug("Input format forced to: {}", from);
+      return from;
+    }
+    if (standardInput) {
+      throw new CommandLine.ParameterException(
+          spec.commandLine(),
+          "The --from option is required when reading from the standard input");
+    }
+
+    // get input extension
+    String inputExtension = FileUtils.getFileExtension(input);
+    getLogger().debug("Input file extension: {}", inputExtension);
+    if (FileFormat.findByExtension(inputExtension).isPresent()) {
+      return FileFormat.fromExtension(inputExtension);
+    }
+
+    // if the input format cannot be detected either, throw an exception
+    FileFormat inputFormat =
+        FileFormatDetector.resolve(input)
+            .orElseThrow(
+                () ->
+                    new UnsupportedFileFormatException(
+                        "Unsupported file format: "
+                            + (inputExtension.isEmpty() ? input.getName() : inputExtension)));
+    getLogger().debug("Input format detected from its content: {}", inputFormat);
+    return inputFormat;
+  }
+
+  /**
+   * Converts the documents of the input one at a time, each document being written as soon as it is
+   * parsed.
+   *
+   * @param inputFormat the format of the input
+   * @param fileData the input data
+   * @param outputStream the stream to write the documents to
+   * @throws IOException if a document cannot be parsed or written
+   */
+  private void writeDocuments(FileFormat inputFormat, FileData fileData, OutputStream outputStream)
+      throws IOException {
+    InputFileHandler inputFileHandler = getInputFileHandler(inputFormat);
+    int[] count = {0};
+    try (OutputFileHandler.DocumentWriter writer =
+        outputFileHandler.openDocumentWriter(outputStream)) {
+      InputFileHandler.DocumentConsumer consumer =
+          document -> {
+            writer.write(document);
+            count[0]++;
+          };
+      if (parallel) {
+        inputFileHandler.handleDocuments(fileData, ForkJoinPool.commonPool(), consumer);
+      } else {
+        inputFileHandler.handleDocuments(fileData, consumer);
+      }
+    }
+    getLogger().debug("Converted {} documents", count[0]);
+  }
+
+  private void streamTokens(
+      FileFormat inputFormat,
+      FileFormat outputFormat,
+      boolean standardInput,
+      boolean standardOutput)
+      throws IOException {
+    TokenStreamConverter converter = new TokenStreamConverter();
+    int bufferSize = bufferSizeOptions.getBufferSize();
+    try (InputStream inputStream =
+        standardInput
+            ? FileUtils.readStandardInput(inputFormat).openStream()
+            : FileUtils.openInputStream(input)) {
+      if (standardOutput) {
+        OutputStream outputStream = new BufferedOutputStream(System.out, bufferSize);
+        converter.convert(inputStream, inputFormat, outputStream, outputFormat);
+      } else {
+        FileUtils.writeFile(
+            output,
+            isOverwrite(),
+            bufferSize,
+            out -> converter.convert(inputStream, inputFormat, out, outputFormat));
+      }
     }
   }
 
@@ -68,6 +335,7 @@ public abstract class AConversionCommand extends ACommand<File> implements Yapro
   @Override
   public void init() {
     super.init();
+    initPropertiesInputFileHandler(propertiesOptions);
     this.input = parameters.get(0);
     this.output = parameters.get(1);
   }
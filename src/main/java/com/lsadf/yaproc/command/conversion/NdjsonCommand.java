@@ -0,0 +1,27 @@
+package com.lsadf.yaproc.command.conversion;
+
+import com.lsadf.yaproc.command.YaprocCommand;
+import com.lsadf.yaproc.file.FileFormat;
+import java.io.File;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import picocli.CommandLine;
+
+@Slf4j
+@CommandLine.Command(
+    name = "ndjson",
+    aliases = {"nd", "jsonl"},
+    description = "Converts the given input file to NDJSON (JSON Lines)")
+public class NdjsonCommand extends AConversionCommand implements YaprocCommand<File> {
+
+  @Override
+  public void init() {
+    super.init();
+    initOutputFileHandler(FileFormat.NDJSON, bufferSizeOptions.getBufferSize());
+  }
+
+  @Override
+  public Logger getLogger() {
+    return log;
+  }
+}
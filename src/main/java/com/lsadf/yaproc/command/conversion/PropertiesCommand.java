@@ -1,7 +1,7 @@
 package com.lsadf.yaproc.command.conversion;
 
 import com.lsadf.yaproc.command.YaprocCommand;
-import com.lsadf.yaproc.file.handler.output.PropertiesOutputFileHandler;
+import com.lsadf.yaproc.file.FileFormat;
 import java.io.File;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
@@ -17,7 +17,8 @@ public class PropertiesCommand extends AConversionCommand implements YaprocComma
   @Override
   public void init() {
     super.init();
-    this.outputFileHandler = new PropertiesOutputFileHandler();
+    initOutputFileHandler(
+        FileFormat.PROPERTIES, bufferSizeOptions.getBufferSize(), propertiesOptions.isSortKeys());
   }
 
   @Override
@@ -1,7 +1,7 @@
 package com.lsadf.yaproc.command.conversion;
 
 import com.lsadf.yaproc.command.YaprocCommand;
-import com.lsadf.yaproc.file.handler.output.YamlOutputFileHandler;
+import com.lsadf.yaproc.file.FileFormat;
 import java.io.File;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
@@ -17,7 +17,7 @@ public class YamlCommand extends AConversionCommand implements YaprocCommand<Fil
   @Override
   public void init() {
     super.init();
-    this.outputFileHandler = new YamlOutputFileHandler();
+    initOutputFileHandler(FileFormat.YAML, bufferSizeOptions.getBufferSize());
   }
 
   @Override
@@ -0,0 +1,166 @@
+package com.lsadf.yaproc.concurrent;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs tasks concurrently on an {@link ExecutorService} while handing their results to a consumer
+ * in the order the tasks were submitted.
+ *
+ * <p>The number of pending tasks is bounded: once the window is full, {@link #submit(Callable)}
+ * waits for the oldest task and consumes its result before accepting a new one. The memory held by
+ * the pipeline therefore depends on the window, not on the number of tasks.
+ *
+ * <p>A pipeline is fed by a single thread, and its consumer is always called on that thread.
+ *
+ * @param <T> the type of the task results
+ */
+public class OrderedTaskPipeline<T> {
+  private final ExecutorService executor;
+  private final int maxPendingTasks;
+  private final ResultConsumer<T> consumer;
+  private final Deque<Future<T>> pendingTasks = new ArrayDeque<>();
+
+  /**
+   * Creates a pipeline whose window is twice the parallelism of the executor.
+   *
+   * @param executor the executor running the tasks
+   * @param consumer the consumer receiving the results, in submission order
+   */
+  public OrderedTaskPipeline(ExecutorService executor, ResultConsumer<T> consumer) {
+    this(executor, 2 * parallelism(executor), consumer);
+  }
+
+  /**
+   * Creates a pipeline with the given window.
+   *
+   * @param executor the executor running the tasks
+   * @param maxPendingTasks the maximum number of tasks submitted but not consumed yet
+   * @param consumer the consumer receiving the results, in submission order
+   */
+  public OrderedTaskPipeline(
+      ExecutorService executor, int maxPendingTasks, ResultConsumer<T> consumer) {
+    if (maxPendingTasks <= 0) {
+      throw new IllegalArgumentException("Window must be positive: " + maxPendingTasks);
+    }
+    this.executor = executor;
+    this.maxPendingTasks = maxPendingTasks;
+    this.consumer = consumer;
+  }
+
+  /**
+   * Submits a task, after consuming the oldest results if the window is full.
+   *
+   * @param task the task to run
+   * @throws IOException if a task or the consumer failed
+   */
+  public void submit(Callable<T> task) throws IOException {
+    while (pendingTasks.size() >= maxPendingTasks) {
+      consume(pendingTasks.pollFirst());
+    }
+    pendingTasks.addLast(executor.submit(task));
+  }
+
+  /**
+   * Consumes the results of the oldest tasks that are already complete, without waiting for the
+   * others.
+   *
+   * @throws IOException if a task or the consumer failed
+   */
+  public void consumeCompleted() throws IOException {
+    while (!pendingTasks.isEmpty() && pendingTasks.peekFirst().isDone()) {
+      consume(pendingTasks.pollFirst());
+    }
+  }
+
+  /**
+   * Waits for every pending task and consumes their results. If a task or the consumer fails, the
+   * remaining tasks are cancelled.
+   *
+   * @throws IOException if a task or the consumer failed
+   */
+  public void finish() throws IOException {
+    try {
+      while (!pendingTasks.isEmpty()) {
+        consume(pendingTasks.pollFirst());
+      }
+    } finally {
+      cancel();
+    }
+  }
+
+  /** Cancels every pending task and discards their results. */
+  public void cancel() {
+    pendingTasks.forEach(future -> future.cancel(true));
+    pendingTasks.clear();
+  }
+
+  /**
+   * Indicates whether no task is pending.
+   *
+   * @return {@code true} if every submitted task has been consumed
+   */
+  public boolean isEmpty() {
+    return pendingTasks.isEmpty();
+  }
+
+  private void consume(Future<T> future) throws IOException {
+    T result;
+    try {
+      result = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a task", e);
+    } catch (ExecutionException e) {
+      Throwable cause = unwrap(e.getCause());
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause.getMessage(), cause);
+    }
+    consumer.accept(result);
+  }
+
+  /**
+   * Unwraps the checked exception of a task run by a {@link ForkJoinPool}, which throws it wrapped
+   * in a plain {@link RuntimeException}, itself possibly wrapped again when rethrown in the thread
+   * waiting for the task.
+   */
+  private static Throwable unwrap(Throwable cause) {
+    while (cause.getClass() == RuntimeException.class && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause;
+  }
+
+  private static int parallelism(ExecutorService executor) {
+    return executor instanceof ForkJoinPool
+        ? ((ForkJoinPool) executor).getParallelism()
+        : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Receives the results of a pipeline.
+   *
+   * @param <T> the type of the results
+   */
+  @FunctionalInterface
+  public interface ResultConsumer<T> {
+    /**
+     * Consumes the result of a task.
+     *
+     * @param result the result of the task
+     * @throws IOException if the result cannot be consumed
+     */
+    void accept(T result) throws IOException;
+  }
+}
@@ -0,0 +1,135 @@
+package com.lsadf.yaproc.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+
+/**
+ * Forwards invocations to a running {@link DaemonServer}, so that they are served by a warm JVM
+ * instead of building the command line model and the mappers again.
+ *
+ * <p>The client is deliberately free of logging and of any dependency on the commands, so that an
+ * invocation served by the daemon loads as few classes as possible.
+ */
+public class DaemonClient {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Path socket;
+
+  /**
+   * Creates a client of the daemon listening on the given socket.
+   *
+   * @param socket the path of the daemon socket
+   */
+  public DaemonClient(Path socket) {
+    this.socket = socket;
+  }
+
+  /**
+   * Forwards the invocation to the daemon listening on the default socket, if there is one.
+   *
+   * @param args the command-line arguments
+   * @return the exit code of the invocation, or an empty result if it must run in-process
+   * @see DaemonProtocol#getSocketPath()
+   */
+  public static OptionalInt forward(String[] args) {
+    if (args.length == 0) {
+      return OptionalInt.empty();
+    }
+    return new DaemonClient(DaemonProtocol.getSocketPath())
+        .execute(Path.of(""), args, System.out, System.err);
+  }
+
+  /**
+   * Executes an invocation on the daemon, copying its standard output and standard error to the
+   * given streams.
+   *
+   * <p>When no daemon accepts the connection, or when the socket is not owned by the current user,
+   * the invocation has not started and an empty result is returned, so that the caller can run it
+   * in-process. The daemon also answers so for the invocations it does not serve, such as the ones
+   * reading the standard input or watching files. Once the invocation is accepted, a lost
+   * connection is reported as a failure instead, since the invocation may have had effects.
+   *
+   * @param workingDirectory the directory against which the relative paths are resolved
+   * @param args the command-line arguments
+   * @param out the stream receiving the standard output of the invocation
+   * @param err the stream receiving the standard error of the invocation
+   * @return the exit code of the invocation, or an empty result if it must run in-process
+   */
+  public OptionalInt execute(
+      Path workingDirectory, String[] args, OutputStream out, OutputStream err) {
+    SocketChannel channel;
+    try {
+      if (!Files.exists(socket) || !DaemonProtocol.isOwnedByCurrentUser(socket)) {
+        // Never send the arguments to a daemon run by another user
+        return OptionalInt.empty();
+      }
+      channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+      channel.connect(UnixDomainSocketAddress.of(socket));
+    } catch (IOException | UnsupportedOperationException e) {
+      // Stale socket of a daemon that is gone
+      return OptionalInt.empty();
+    }
+
+    try (channel) {
+      DataOutputStream request =
+          new DataOutputStream(
+              new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+      DaemonProtocol.writeRequest(request, workingDirectory, args);
+
+      DataInputStream response =
+          new DataInputStream(
+              new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+      return readResponse(response, out, err);
+    } catch (IOException e) {
+      new PrintStream(err, true).println("Lost the connection to the yaproc daemon: " + e);
+      return OptionalInt.of(1);
+    }
+  }
+
+  private static OptionalInt readResponse(
+      DataInputStream response, OutputStream out, OutputStream err) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    while (true) {
+      byte tag = response.readByte();
+      if (tag == DaemonProtocol.REJECTED) {
+        return OptionalInt.empty();
+      }
+      if (tag == DaemonProtocol.EXIT) {
+        out.flush();
+        err.flush();
+        return OptionalInt.of(response.readInt());
+      }
+      OutputStream target;
+      if (tag == DaemonProtocol.STDOUT) {
+        target = out;
+      } else if (tag == DaemonProtocol.STDERR) {
+        target = err;
+      } else {
+        throw new IOException("Unexpected frame: " + tag);
+      }
+      int length = response.readInt();
+      while (length > 0) {
+        int read = response.read(buffer, 0, Math.min(length, buffer.length));
+        if (read < 0) {
+          throw new EOFException("Truncated frame");
+        }
+        target.write(buffer, 0, read);
+        length -= read;
+      }
+      target.flush();
+    }
+  }
+}
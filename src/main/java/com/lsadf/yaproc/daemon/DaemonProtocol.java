@@ -0,0 +1,193 @@
+package com.lsadf.yaproc.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+
+/**
+ * The wire protocol between the yaproc client and the daemon, over a Unix domain socket.
+ *
+ * <p>A connection carries a single invocation. The client sends a request made of the protocol
+ * version, its working directory and the command-line arguments. The daemon answers with a
+ * sequence of frames: standard output and standard error chunks, tagged and length-prefixed, as
+ * they are produced, then a final frame holding the exit code. An invocation the daemon does not
+ * serve is answered with a single {@link #REJECTED} frame, and the client runs it in-process.
+ *
+ * <p>Strings are sent as their UTF-8 bytes, prefixed by their length. All integers are big-endian.
+ */
+@UtilityClass
+public class DaemonProtocol {
+  /** Environment variable overriding the path of the daemon socket. */
+  public static final String SOCKET_ENV = "YAPROC_SOCKET";
+
+  /** Environment variable of the per-user runtime directory, holding the socket by default. */
+  public static final String RUNTIME_DIR_ENV = "XDG_RUNTIME_DIR";
+
+  /** Name of the socket in its directory. */
+  public static final String SOCKET_NAME = "yaproc.sock";
+
+  /** Version of the protocol, checked by the daemon for every request. */
+  public static final int VERSION = 2;
+
+  /** Tag of a frame holding standard output bytes. */
+  public static final byte STDOUT = 1;
+
+  /** Tag of a frame holding standard error bytes. */
+  public static final byte STDERR = 2;
+
+  /** Tag of the final frame, holding the exit code. */
+  public static final byte EXIT = 3;
+
+  /** Tag of the only frame answering an invocation that the daemon does not serve. */
+  public static final byte REJECTED = 4;
+
+  private static final int MAX_STRING_LENGTH = 1 << 20;
+  private static final int MAX_ARGUMENTS = 1 << 16;
+
+  /**
+   * Returns the path of the daemon socket: the value of {@value #SOCKET_ENV} if set, otherwise a
+   * socket in the runtime directory of the user given by {@value #RUNTIME_DIR_ENV}, otherwise a
+   * socket in a directory named after the user in the temporary directory. The directory of the
+   * socket must only be accessible to the user, and the daemon creates it so if it is missing.
+   *
+   * @return the path of the daemon socket
+   */
+  public static Path getSocketPath() {
+    String path = System.getenv(SOCKET_ENV);
+    if (path != null && !path.isBlank()) {
+      return Path.of(path);
+    }
+    String runtimeDirectory = System.getenv(RUNTIME_DIR_ENV);
+    if (runtimeDirectory != null && Path.of(runtimeDirectory).isAbsolute()) {
+      return Path.of(runtimeDirectory).resolve(SOCKET_NAME);
+    }
+    return Path.of(System.getProperty("java.io.tmpdir"))
+        .resolve("yaproc-" + System.getProperty("user.name"))
+        .resolve(SOCKET_NAME);
+  }
+
+  /**
+   * Indicates whether a file is owned by the user running the JVM.
+   *
+   * @param path the file to check
+   * @return {@code true} if the file is owned by the current user
+   * @throws IOException if the owner of the file cannot be read
+   */
+  public static boolean isOwnedByCurrentUser(Path path) throws IOException {
+    return Files.getOwner(path).getName().equals(System.getProperty("user.name"));
+  }
+
+  /**
+   * Writes a request.
+   *
+   * @param out the stream to the daemon
+   * @param workingDirectory the working directory of the client, against which the relative paths
+   *     of the arguments are resolved
+   * @param args the command-line arguments
+   * @throws IOException if the request cannot be written
+   */
+  public static void writeRequest(DataOutputStream out, Path workingDirectory, String[] args)
+      throws IOException {
+    out.writeInt(VERSION);
+    writeString(out, workingDirectory.toAbsolutePath().toString());
+    out.writeInt(args.length);
+    for (String arg : args) {
+      writeString(out, arg);
+    }
+    out.flush();
+  }
+
+  /**
+   * Reads a request.
+   *
+   * @param in the stream from the client
+   * @return the request
+   * @throws IOException if the request cannot be read, or was sent with another protocol version
+   */
+  public static Request readRequest(DataInputStream in) throws IOException {
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException(
+          "Unsupported protocol version " + version + ", the daemon speaks version " + VERSION);
+    }
+    Path workingDirectory = Path.of(readString(in));
+    int count = in.readInt();
+    if (count < 0 || count > MAX_ARGUMENTS) {
+      throw new IOException("Invalid number of arguments: " + count);
+    }
+    String[] args = new String[count];
+    for (int i = 0; i < count; i++) {
+      args[i] = readString(in);
+    }
+    return new Request(workingDirectory, args);
+  }
+
+  /**
+   * Writes the frame answering an invocation that the daemon does not serve.
+   *
+   * @param out the stream to the client
+   * @throws IOException if the frame cannot be written
+   */
+  public static void writeRejected(DataOutputStream out) throws IOException {
+    out.writeByte(REJECTED);
+    out.flush();
+  }
+
+  /**
+   * Writes a frame of output bytes.
+   *
+   * @param out the stream to the client
+   * @param tag {@link #STDOUT} or {@link #STDERR}
+   * @param bytes the buffer holding the bytes
+   * @param offset the offset of the bytes in the buffer
+   * @param length the number of bytes
+   * @throws IOException if the frame cannot be written
+   */
+  public static void writeOutput(
+      DataOutputStream out, byte tag, byte[] bytes, int offset, int length) throws IOException {
+    out.writeByte(tag);
+    out.writeInt(length);
+    out.write(bytes, offset, length);
+  }
+
+  /**
+   * Writes the final frame of a response.
+   *
+   * @param out the stream to the client
+   * @param exitCode the exit code of the invocation
+   * @throws IOException if the frame cannot be written
+   */
+  public static void writeExit(DataOutputStream out, int exitCode) throws IOException {
+    out.writeByte(EXIT);
+    out.writeInt(exitCode);
+    out.flush();
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > MAX_STRING_LENGTH) {
+      throw new IOException("Invalid string length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** An invocation sent by a client. */
+  @Value
+  public static class Request {
+    Path workingDirectory;
+    String[] args;
+  }
+}
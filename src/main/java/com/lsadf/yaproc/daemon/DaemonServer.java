@@ -0,0 +1,307 @@
+package com.lsadf.yaproc.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine;
+
+/**
+ * Serves the invocations forwarded by {@link DaemonClient} over a Unix domain socket, from a JVM
+ * where the classes are loaded and the handlers already initialized.
+ *
+ * <p>Each worker thread keeps its own {@link CommandLine}, reused from one invocation to the next:
+ * picocli resets the options before every parse, while the handlers held by the commands stay
+ * warm. The relative paths of an invocation are resolved against the working directory of its
+ * client, and what it prints to the standard output and standard error, logs included, is sent
+ * back to that client.
+ *
+ * <p>The standard streams are routed per thread, and the log level is shared by the whole daemon.
+ * The invocations that would escape either are therefore sent back to their client, to be run
+ * in-process: the ones logging debug information, converting on several threads, reading the
+ * standard input or watching files, as found by parsing their arguments with picocli.
+ */
+@Slf4j
+public class DaemonServer implements Closeable {
+  private static final int BUFFER_SIZE = 8192;
+  private static final Set<String> PROCESS_BOUND_COMMANDS = Set.of("batch", "daemon");
+  private static final Set<String> PROCESS_BOUND_OPTIONS = Set.of("--debug", "--watch");
+  private static final Set<PosixFilePermission> PRIVATE_DIRECTORY_PERMISSIONS =
+      PosixFilePermissions.fromString("rwx------");
+
+  private final Path socket;
+  private final ExecutorService workers;
+  private final ThreadLocal<CommandLine> commandLines;
+  private final ThreadLocal<Path> workingDirectory = new ThreadLocal<>();
+
+  private ServerSocketChannel serverChannel;
+  private PrintStream systemOut;
+  private PrintStream systemErr;
+  private RoutingOutputStream out;
+  private RoutingOutputStream err;
+
+  /**
+   * Creates a daemon serving at most the given number of invocations at once.
+   *
+   * @param socket the path of the socket to listen on
+   * @param threads the number of invocations served concurrently
+   * @param commandLineFactory creates the command line of each worker thread
+   */
+  public DaemonServer(Path socket, int threads, Supplier<CommandLine> commandLineFactory) {
+    this.socket = socket.toAbsolutePath();
+    this.workers = Executors.newFixedThreadPool(threads);
+    this.commandLines =
+        ThreadLocal.withInitial(
+            () -> commandLineFactory.get().registerConverter(File.class, this::resolveFile));
+  }
+
+  /**
+   * Starts listening on the socket. The socket is bound in a directory only accessible to the
+   * current user, created if missing, so that it is never reachable by other users, not even
+   * between its creation and a change of its permissions. A socket file left behind by a daemon
+   * that is gone is replaced.
+   *
+   * @throws IOException if another daemon listens on the socket, if its directory is accessible to
+   *     other users, or if it cannot be bound
+   */
+  public void start() throws IOException {
+    createPrivateDirectory(socket.getParent());
+    if (Files.exists(socket)) {
+      if (isListening(socket)) {
+        throw new IOException("A daemon is already listening on " + socket);
+      }
+      Files.delete(socket);
+    }
+    serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    serverChannel.bind(UnixDomainSocketAddress.of(socket));
+
+    // Installed before any command line is created, so that picocli prints to them too
+    systemOut = System.out;
+    systemErr = System.err;
+    out = new RoutingOutputStream(systemOut);
+    err = new RoutingOutputStream(systemErr);
+    System.setOut(new PrintStream(out, true));
+    System.setErr(new PrintStream(err, true));
+  }
+
+  /**
+   * Accepts and serves connections until the daemon is closed.
+   *
+   * @throws IOException if a connection cannot be accepted
+   */
+  public void serve() throws IOException {
+    while (serverChannel.isOpen()) {
+      SocketChannel channel;
+      try {
+        channel = serverChannel.accept();
+      } catch (ClosedChannelException e) {
+        return;
+      }
+      try {
+        workers.execute(() -> handle(channel));
+      } catch (RejectedExecutionException e) {
+        channel.close();
+      }
+    }
+  }
+
+  /**
+   * Stops accepting connections, waits for the invocations being served, removes the socket file
+   * and restores the standard streams.
+   */
+  @Override
+  public void close() {
+    try {
+      if (serverChannel != null) {
+        serverChannel.close();
+      }
+      workers.shutdown();
+      if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+        workers.shutdownNow();
+      }
+      Files.deleteIfExists(socket);
+    } catch (IOException e) {
+      log.warn("Failed to clean up the daemon socket: {}", e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (systemOut != null) {
+        System.setOut(systemOut);
+        System.setErr(systemErr);
+        systemOut = null;
+      }
+    }
+  }
+
+  private void handle(SocketChannel channel) {
+    try (channel) {
+      DataInputStream request =
+          new DataInputStream(
+              new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+      DataOutputStream response =
+          new DataOutputStream(
+              new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+      DaemonProtocol.Request invocation = DaemonProtocol.readRequest(request);
+      workingDirectory.set(invocation.getWorkingDirectory());
+      try {
+        CommandLine commandLine = commandLines.get();
+        if (!isServable(commandLine, invocation.getArgs())) {
+          DaemonProtocol.writeRejected(response);
+          return;
+        }
+        int exitCode = execute(commandLine, invocation.getArgs(), response);
+        DaemonProtocol.writeExit(response, exitCode);
+      } finally {
+        workingDirectory.remove();
+      }
+    } catch (IOException e) {
+      log.debug("Connection closed: {}", e.getMessage());
+    }
+  }
+
+  private int execute(CommandLine commandLine, String[] args, DataOutputStream response) {
+    out.route(new FrameOutputStream(response, DaemonProtocol.STDOUT));
+    err.route(new FrameOutputStream(response, DaemonProtocol.STDERR));
+    try {
+      return commandLine.execute(args);
+    } finally {
+      System.out.flush();
+      System.err.flush();
+      out.unroute();
+      err.unroute();
+    }
+  }
+
+  /**
+   * Indicates whether an invocation can be served by the daemon, from the command and the options
+   * picocli parses out of its arguments. An invocation that cannot be parsed is served, so that
+   * its client gets the usage error.
+   */
+  private static boolean isServable(CommandLine commandLine, String[] args) {
+    CommandLine.ParseResult subcommand;
+    try {
+      subcommand = commandLine.parseArgs(args).subcommand();
+    } catch (CommandLine.ParameterException e) {
+      return true;
+    }
+    if (subcommand == null) {
+      return true;
+    }
+    if (PROCESS_BOUND_COMMANDS.contains(subcommand.commandSpec().name())
+        || PROCESS_BOUND_OPTIONS.stream().anyMatch(subcommand::hasMatchedOption)) {
+      return false;
+    }
+    // Standard input, read by the client process
+    return subcommand.matchedPositionals().stream()
+        .flatMap(positional -> positional.stringValues().stream())
+        .noneMatch("-"::equals);
+  }
+
+  private File resolveFile(String value) {
+    Path directory = workingDirectory.get();
+    if (directory == null || "-".equals(value)) {
+      return new File(value);
+    }
+    return directory.resolve(value).toFile();
+  }
+
+  /**
+   * Creates the directory of the socket with permissions for the current user only, or checks that
+   * an existing one is owned by the user and not accessible to the others.
+   */
+  private static void createPrivateDirectory(Path directory) throws IOException {
+    if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      Files.createDirectories(directory);
+      return;
+    }
+    try {
+      Files.createDirectory(
+          directory, PosixFilePermissions.asFileAttribute(PRIVATE_DIRECTORY_PERMISSIONS));
+      return;
+    } catch (FileAlreadyExistsException e) {
+      // Checked below
+    } catch (NoSuchFileException e) {
+      Files.createDirectories(directory.getParent());
+      Files.createDirectory(
+          directory, PosixFilePermissions.asFileAttribute(PRIVATE_DIRECTORY_PERMISSIONS));
+      return;
+    }
+    if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)
+        || !DaemonProtocol.isOwnedByCurrentUser(directory)
+        || !PRIVATE_DIRECTORY_PERMISSIONS.containsAll(
+            Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS))) {
+      throw new IOException(
+          "The directory of the daemon socket must be owned by the current user and only"
+              + " accessible to them: "
+              + directory);
+    }
+  }
+
+  private static boolean isListening(Path socket) {
+    try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+      channel.connect(UnixDomainSocketAddress.of(socket));
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** Writes everything it receives as frames of the given tag. */
+  private static class FrameOutputStream extends OutputStream {
+    private final DataOutputStream response;
+    private final byte tag;
+
+    FrameOutputStream(DataOutputStream response, byte tag) {
+      this.response = response;
+      this.tag = tag;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return;
+      }
+      // stdout and stderr share the connection
+      synchronized (response) {
+        DaemonProtocol.writeOutput(response, tag, b, off, len);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      synchronized (response) {
+        response.flush();
+      }
+    }
+  }
+}
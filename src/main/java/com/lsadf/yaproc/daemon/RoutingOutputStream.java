@@ -0,0 +1,60 @@
+package com.lsadf.yaproc.daemon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream writing to the stream routed for the current thread, or to a fallback stream
+ * when none is. Installed as the standard output and standard error of the daemon, it sends what
+ * each invocation prints, logs included, to the client that sent it.
+ */
+class RoutingOutputStream extends OutputStream {
+  private final OutputStream fallback;
+  private final ThreadLocal<OutputStream> routes = new ThreadLocal<>();
+
+  /**
+   * Creates a stream writing to the given stream until a route is set.
+   *
+   * @param fallback the stream written by the threads without a route
+   */
+  RoutingOutputStream(OutputStream fallback) {
+    this.fallback = fallback;
+  }
+
+  /**
+   * Routes the writes of the current thread to the given stream.
+   *
+   * @param target the stream receiving the writes of the current thread
+   */
+  void route(OutputStream target) {
+    routes.set(target);
+  }
+
+  /** Routes the writes of the current thread back to the fallback stream. */
+  void unroute() {
+    routes.remove();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(int b) throws IOException {
+    current().write(b);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    current().write(b, off, len);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void flush() throws IOException {
+    current().flush();
+  }
+
+  private OutputStream current() {
+    OutputStream target = routes.get();
+    return target != null ? target : fallback;
+  }
+}
@@ -1,11 +1,11 @@
 package com.lsadf.yaproc.file;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * A specialized extension of {@link HashMap} with {@link String} keys and {@link Object} values.
- * ContentMap is designed to act as a generic data structure for storing content mappings,
+ * A specialized extension of {@link LinkedHashMap} with {@link String} keys and {@link Object}
+ * values. ContentMap is designed to act as a generic data structure for storing content mappings,
  * enabling flexibility in managing key-value pairs where the values can be of any Object type.
  *
  * This class can be used in scenarios requiring dynamic and adaptable content handling, such as
@@ -13,8 +13,9 @@ import java.util.Map;
  * content representation.
  *
  * Key Characteristics:
- * - Inherits all behavior of {@link HashMap} for storing and managing key-value pairs.
+ * - Inherits all behavior of {@link LinkedHashMap} for storing and managing key-value pairs.
+ * - Keys are kept in insertion order, so that the root keys are written in the order of the input.
  * - Keys are of type {@link String}, making it suitable for textual identifiers.
  * - Values are of type {@link Object}, allowing arbitrary data storage.
  */
-public class ContentMap extends HashMap<String, Object> implements Map<String, Object> {}
+public class ContentMap extends LinkedHashMap<String, Object> implements Map<String, Object> {}
@@ -1,25 +1,161 @@
 package com.lsadf.yaproc.file;
 
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Represents the content and metadata of a file.
  *
- * <p>This class encapsulates the basic details about a file, including its name, type, and content.
- * It is designed as an immutable data structure to ensure that file information remains consistent
- * and unaltered after instantiation.
+ * <p>This class encapsulates the basic details about a file, including its name, type, charset and
+ * raw content. It is designed as an immutable data structure to ensure that file information
+ * remains consistent and unaltered after instantiation.
+ *
+ * <p>The content is kept as raw bytes so that parsers can pick their cheapest entry point instead
+ * of working on an already decoded {@link String}. It is either held in a {@link ByteBuffer}
+ * (possibly memory-mapped) or produced on demand by an {@link InputStreamSupplier}, for content
+ * that should not be loaded in memory at once.
  *
  * <p>Key characteristics: - `name`: The name of the file, usually including the file extension. -
  * `type`: A string representing the type of the file, such as a file extension (e.g., "json",
- * "yml", "txt"). - `content`: The actual content of the file, represented as a string.
- *
- * <p>Common use cases for this class include: - Representing files being processed, such as input
- * for parsing or conversion. - Passing basic file data to components or services that handle file
- * operations. - Facilitating content extraction, validation, or transformation workflows.
+ * "yml", "txt"). - `charset`: The charset used to decode the content. - `bytes` or
+ * `streamSupplier`: The raw content of the file.
  */
 @Data
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class FileData {
   private final String name;
   private final String type;
-  private final String content;
+  private final Charset charset;
+  private final ByteBuffer bytes;
+  private final InputStreamSupplier streamSupplier;
+
+  /**
+   * Creates a {@code FileData} backed by a buffer holding the whole content of the file.
+   *
+   * @param name the name of the file
+   * @param type the type of the file, usually its extension
+   * @param bytes the content of the file, positioned at its first byte
+   * @param charset the charset of the content
+   * @return the file data
+   */
+  public static FileData fromBytes(String name, String type, ByteBuffer bytes, Charset charset) {
+    return new FileData(name, type, charset, bytes, null);
+  }
+
+  /**
+   * Creates a {@code FileData} whose content is read from a stream opened on demand.
+   *
+   * @param name the name of the file
+   * @param type the type of the file, usually its extension
+   * @param streamSupplier the supplier opening a stream on the content of the file
+   * @param charset the charset of the content
+   * @return the file data
+   */
+  public static FileData fromStream(
+      String name, String type, InputStreamSupplier streamSupplier, Charset charset) {
+    return new FileData(name, type, charset, null, streamSupplier);
+  }
+
+  /**
+   * Indicates whether the whole content is available in a buffer.
+   *
+   * @return {@code true} if the content is held in a buffer, {@code false} if it is streamed
+   */
+  public boolean hasBytes() {
+    return bytes != null;
+  }
+
+  /**
+   * Gets the content of the file as a buffer. The returned buffer is a duplicate, so that moving
+   * its position does not affect other readers.
+   *
+   * @return the content of the file, or {@code null} if the content is streamed
+   */
+  public ByteBuffer getBytes() {
+    return bytes == null ? null : bytes.duplicate();
+  }
+
+  /**
+   * Gets the size of the content in bytes.
+   *
+   * @return the number of bytes of the content, or {@code -1} if the content is streamed
+   */
+  public long getSize() {
+    return bytes == null ? -1 : bytes.remaining();
+  }
+
+  /**
+   * Indicates whether the content is encoded in UTF-8, which most parsers can read directly from
+   * bytes.
+   *
+   * @return {@code true} if the charset of the content is UTF-8
+   */
+  public boolean isUtf8() {
+    return StandardCharsets.UTF_8.equals(charset);
+  }
+
+  /**
+   * Opens a stream on the raw content of the file. The caller is responsible for closing it.
+   *
+   * @return an {@link InputStream} on the content
+   * @throws IOException if the stream cannot be opened
+   */
+  public InputStream openStream() throws IOException {
+    if (bytes != null) {
+      return new ByteBufferBackedInputStream(bytes.duplicate());
+    }
+    return streamSupplier.get();
+  }
+
+  /**
+   * Opens a reader decoding the content of the file with its charset. The caller is responsible
+   * for closing it.
+   *
+   * @return a {@link Reader} on the content
+   * @throws IOException if the underlying stream cannot be opened
+   */
+  public Reader openReader() throws IOException {
+    return new InputStreamReader(openStream(), charset);
+  }
+
+  /**
+   * Decodes the whole content of the file into a string.
+   *
+   * @return the content of the file
+   * @throws IOException if the content cannot be read
+   */
+  public String getContent() throws IOException {
+    if (bytes == null) {
+      try (InputStream inputStream = streamSupplier.get()) {
+        return new String(inputStream.readAllBytes(), charset);
+      }
+    }
+    ByteBuffer buffer = bytes.duplicate();
+    if (buffer.hasArray()) {
+      return new String(
+          buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), charset);
+    }
+    return charset.decode(buffer).toString();
+  }
+
+  /** Supplies a new {@link InputStream} on the content of a file each time it is called. */
+  @FunctionalInterface
+  public interface InputStreamSupplier {
+    /**
+     * Opens a new stream on the content.
+     *
+     * @return the opened stream
+     * @throws IOException if the stream cannot be opened
+     */
+    InputStream get() throws IOException;
+  }
 }
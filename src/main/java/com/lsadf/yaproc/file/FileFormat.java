@@ -1,8 +1,11 @@
 package com.lsadf.yaproc.file;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import lombok.Getter;
 
 /**
@@ -10,18 +13,39 @@ import lombok.Getter;
  *
  * <p>Each file format is associated with one or more extensions, enabling easy identification of
  * the format based on a file's extension. This enum provides methods to determine a file format
- * from an extension and to retrieve a list of all valid extensions.
+ * from an extension, through a lookup table computed once, and to retrieve a list of all valid
+ * extensions.
  *
- * <p>Features: - Contains multiple predefined file formats such as YAML, JSON, and PROPERTIES. -
- * Supports matching extensions case-insensitively to identify the associated file format. -
- * Provides functionality to retrieve all extensions associated with available file formats.
+ * <p>Features: - Contains multiple predefined file formats such as YAML, JSON, NDJSON (JSON Lines)
+ * and PROPERTIES. - Supports matching extensions case-insensitively to identify the associated
+ * file format. - Provides functionality to retrieve all extensions associated with available file
+ * formats.
  */
 @Getter
 public enum FileFormat {
   YAML(new String[] {"yml", "yaml"}),
   JSON(new String[] {"json"}),
+  NDJSON(new String[] {"ndjson", "jsonl"}),
   PROPERTIES(new String[] {"properties", "prop"});
 
+  /** The formats by extension, folded to lower case. */
+  private static final Map<String, FileFormat> BY_EXTENSION;
+
+  private static final List<String> VALID_EXTENSIONS;
+
+  static {
+    Map<String, FileFormat> byExtension = new HashMap<>();
+    List<String> validExtensions = new ArrayList<>();
+    for (FileFormat fileFormat : values()) {
+      for (String extension : fileFormat.extensions) {
+        byExtension.put(extension.toLowerCase(Locale.ROOT), fileFormat);
+        validExtensions.add(extension);
+      }
+    }
+    BY_EXTENSION = Map.copyOf(byExtension);
+    VALID_EXTENSIONS = List.copyOf(validExtensions);
+  }
+
   private final String[] extensions;
 
   FileFormat(String[] extensions) {
@@ -29,36 +53,62 @@ public enum FileFormat {
   }
 
   /**
-   * Retrieves the {@code FileFormat} associated with the specified file extension.
+   * Retrieves the main extension of this format, used when a file of this format has to be named
+   * or typed without an extension of its own (e.g. data read from the standard input).
    *
-   * <p>This method iterates through all available file formats and matches the provided
+   * @return the first extension associated with this format
    */
-  public static FileFormat fromExtension(String extension) {
-    for (FileFormat fileFormat : FileFormat.values()) {
-      for (String ext : fileFormat.extensions) {
-        if (ext.equalsIgnoreCase(extension)) {
-          return fileFormat;
-        }
-      }
+  public String getDefaultExtension() {
+    return extensions[0];
+  }
+
+  /**
+   * Indicates whether the given extension, matched case-insensitively, is one of the extensions of
+   * this format.
+   *
+   * @param extension the extension to check, may be {@code null}
+   * @return {@code true} if the extension belongs to this format, {@code false} otherwise
+   */
+  public boolean hasExtension(String extension) {
+    return extension != null && BY_EXTENSION.get(extension.toLowerCase(Locale.ROOT)) == this;
+  }
+
+  /**
+   * Looks up the {@code FileFormat} associated with the specified file extension, matched
+   * case-insensitively through a table built once for all the formats.
+   *
+   * @param extension the extension to look up, may be {@code null}
+   * @return the format of the extension, or an empty optional if no format uses it
+   */
+  public static Optional<FileFormat> findByExtension(String extension) {
+    if (extension == null) {
+      return Optional.empty();
     }
-    throw new IllegalArgumentException("Unknown file format: " + extension);
+    return Optional.ofNullable(BY_EXTENSION.get(extension.toLowerCase(Locale.ROOT)));
+  }
+
+  /**
+   * Retrieves the {@code FileFormat} associated with the specified file extension, matched
+   * case-insensitively.
+   *
+   * @param extension the extension to look up
+   * @return the format of the extension
+   * @throws IllegalArgumentException if no format uses the extension
+   */
+  public static FileFormat fromExtension(String extension) {
+    return findByExtension(extension)
+        .orElseThrow(() -> new IllegalArgumentException("Unknown file format: " + extension));
   }
 
   /**
    * Retrieves a list of all valid file extensions defined in the {@code FileFormat} enum.
    *
-   * <p>This method iterates through all declared {@code FileFormat} values and collects their
-   * associated extensions into a single list. The resulting list includes all extensions supported
-   * across all file formats.
+   * <p>The list is built once, and includes all extensions supported across all file formats, in
+   * the order of the formats.
    *
-   * @return a list of strings representing all valid file extensions
+   * @return an unmodifiable list of strings representing all valid file extensions
    */
   public static List<String> getValidExtensions() {
-    List<String> validExtensions = new ArrayList<>();
-    for (FileFormat fileFormat : FileFormat.values()) {
-      validExtensions.addAll(Arrays.asList(fileFormat.extensions));
-    }
-
-    return validExtensions;
+    return VALID_EXTENSIONS;
   }
 }
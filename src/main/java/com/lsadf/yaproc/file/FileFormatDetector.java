@@ -0,0 +1,282 @@
+package com.lsadf.yaproc.file;
+
+import com.lsadf.yaproc.util.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Detects the format of a file whose extension does not name one, such as a temporary file without
+ * an extension or a file with a compound name like {@code settings.yaml.tmp}, by looking at the
+ * first bytes of its content:
+ *
+ * <ul>
+ *   <li>a document starting with <code>{</code> or {@code [} is JSON, or NDJSON when several lines
+ *       each hold an object;
+ *   <li>a document starting with {@code ---} or a directive, holding a sequence, nested blocks or
+ *       {@code key: value} lines is YAML;
+ *   <li>a document holding {@code key=value} or {@code key:value} lines is a properties file.
+ * </ul>
+ *
+ * <p>Blank lines, comments and byte order marks are skipped, and gzip compressed files are looked
+ * at once decompressed. The format is detected before the content is read, so that the handler of
+ * the right format is the only one to ever parse it.
+ */
+@UtilityClass
+public class FileFormatDetector {
+
+  /** The number of bytes looked at, from the start of the (decompressed) content. */
+  public static final int HEAD_SIZE = 4096;
+
+  /**
+   * Resolves the format of a file: the format named by its extension when there is one, otherwise
+   * the format detected from its content, otherwise the format named by an inner extension of a
+   * compound name. An inner extension is also preferred to the detected format when both may read
+   * the content, as {@code key: value} lines are both valid YAML and valid properties.
+   *
+   * @param file the file to look at
+   * @return the format of the file, or an empty optional if none could be found
+   * @throws IOException if the file cannot be read
+   */
+  public static Optional<FileFormat> resolve(File file) throws IOException {
+    Optional<FileFormat> fromExtension =
+        FileFormat.findByExtension(FileUtils.getFileExtension(file));
+    if (fromExtension.isPresent()) {
+      return fromExtension;
+    }
+    Optional<FileFormat> detected = detect(file);
+    Optional<FileFormat> fromName = findByInnerExtension(file);
+    if (fromName.isPresent()
+        && (detected.isEmpty() || canRead(fromName.get(), detected.get()))) {
+      return fromName;
+    }
+    return detected;
+  }
+
+  /**
+   * Detects the format of a file from the first {@link #HEAD_SIZE} bytes of its content, ignoring
+   * its name.
+   *
+   * @param file the file to look at
+   * @return the detected format, or an empty optional if the content does not look like any
+   * @throws IOException if the file cannot be read
+   */
+  public static Optional<FileFormat> detect(File file) throws IOException {
+    byte[] head;
+    boolean complete;
+    try (InputStream inputStream = FileUtils.openInputStream(file)) {
+      head = inputStream.readNBytes(HEAD_SIZE);
+      complete = head.length < HEAD_SIZE || inputStream.read() < 0;
+    }
+    return detect(head, complete);
+  }
+
+  /**
+   * Detects the format of a content from its first bytes.
+   *
+   * @param head the first bytes of the content
+   * @param complete whether the bytes are the whole content: if not, the last line, which may be
+   *     cut, is ignored
+   * @return the detected format, or an empty optional if the content does not look like any
+   */
+  public static Optional<FileFormat> detect(byte[] head, boolean complete) {
+    String text = decode(head);
+    if (!complete) {
+      int lastLineBreak = text.lastIndexOf('\n');
+      text = lastLineBreak < 0 ? text : text.substring(0, lastLineBreak);
+    }
+    String[] lines = text.split("\r\n|\r|\n");
+
+    // The first line decides for the JSON family and the YAML document markers
+    int first = nextSignificantLine(lines, 0);
+    if (first == lines.length) {
+      return Optional.empty();
+    }
+    String firstLine = lines[first].strip();
+    if (firstLine.startsWith("[")) {
+      return Optional.of(FileFormat.JSON);
+    }
+    if (firstLine.startsWith("{")) {
+      int second = nextSignificantLine(lines, first + 1);
+      boolean severalObjects =
+          firstLine.endsWith("}")
+              && second < lines.length
+              && lines[second].strip().startsWith("{");
+      return Optional.of(severalObjects ? FileFormat.NDJSON : FileFormat.JSON);
+    }
+    if (firstLine.startsWith("---") || firstLine.startsWith("%")) {
+      return Optional.of(FileFormat.YAML);
+    }
+
+    // Otherwise the separators of the key-value lines decide
+    boolean yamlStructure = false;
+    boolean yamlKeys = false;
+    boolean propertiesKeys = false;
+    boolean continuation = false;
+    for (int i = first; i < lines.length; i = nextSignificantLine(lines, i + 1)) {
+      String line = lines[i];
+      boolean continued = continuation;
+      continuation = endsWithOddBackslashes(line);
+      if (continued) {
+        // The continuation of a properties value
+        continue;
+      }
+      if (Character.isWhitespace(line.charAt(0))) {
+        // Properties keys are seldom indented, unlike the nested blocks of YAML
+        yamlStructure |= yamlKeys;
+        continue;
+      }
+      if (line.equals("-") || line.startsWith("- ")) {
+        yamlStructure = true;
+        continue;
+      }
+      switch (separatorOf(line)) {
+        case EQUALS:
+        case ATTACHED_COLON:
+          propertiesKeys = true;
+          break;
+        case COLON:
+          yamlKeys = true;
+          break;
+        default:
+          break;
+      }
+    }
+    if (yamlStructure) {
+      return Optional.of(FileFormat.YAML);
+    }
+    if (propertiesKeys) {
+      return Optional.of(FileFormat.PROPERTIES);
+    }
+    return yamlKeys ? Optional.of(FileFormat.YAML) : Optional.empty();
+  }
+
+  /**
+   * Indicates whether a handler of a format reads content detected as another format: JSON is
+   * valid YAML, an NDJSON reader accepts a single JSON object, and the {@code key: value} lines of
+   * YAML are valid properties.
+   */
+  private static boolean canRead(FileFormat reader, FileFormat content) {
+    if (reader == content) {
+      return true;
+    }
+    switch (reader) {
+      case YAML:
+      case NDJSON:
+        return content == FileFormat.JSON;
+      case PROPERTIES:
+        return content == FileFormat.YAML;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Finds the last supported extension among the inner extensions of a compound file name, such
+   * as {@code json} in {@code data.json.tmp}.
+   */
+  private static Optional<FileFormat> findByInnerExtension(File file) {
+    String[] parts = file.getName().split("\\.");
+    // The first part is the base name, and the last part the unsupported extension
+    for (int i = parts.length - 2; i > 0; i--) {
+      Optional<FileFormat> format = FileFormat.findByExtension(parts[i]);
+      if (format.isPresent()) {
+        return format;
+      }
+    }
+    return Optional.empty();
+  }
+
+  /** Decodes the head of a content, according to its byte order mark if any. */
+  private static String decode(byte[] head) {
+    Charset charset = StandardCharsets.UTF_8;
+    int offset = 0;
+    if (head.length >= 3
+        && head[0] == (byte) 0xEF
+        && head[1] == (byte) 0xBB
+        && head[2] == (byte) 0xBF) {
+      offset = 3;
+    } else if (head.length >= 2 && head[0] == (byte) 0xFE && head[1] == (byte) 0xFF) {
+      charset = StandardCharsets.UTF_16BE;
+      offset = 2;
+    } else if (head.length >= 2 && head[0] == (byte) 0xFF && head[1] == (byte) 0xFE) {
+      charset = StandardCharsets.UTF_16LE;
+      offset = 2;
+    }
+    // Malformed or cut characters are replaced, only the structure of the lines matters
+    return new String(head, offset, head.length - offset, charset);
+  }
+
+  /** Finds the first line from the given index that is neither blank nor a comment. */
+  private static int nextSignificantLine(String[] lines, int from) {
+    int i = from;
+    while (i < lines.length && isInsignificant(lines[i])) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isInsignificant(String line) {
+    String stripped = line.strip();
+    return stripped.isEmpty() || stripped.startsWith("#") || stripped.startsWith("!");
+  }
+
+  /** Finds the separator of a key-value line, skipping the escaped characters of the key. */
+  private static Separator separatorOf(String line) {
+    int i = 0;
+    int length = line.length();
+    while (i < length) {
+      char c = line.charAt(i);
+      if (c == '\\') {
+        i += 2;
+        continue;
+      }
+      if (c == '=' || c == ':' || c == ' ' || c == '\t') {
+        break;
+      }
+      i++;
+    }
+    if (i == 0) {
+      return Separator.NONE;
+    }
+    while (i < length && (line.charAt(i) == ' ' || line.charAt(i) == '\t')) {
+      i++;
+    }
+    if (i == length) {
+      return Separator.NONE;
+    }
+    char separator = line.charAt(i);
+    if (separator == '=') {
+      return Separator.EQUALS;
+    }
+    if (separator != ':') {
+      return Separator.NONE;
+    }
+    boolean blankAfter = i + 1 == length || Character.isWhitespace(line.charAt(i + 1));
+    return blankAfter ? Separator.COLON : Separator.ATTACHED_COLON;
+  }
+
+  private static boolean endsWithOddBackslashes(String line) {
+    int count = 0;
+    for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+      count++;
+    }
+    return count % 2 == 1;
+  }
+
+  /** The separator between the key and the value of a line. */
+  private enum Separator {
+    /** No key, or a key followed by a blank and a value, which is too vague to decide. */
+    NONE,
+    /** An equal sign, only valid in properties. */
+    EQUALS,
+    /** A colon followed by a blank or the end of the line, as in YAML mappings. */
+    COLON,
+    /** A colon right after the key and before the value, only a separator in properties. */
+    ATTACHED_COLON
+  }
+}
@@ -3,9 +3,8 @@ package com.lsadf.yaproc.file.handler;
 import com.lsadf.yaproc.file.FileFormat;
 
 /**
- * Interface representing a handler in a chain of responsibility pattern for processing files. Each
- * handler is responsible for handling specific file types and can delegate to the next handler in
- * the chain if needed.
+ * Interface representing a handler processing files of a single format. The handler of a format is
+ * found in the {@link FileHandlerRegistry}.
  */
 public interface FileHandler {
   /**
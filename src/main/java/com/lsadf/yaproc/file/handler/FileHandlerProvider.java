@@ -0,0 +1,41 @@
+package com.lsadf.yaproc.file.handler;
+
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
+import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
+
+/**
+ * Service provider of the handlers reading and writing a file format, discovered by the {@link
+ * FileHandlerRegistry} through {@link java.util.ServiceLoader}. A provider is registered by listing
+ * its class in a {@code META-INF/services/com.lsadf.yaproc.file.handler.FileHandlerProvider} file
+ * of its jar.
+ *
+ * <p>A provider replaces the built-in handlers of its format. The handlers are created lazily, the
+ * first time a file of the format is read or written, so a provider should not do any expensive
+ * work before.
+ */
+public interface FileHandlerProvider {
+
+  /**
+   * Gets the format whose handlers are provided.
+   *
+   * @return the format read and written by the handlers
+   */
+  FileFormat getFormat();
+
+  /**
+   * Creates the handler reading files of the format. The handler is shared by every command of the
+   * process, and must be thread-safe.
+   *
+   * @return a new input handler
+   */
+  InputFileHandler createInputFileHandler();
+
+  /**
+   * Creates a handler writing files of the format.
+   *
+   * @param bufferSize the size of the output buffer, in bytes
+   * @return a new output handler
+   */
+  OutputFileHandler createOutputFileHandler(int bufferSize);
+}
@@ -0,0 +1,186 @@
+package com.lsadf.yaproc.file.handler;
+
+import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
+import com.lsadf.yaproc.file.handler.input.JsonInputFileHandler;
+import com.lsadf.yaproc.file.handler.input.LazyInputFileHandler;
+import com.lsadf.yaproc.file.handler.input.NdjsonInputFileHandler;
+import com.lsadf.yaproc.file.handler.input.PropertiesInputFileHandler;
+import com.lsadf.yaproc.file.handler.input.YamlInputFileHandler;
+import com.lsadf.yaproc.file.handler.output.JsonOutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.LazyOutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.NdjsonOutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.PropertiesOutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.YamlOutputFileHandler;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the file handlers, indexed by format. The handler of a file is found with a single
+ * lookup of its format, itself found in the case-folded extension table of {@link FileFormat},
+ * instead of walking a chain of handlers each comparing the extension with its own.
+ *
+ * <p>The registry starts from the built-in handlers, then applies the {@link FileHandlerProvider}
+ * implementations found by {@link ServiceLoader}, a provider replacing the handlers of its format.
+ * The handlers themselves are only created when a file of their format is first read or written.
+ *
+ * <p>The registry is immutable once built, and its input handlers are shared by every command of
+ * the process.
+ */
+@Slf4j
+public class FileHandlerRegistry {
+  private final Map<FileFormat, FileHandlerProvider> providers;
+  private final Map<FileFormat, InputFileHandler> inputHandlers;
+
+  /**
+   * Creates a registry of the built-in handlers, replaced by the given providers for their
+   * formats. When several providers give the same format, the last one wins.
+   *
+   * @param extraProviders the providers replacing built-in handlers
+   */
+  public FileHandlerRegistry(Iterable<FileHandlerProvider> extraProviders) {
+    this.providers = new EnumMap<>(FileFormat.class);
+    for (FileHandlerProvider provider : getBuiltInProviders()) {
+      providers.put(provider.getFormat(), provider);
+    }
+    for (FileHandlerProvider provider : extraProviders) {
+      providers.put(provider.getFormat(), provider);
+    }
+
+    this.inputHandlers = new EnumMap<>(FileFormat.class);
+    providers.forEach(
+        (format, provider) ->
+            inputHandlers.put(
+                format, new LazyInputFileHandler(format, provider::createInputFileHandler)));
+  }
+
+  /**
+   * Gets the registry of the process, built the first time it is requested from the built-in
+   * handlers and the providers found on the class path.
+   *
+   * @return the shared registry
+   */
+  public static FileHandlerRegistry getDefault() {
+    return DefaultRegistry.INSTANCE;
+  }
+
+  /**
+   * Gets the shared handler reading files of the given format.
+   *
+   * @param format the format of the files
+   * @return the input handler of the format
+   * @throws UnsupportedFileFormatException if no handler reads the format
+   */
+  public InputFileHandler getInputFileHandler(FileFormat format) {
+    InputFileHandler handler = inputHandlers.get(format);
+    if (handler == null) {
+      throw new UnsupportedFileFormatException("Unsupported input format: " + format);
+    }
+    return handler;
+  }
+
+  /**
+   * Creates a handler writing files of the given format. The actual handler, and its mappers, are
+   * only created when content is first written, so that a run skipping the conversion, such as an
+   * up-to-date cached or a token streamed one, does not pay for them.
+   *
+   * @param format the format of the files
+   * @param bufferSize the size of the output buffer, in bytes
+   * @return a handler writing files of the given format
+   * @throws UnsupportedFileFormatException if no handler writes the format
+   */
+  public OutputFileHandler createOutputFileHandler(FileFormat format, int bufferSize) {
+    FileHandlerProvider provider = providers.get(format);
+    if (provider == null) {
+      throw new UnsupportedFileFormatException("Unsupported output format: " + format);
+    }
+    return new LazyOutputFileHandler(format, () -> provider.createOutputFileHandler(bufferSize));
+  }
+
+  /**
+   * Lists the built-in providers. Their factories are lambdas rather than constructor references,
+   * which would load the handler classes, and the classes of their mappers, when the registry is
+   * built.
+   */
+  private static List<FileHandlerProvider> getBuiltInProviders() {
+    return List.of(
+        new BuiltInProvider(
+            FileFormat.JSON,
+            () -> new JsonInputFileHandler(),
+            bufferSize -> new JsonOutputFileHandler(bufferSize)),
+        new BuiltInProvider(
+            FileFormat.NDJSON,
+            () -> new NdjsonInputFileHandler(),
+            bufferSize -> new NdjsonOutputFileHandler(bufferSize)),
+        new BuiltInProvider(
+            FileFormat.YAML,
+            () -> new YamlInputFileHandler(),
+            bufferSize -> new YamlOutputFileHandler(bufferSize)),
+        new BuiltInProvider(
+            FileFormat.PROPERTIES,
+            () -> new PropertiesInputFileHandler(),
+            bufferSize -> new PropertiesOutputFileHandler(bufferSize)));
+  }
+
+  /** The registry of the process, created on first use by the class loading mechanism. */
+  private static final class DefaultRegistry {
+    private static final FileHandlerRegistry INSTANCE =
+        new FileHandlerRegistry(loadProviders());
+
+    private static List<FileHandlerProvider> loadProviders() {
+      List<FileHandlerProvider> providers = new ArrayList<>();
+      try {
+        for (FileHandlerProvider provider :
+            ServiceLoader.load(
+                FileHandlerProvider.class, FileHandlerRegistry.class.getClassLoader())) {
+          log.debug("Using {} for {} files", provider.getClass().getName(), provider.getFormat());
+          providers.add(provider);
+        }
+      } catch (ServiceConfigurationError e) {
+        // A broken plug-in must not prevent the built-in formats from working
+        log.warn("Ignoring the file handler providers after an invalid one: {}", e.getMessage());
+      }
+      return providers;
+    }
+  }
+
+  /** A provider of built-in handlers. */
+  private static final class BuiltInProvider implements FileHandlerProvider {
+    private final FileFormat format;
+    private final Supplier<InputFileHandler> inputFactory;
+    private final IntFunction<OutputFileHandler> outputFactory;
+
+    private BuiltInProvider(
+        FileFormat format,
+        Supplier<InputFileHandler> inputFactory,
+        IntFunction<OutputFileHandler> outputFactory) {
+      this.format = format;
+      this.inputFactory = inputFactory;
+      this.outputFactory = outputFactory;
+    }
+
+    @Override
+    public FileFormat getFormat() {
+      return format;
+    }
+
+    @Override
+    public InputFileHandler createInputFileHandler() {
+      return inputFactory.get();
+    }
+
+    @Override
+    public OutputFileHandler createOutputFileHandler(int bufferSize) {
+      return outputFactory.apply(bufferSize);
+    }
+  }
+}
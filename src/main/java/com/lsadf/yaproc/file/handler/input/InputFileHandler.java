@@ -4,11 +4,12 @@ import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileData;
 import com.lsadf.yaproc.file.handler.FileHandler;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Interface for handling input file processing in the YAPROC application. Extends the base
- * FileHandler interface to provide specific input processing capabilities. Implementations of this
- * interface form a chain of responsibility for processing different file formats.
+ * FileHandler interface to provide specific input processing capabilities. The handler of a format
+ * is found in the {@link com.lsadf.yaproc.file.handler.FileHandlerRegistry}.
  */
 public interface InputFileHandler extends FileHandler {
   /**
@@ -21,10 +22,43 @@ public interface InputFileHandler extends FileHandler {
   ContentMap handleFile(FileData fileData) throws IOException;
 
   /**
-   * Sets the next handler in the chain of responsibility. This allows the current handler to
-   * delegate the processing of unsupported file types to the next handler.
+   * Processes input data that may hold several documents, handing each of them to the consumer as
+   * soon as it is parsed, in the order of the input. Formats holding a single document per file
+   * hand over the result of {@link #handleFile(FileData)}.
    *
-   * @param nextHandler the next {@link FileHandler} in the chain.
+   * @param fileData The file data containing content and metadata to be processed
+   * @param consumer the consumer receiving each document
+   * @throws IOException If there's an error reading or processing the file
    */
-  void setNextHandler(InputFileHandler nextHandler);
+  default void handleDocuments(FileData fileData, DocumentConsumer consumer) throws IOException {
+    consumer.accept(handleFile(fileData));
+  }
+
+  /**
+   * Processes input data that may hold several documents, parsing independent documents
+   * concurrently on the given executor. The documents are still handed to the consumer in the
+   * order of the input, always on the calling thread. Handlers that cannot split their input fall
+   * back to {@link #handleDocuments(FileData, DocumentConsumer)}.
+   *
+   * @param fileData The file data containing content and metadata to be processed
+   * @param executor the executor parsing the documents
+   * @param consumer the consumer receiving each document
+   * @throws IOException If there's an error reading or processing the file
+   */
+  default void handleDocuments(
+      FileData fileData, ExecutorService executor, DocumentConsumer consumer) throws IOException {
+    handleDocuments(fileData, consumer);
+  }
+
+  /** Receives the documents parsed from an input file, one at a time. */
+  @FunctionalInterface
+  interface DocumentConsumer {
+    /**
+     * Consumes a parsed document.
+     *
+     * @param document the content of the document
+     * @throws IOException if the document cannot be consumed
+     */
+    void accept(ContentMap document) throws IOException;
+  }
 }
@@ -1,30 +1,26 @@
 package com.lsadf.yaproc.file.handler.input;
 
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileData;
 import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.util.JacksonUtils;
+import com.lsadf.yaproc.util.MapperRegistry;
 import java.io.IOException;
-import java.util.Arrays;
 
 /**
  * A file handler that processes JSON input files.
  *
- * <p>The handler uses the {@link JsonMapper} to parse the content of JSON files into a {@link
- * ContentMap}. It supports file types as defined by {@link FileFormat#JSON}.
- *
- * <p>If the JSON file cannot be processed, the request can be passed to a subsequent handler in a
- * chain of responsibility. If no subsequent handler is set, an {@link
- * UnsupportedFileFormatException} will be thrown.
+ * <p>The handler uses the JSON {@link ObjectReader} of the {@link MapperRegistry} to parse the
+ * content of JSON files into a {@link ContentMap}. It supports file types as defined by {@link
+ * FileFormat#JSON}.
  */
 public class JsonInputFileHandler implements InputFileHandler {
 
-  private final JsonMapper jsonMapper;
-  private InputFileHandler nextHandler;
+  private final ObjectReader jsonReader;
 
   public JsonInputFileHandler() {
-    this.jsonMapper = new JsonMapper();
+    this.jsonReader = MapperRegistry.getReader(FileFormat.JSON);
   }
 
   /** {@inheritDoc} */
@@ -36,20 +32,6 @@ public class JsonInputFileHandler implements InputFileHandler {
   /** {@inheritDoc} */
   @Override
   public ContentMap handleFile(FileData fileData) throws IOException {
-    String type = fileData.getType();
-    if (Arrays.stream(getType().getExtensions()).anyMatch(ext -> ext.equalsIgnoreCase(type))) {
-      return this.jsonMapper.readValue(fileData.getContent(), ContentMap.class);
-    }
-    if (nextHandler == null) {
-      throw new UnsupportedFileFormatException("Unsupported file format.");
-    }
-
-    return nextHandler.handleFile(fileData);
-  }
-
-  /** {@inheritDoc} */
-  @Override
-  public void setNextHandler(InputFileHandler nextHandler) {
-    this.nextHandler = nextHandler;
+    return JacksonUtils.readContentMap(this.jsonReader, fileData);
   }
 }
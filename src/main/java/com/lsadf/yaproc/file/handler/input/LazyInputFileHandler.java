@@ -0,0 +1,82 @@
+package com.lsadf.yaproc.file.handler.input;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.FileHandlerRegistry;
+import com.lsadf.yaproc.util.StartupProfile;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Stands for the handler of a format in the {@link FileHandlerRegistry}, and only creates it the
+ * first time a file of that format is handled, loading the shared mappers of the format if no other
+ * handler did, so that a run never pays for the formats it does not read.
+ *
+ * <p>The handler is created at most once, even when files are handled concurrently.
+ */
+public class LazyInputFileHandler implements InputFileHandler {
+  private final FileFormat type;
+  private final Supplier<InputFileHandler> factory;
+  private volatile InputFileHandler delegate;
+
+  /**
+   * Creates a lazy handler for the given format.
+   *
+   * @param type the format of the files handled by the created handler
+   * @param factory creates the handler, on the first file of the format
+   */
+  public LazyInputFileHandler(FileFormat type, Supplier<InputFileHandler> factory) {
+    this.type = type;
+    this.factory = factory;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public FileFormat getType() {
+    return type;
+  }
+
+  /**
+   * Indicates whether the handler of the format was created.
+   *
+   * @return {@code true} if a file of the format was handled, {@code false} otherwise
+   */
+  public boolean isInitialized() {
+    return delegate != null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ContentMap handleFile(FileData fileData) throws IOException {
+    return getDelegate().handleFile(fileData);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void handleDocuments(FileData fileData, DocumentConsumer consumer) throws IOException {
+    getDelegate().handleDocuments(fileData, consumer);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void handleDocuments(
+      FileData fileData, ExecutorService executor, DocumentConsumer consumer) throws IOException {
+    getDelegate().handleDocuments(fileData, executor, consumer);
+  }
+
+  private InputFileHandler getDelegate() {
+    InputFileHandler handler = delegate;
+    if (handler == null) {
+      synchronized (this) {
+        handler = delegate;
+        if (handler == null) {
+          handler = StartupProfile.time(type + " input handler", factory);
+          delegate = handler;
+        }
+      }
+    }
+    return handler;
+  }
+}
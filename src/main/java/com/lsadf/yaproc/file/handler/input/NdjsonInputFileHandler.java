@@ -0,0 +1,211 @@
+package com.lsadf.yaproc.file.handler.input;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lsadf.yaproc.concurrent.OrderedTaskPipeline;
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.io.DelimiterScanner;
+import com.lsadf.yaproc.file.io.DelimiterScanner.Delimiters;
+import com.lsadf.yaproc.util.JacksonUtils;
+import com.lsadf.yaproc.util.MapperRegistry;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A file handler that processes NDJSON (JSON Lines) input files, where every line holds one JSON
+ * record.
+ *
+ * <p>Records are read one at a time through {@link #handleDocuments(FileData, DocumentConsumer)},
+ * so that the size of the file does not matter. Large files can also be cut into chunks ending on
+ * a line boundary, parsed concurrently through {@link #handleDocuments(FileData, ExecutorService,
+ * DocumentConsumer)}.
+ *
+ * <p>Since a {@link ContentMap} holds a single record, {@link #handleFile(FileData)} only accepts
+ * files holding one record.
+ */
+public class NdjsonInputFileHandler implements InputFileHandler {
+  /** Default size of the chunks parsed concurrently, in bytes. */
+  public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+  private static final Delimiters LINE_FEED = DelimiterScanner.delimiters('\n');
+
+  private final ObjectReader jsonReader;
+  private final int chunkSize;
+
+  public NdjsonInputFileHandler() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates an NDJSON input handler cutting its input into chunks of the given size when the
+   * records are parsed concurrently.
+   *
+   * @param chunkSize the minimum size of the chunks, in bytes
+   */
+  public NdjsonInputFileHandler(int chunkSize) {
+    this.jsonReader = MapperRegistry.getReader(FileFormat.NDJSON);
+    this.chunkSize = chunkSize;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public FileFormat getType() {
+    return FileFormat.NDJSON;
+  }
+
+  /**
+   * Processes an NDJSON file holding a single record.
+   *
+   * @param fileData The file data containing content and metadata to be processed
+   * @return the record of the file
+   * @throws IOException If the file cannot be parsed or holds more than one record
+   */
+  @Override
+  public ContentMap handleFile(FileData fileData) throws IOException {
+    List<ContentMap> records = new ArrayList<>(1);
+    JacksonUtils.readContentMaps(
+        this.jsonReader,
+        fileData,
+        record -> {
+          if (!records.isEmpty()) {
+            throw new IOException(
+                "NDJSON input holds several records and cannot be read as a single document");
+          }
+          records.add(record);
+        });
+    return records.isEmpty() ? new ContentMap() : records.get(0);
+  }
+
+  /**
+   * Processes every record of an NDJSON file, parsing the next record only once the previous one
+   * has been consumed.
+   *
+   * @param fileData The file data containing content and metadata to be processed
+   * @param consumer the consumer receiving each record
+   * @throws IOException If there's an error reading or processing the file
+   */
+  @Override
+  public void handleDocuments(FileData fileData, DocumentConsumer consumer) throws IOException {
+    JacksonUtils.readContentMaps(this.jsonReader, fileData, consumer);
+  }
+
+  /**
+   * Processes every record of an NDJSON file, parsing them concurrently on the given executor.
+   *
+   * <p>The raw content is cut into chunks of at least {@link #DEFAULT_CHUNK_SIZE} bytes (or the
+   * size given at construction) extended to the end of their last line, so that no record is
+   * split. Each chunk is parsed by a task of the executor, and the records are handed to the
+   * consumer in the order of the file. Only a bounded number of chunks is held in memory at once.
+   * When the content is already in a buffer, the line ends are found with a {@link
+   * DelimiterScanner} instead of being read byte by byte.
+   *
+   * <p>Content that is not UTF-8 encoded cannot be cut on raw bytes, and is parsed sequentially.
+   *
+   * @param fileData The file data containing content and metadata to be processed
+   * @param executor the executor parsing the chunks
+   * @param consumer the consumer receiving each record
+   * @throws IOException If there's an error reading or processing the file
+   */
+  @Override
+  public void handleDocuments(
+      FileData fileData, ExecutorService executor, DocumentConsumer consumer) throws IOException {
+    if (!fileData.isUtf8()) {
+      handleDocuments(fileData, consumer);
+      return;
+    }
+
+    OrderedTaskPipeline<List<ContentMap>> pipeline =
+        new OrderedTaskPipeline<>(
+            executor,
+            records -> {
+              for (ContentMap record : records) {
+                consumer.accept(record);
+              }
+            });
+    if (fileData.hasBytes()) {
+      try {
+        ByteBuffer bytes = fileData.getBytes();
+        int end = bytes.limit();
+        for (int from = bytes.position(), to; from < end; from = to) {
+          to = chunkEnd(bytes, from, end);
+          byte[] lines = new byte[to - from];
+          bytes.get(from, lines);
+          pipeline.submit(() -> parseChunk(lines));
+        }
+        pipeline.finish();
+      } finally {
+        pipeline.cancel();
+      }
+      return;
+    }
+    try (InputStream inputStream = new BufferedInputStream(fileData.openStream())) {
+      byte[] chunk;
+      while ((chunk = readChunk(inputStream)).length > 0) {
+        byte[] lines = chunk;
+        pipeline.submit(() -> parseChunk(lines));
+      }
+      pipeline.finish();
+    } finally {
+      pipeline.cancel();
+    }
+  }
+
+  /**
+   * Finds the end of the chunk of a buffered input starting at the given index: at least {@code
+   * chunkSize} bytes, followed by the rest of the last line.
+   */
+  private int chunkEnd(ByteBuffer bytes, int from, int end) {
+    if (end - from <= chunkSize) {
+      return end;
+    }
+    int lineFeed = DelimiterScanner.indexOfAny(bytes, from + chunkSize - 1, end, LINE_FEED);
+    return lineFeed == end ? end : lineFeed + 1;
+  }
+
+  /**
+   * Reads the next chunk of the input: at least {@code chunkSize} bytes, followed by the rest of
+   * the last line.
+   */
+  private byte[] readChunk(InputStream inputStream) throws IOException {
+    byte[] chunk = inputStream.readNBytes(chunkSize);
+    if (chunk.length < chunkSize || chunk[chunk.length - 1] == '\n') {
+      return chunk;
+    }
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b;
+    while ((b = inputStream.read()) != -1) {
+      line.write(b);
+      if (b == '\n') {
+        break;
+      }
+    }
+    if (line.size() == 0) {
+      return chunk;
+    }
+    byte[] extended = Arrays.copyOf(chunk, chunk.length + line.size());
+    System.arraycopy(line.toByteArray(), 0, extended, chunk.length, line.size());
+    return extended;
+  }
+
+  private List<ContentMap> parseChunk(byte[] lines) throws IOException {
+    List<ContentMap> records = new ArrayList<>();
+    try (JsonParser parser = jsonReader.createParser(lines)) {
+      while (parser.nextToken() != null) {
+        if (parser.currentToken() != JsonToken.VALUE_NULL) {
+          records.add(jsonReader.readValue(parser));
+        }
+      }
+    }
+    return records;
+  }
+}
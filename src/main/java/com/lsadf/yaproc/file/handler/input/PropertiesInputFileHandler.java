@@ -1,79 +1,161 @@
 package com.lsadf.yaproc.file.handler.input;
 
-import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
+import com.lsadf.yaproc.concurrent.OrderedTaskPipeline;
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileData;
 import com.lsadf.yaproc.file.FileFormat;
-import com.lsadf.yaproc.util.ClassUtils;
-import java.io.BufferedReader;
+import com.lsadf.yaproc.util.ScalarResolver;
 import java.io.IOException;
-import java.io.StringReader;
-import java.util.Arrays;
-import java.util.Properties;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 
 /**
  * Handles input files with the PROPERTIES format. The class processes property files and converts
- * them into a {@link ContentMap}. If the file format is not supported, it delegates to the next
- * handler in the chain.
+ * them into a {@link ContentMap}, scanning their bytes with a {@link PropertiesScanner}.
+ *
+ * <p>Content larger than the chunk size is cut into chunks ending on a logical line, which are
+ * scanned concurrently on an executor. The entries of the chunks are merged in the order of the
+ * file, so that the last value of a duplicated key wins, as with {@link
+ * java.util.Properties#load(java.io.Reader)}.
+ *
+ * <p>The keys are kept flat by default. When nesting, the dotted keys are unflattened into nested
+ * maps and lists by a {@link PropertiesNester}, as the entries are read.
  */
 public class PropertiesInputFileHandler implements InputFileHandler {
-  private InputFileHandler nextHandler;
+  /** Default size of the chunks scanned concurrently, in bytes. */
+  public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  private final ScalarResolver scalarResolver;
+  private final boolean nest;
+  private final int chunkSize;
+  private final ExecutorService executor;
+
+  /** Creates a handler inferring longs and booleans from the values. */
+  public PropertiesInputFileHandler() {
+    this(ScalarResolver.DEFAULT);
+  }
 
   /**
-   * Reads a properties file and loads its key-value pairs into a {@link Properties} object. The
-   * method skips empty lines and lines that start with comment characters ('#' or '!'). It also
-   * handles multi-line property values that continue with a trailing backslash ('\').
+   * Creates a handler converting the values with the given resolver and keeping the keys flat.
    *
-   * @param content the properties file to read as a string
-   * @return a {@link Properties} object containing the key-value pairs from the specified file
-   * @throws IOException if an I/O error occurs or if the file contains invalid format
+   * @param scalarResolver the resolver typing the values
    */
-  public static Properties readProperties(String content) throws IOException {
-    Properties properties = new Properties();
-
-    try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
-      StringBuilder currentLine = new StringBuilder();
-      String line;
-
-      while ((line = reader.readLine()) != null) {
-        line = line.trim();
-
-        if (line.isEmpty() || line.startsWith("#") || line.startsWith("!")) {
-          continue; // Skip comments and empty lines
-        }
-
-        // Handle multi-line values (if previous line ended with '\')
-        if (currentLine.length() > 0) {
-          currentLine.append(line);
-        } else {
-          currentLine = new StringBuilder(line);
-        }
+  public PropertiesInputFileHandler(ScalarResolver scalarResolver) {
+    this(scalarResolver, false);
+  }
 
-        // Check if the line continues to the next one
-        if (currentLine.toString().endsWith("\\")) {
-          currentLine.setLength(currentLine.length() - 1); // Remove trailing '\'
-          continue; // Continue reading next line
-        }
+  /**
+   * Creates a handler converting the values with the given resolver, scanning large content in
+   * chunks of {@link #DEFAULT_CHUNK_SIZE} bytes on the common fork-join pool.
+   *
+   * @param scalarResolver the resolver typing the values
+   * @param nest whether the dotted keys are unflattened into nested maps and lists
+   */
+  public PropertiesInputFileHandler(ScalarResolver scalarResolver, boolean nest) {
+    this(scalarResolver, nest, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+  }
 
-        // Validate format (must contain '=' or ':')
-        if (!currentLine.toString().contains("=") && !currentLine.toString().contains(":")) {
-          throw new IOException(
-              "Malformed properties file: missing '=' or ':' in line: " + currentLine);
-        }
+  /**
+   * Creates a handler converting the values with the given resolver, scanning content larger than
+   * the chunk size in chunks with the given executor.
+   *
+   * @param scalarResolver the resolver typing the values
+   * @param nest whether the dotted keys are unflattened into nested maps and lists
+   * @param chunkSize the minimum size of the chunks, in bytes
+   * @param executor the executor scanning the chunks
+   */
+  public PropertiesInputFileHandler(
+      ScalarResolver scalarResolver, boolean nest, int chunkSize, ExecutorService executor) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+    }
+    this.scalarResolver = scalarResolver;
+    this.nest = nest;
+    this.chunkSize = chunkSize;
+    this.executor = executor;
+  }
 
-        // Split key and value at first occurrence of '=' or ':'
-        String[] parts = currentLine.toString().split("[=:]", 2);
-        if (parts.length < 2 || parts[0].trim().isEmpty()) {
-          throw new IOException(
-              "Malformed properties file: Invalid key-value pair in line: " + currentLine);
-        }
+  /**
+   * Gets the content of a properties file as bytes that a {@link PropertiesScanner} can scan,
+   * straight from its buffer when it has one.
+   *
+   * @param fileData the properties file to read
+   * @return the content, in UTF-8 if its own charset cannot be scanned
+   * @throws IOException if the content cannot be read
+   */
+  private static ByteBuffer readBytes(FileData fileData) throws IOException {
+    if (!PropertiesScanner.supports(fileData.getCharset())) {
+      // Such as UTF-16 content, re-encoded so that its separators are single bytes
+      return ByteBuffer.wrap(fileData.getContent().getBytes(StandardCharsets.UTF_8));
+    }
+    if (fileData.hasBytes()) {
+      return fileData.getBytes();
+    }
+    try (InputStream inputStream = fileData.openStream()) {
+      return ByteBuffer.wrap(inputStream.readAllBytes());
+    }
+  }
 
-        properties.setProperty(parts[0].trim(), parts[1].trim());
-        currentLine.setLength(0); // Reset buffer for next entry
+  /**
+   * Scans the entries of a properties content, in chunks scanned concurrently if it is larger than
+   * the chunk size.
+   *
+   * @param bytes the content to scan
+   * @param charset the charset of the content
+   * @return the typed entries, nested if the handler nests them
+   * @throws IOException if the content is malformed
+   */
+  private ContentMap scan(ByteBuffer bytes, Charset charset) throws IOException {
+    PropertiesNester nester = nest ? new PropertiesNester() : null;
+    ContentMap contentMap = nest ? nester.getContent() : new ContentMap();
+    BiConsumer<String, Object> sink = nest ? nester::put : contentMap::put;
+    int end = bytes.limit();
+    if (end - bytes.position() <= chunkSize) {
+      PropertiesScanner.scan(
+          bytes, charset, (key, value) -> sink.accept(key, scalarResolver.resolve(key, value)));
+      return contentMap;
+    }
+    OrderedTaskPipeline<List<Map.Entry<String, Object>>> pipeline =
+        new OrderedTaskPipeline<>(
+            executor,
+            chunk -> chunk.forEach(entry -> sink.accept(entry.getKey(), entry.getValue())));
+    try {
+      for (int from = bytes.position(), to; from < end; from = to) {
+        to =
+            end - from > chunkSize ? PropertiesScanner.nextLineStart(bytes, from + chunkSize) : end;
+        ByteBuffer chunk = bytes.duplicate().position(from).limit(to);
+        pipeline.submit(() -> scanChunk(chunk, charset));
       }
+      pipeline.finish();
+    } finally {
+      pipeline.cancel();
     }
+    return contentMap;
+  }
 
-    return properties; // Successfully loaded
+  /**
+   * Scans the entries of a chunk, kept in the order of the file with their duplicates, so that
+   * merging the chunks in order puts every key as reading the whole content in one go would.
+   */
+  private List<Map.Entry<String, Object>> scanChunk(ByteBuffer bytes, Charset charset)
+      throws IOException {
+    List<Map.Entry<String, Object>> entries = new ArrayList<>();
+    PropertiesScanner.scan(
+        bytes,
+        charset,
+        (key, value) ->
+            entries.add(
+                new AbstractMap.SimpleImmutableEntry<>(key, scalarResolver.resolve(key, value))));
+    return entries;
   }
 
   /** {@inheritDoc} */
@@ -85,34 +167,11 @@ public class PropertiesInputFileHandler implements InputFileHandler {
   /** {@inheritDoc} */
   @Override
   public ContentMap handleFile(FileData fileData) throws IOException {
-    String type = fileData.getType();
-    if (Arrays.stream(getType().getExtensions()).anyMatch(ext -> ext.equalsIgnoreCase(type))) {
-
-      Properties props = readProperties(fileData.getContent());
-
-      ContentMap contentMap = new ContentMap();
-      props.forEach(
-          (key, value) -> {
-            if (ClassUtils.isNumber(value.toString())) {
-              contentMap.put(key.toString(), Long.parseLong(value.toString()));
-            } else if (ClassUtils.isBoolean(value.toString())) {
-              contentMap.put(key.toString(), Boolean.parseBoolean(value.toString()));
-            } else {
-              contentMap.put(key.toString(), value);
-            }
-          });
-
-      return contentMap;
-    }
-    if (nextHandler == null) {
-      throw new UnsupportedFileFormatException("Unsupported file format.");
-    }
-    return nextHandler.handleFile(fileData);
-  }
-
-  /** {@inheritDoc} */
-  @Override
-  public void setNextHandler(InputFileHandler nextHandler) {
-    this.nextHandler = nextHandler;
+    ByteBuffer bytes = readBytes(fileData);
+    Charset charset =
+        PropertiesScanner.supports(fileData.getCharset())
+            ? fileData.getCharset()
+            : StandardCharsets.UTF_8;
+    return scan(bytes, charset);
   }
 }
@@ -0,0 +1,239 @@
+package com.lsadf.yaproc.file.handler.input;
+
+import com.lsadf.yaproc.file.ContentMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds nested content from the flat keys of a properties file, such as {@code a.b.c=1} into
+ * {@code {a: {b: {c: 1}}}}. Keys are cut into segments on dots, and Spring-style indices such as
+ * {@code list[0]} address the elements of a list; a bracketed segment that is not a number, such
+ * as {@code map[key.with.dots]}, is a key holding dots.
+ *
+ * <p>The tree is made of the maps and lists handed to the output handlers: every segment is a key
+ * of the map of its parent, so that a prefix shared by many keys is held once, and no copy is made
+ * once the file is read. The root and the nested maps keep the order of the file.
+ *
+ * <p>A key that cannot be nested is kept flat, with its full name, in the closest map above it:
+ *
+ * <ul>
+ *   <li>a key both holding a value and prefixing other keys, such as {@code a=1} and {@code
+ *       a.b=2}, or addressed both as a map and as a list, is kept flat with every key under it,
+ *       whichever comes first in the file;
+ *   <li>a key with an empty segment, such as {@code a..b}, or an index more than {@value
+ *       #MAX_INDEX_GAP} past the end of its list.
+ * </ul>
+ *
+ * <p>An index missing from a list, such as {@code list[1]} when only {@code list[0]} and {@code
+ * list[2]} are set, is left {@code null}. A nester is not thread-safe.
+ */
+public final class PropertiesNester {
+  /** Maximum distance between an index and the end of its list, so that a typo stays small. */
+  public static final int MAX_INDEX_GAP = 1024;
+
+  private final ContentMap root = new ContentMap();
+  // Full paths of the keys kept flat after a conflict, so that the keys coming later follow them
+  private final Set<String> flatPaths = new HashSet<>();
+
+  // Segments of the key being put, reused from one key to the next
+  private final List<String> names = new ArrayList<>();
+  private int[] indices = new int[8];
+  private int[] starts = new int[8];
+  private int[] ends = new int[8];
+
+  /**
+   * Puts a value at the path of its key, replacing the value already there if any.
+   *
+   * @param key the flat key, as read from the file
+   * @param value the typed value
+   */
+  public void put(String key, Object value) {
+    int count = parse(key);
+    if (count <= 0 || names.get(0) == null) {
+      root.put(key, value);
+      return;
+    }
+
+    Object node = root;
+    Map<String, Object> anchor = root;
+    int anchorSegment = 0;
+    for (int s = 0; s < count; s++) {
+      boolean last = s == count - 1;
+      Object child;
+      if (node instanceof Map) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) node;
+        anchor = map;
+        anchorSegment = s;
+        if (!flatPaths.isEmpty() && flatPaths.contains(key.substring(0, ends[s]))) {
+          map.put(key.substring(starts[s]), value);
+          return;
+        }
+        child = map.get(names.get(s));
+        if (child == null && !last) {
+          child = createContainer(s + 1);
+          map.put(names.get(s), child);
+        } else if (last && !isContainer(child)) {
+          map.put(names.get(s), value);
+          return;
+        }
+      } else {
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) node;
+        int index = indices[s];
+        if (index > list.size() + MAX_INDEX_GAP) {
+          keepFlat(key, value, anchor, anchorSegment);
+          return;
+        }
+        while (list.size() <= index) {
+          list.add(null);
+        }
+        child = list.get(index);
+        if (child == null && !last) {
+          child = createContainer(s + 1);
+          list.set(index, child);
+        } else if (last && !isContainer(child)) {
+          list.set(index, value);
+          return;
+        }
+      }
+      if (last || !fits(child, s + 1)) {
+        keepFlat(key, value, anchor, anchorSegment);
+        return;
+      }
+      node = child;
+    }
+  }
+
+  /**
+   * Gets the nested content built so far.
+   *
+   * @return the root of the tree
+   */
+  public ContentMap getContent() {
+    return root;
+  }
+
+  /**
+   * Cuts a key into segments.
+   *
+   * @return the number of segments, or {@code -1} if the key cannot be nested
+   */
+  private int parse(String key) {
+    names.clear();
+    int length = key.length();
+    int position = 0;
+    int count = 0;
+    while (position < length) {
+      ensureCapacity(count + 1);
+      starts[count] = position;
+      int end;
+      if (key.charAt(position) == '[') {
+        int close = key.indexOf(']', position + 1);
+        if (close <= position + 1) {
+          return -1;
+        }
+        int index = parseIndex(key, position + 1, close);
+        names.add(index < 0 ? key.substring(position + 1, close) : null);
+        indices[count] = index;
+        end = close + 1;
+      } else {
+        end = position;
+        while (end < length && key.charAt(end) != '.' && key.charAt(end) != '[') {
+          end++;
+        }
+        if (end == position) {
+          return -1;
+        }
+        names.add(key.substring(position, end));
+        indices[count] = -1;
+      }
+      ends[count++] = end;
+      if (end < length && key.charAt(end) == '.') {
+        end++;
+        if (end == length) {
+          return -1;
+        }
+      } else if (end < length && key.charAt(end) != '[') {
+        // Such as a[0]b, whose index is not followed by a segment
+        return -1;
+      }
+      position = end;
+    }
+    return count;
+  }
+
+  /** Parses an index of at most 9 digits, or returns {@code -1} if it is not one. */
+  private static int parseIndex(String key, int from, int to) {
+    if (to - from > 9) {
+      return -1;
+    }
+    int index = 0;
+    for (int i = from; i < to; i++) {
+      char c = key.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      index = index * 10 + (c - '0');
+    }
+    return index;
+  }
+
+  private void ensureCapacity(int count) {
+    if (count > indices.length) {
+      indices = Arrays.copyOf(indices, count * 2);
+      starts = Arrays.copyOf(starts, count * 2);
+      ends = Arrays.copyOf(ends, count * 2);
+    }
+  }
+
+  private Object createContainer(int segment) {
+    return names.get(segment) == null ? new ArrayList<>() : new LinkedHashMap<String, Object>();
+  }
+
+  private boolean fits(Object child, int segment) {
+    return names.get(segment) == null ? child instanceof List : child instanceof Map;
+  }
+
+  private static boolean isContainer(Object value) {
+    return value instanceof Map || value instanceof List;
+  }
+
+  /**
+   * Resolves a conflict on a segment of a key: the content already under the segment is put back
+   * flat in the map holding it, then the value with the rest of its key.
+   */
+  private void keepFlat(String key, Object value, Map<String, Object> anchor, int segment) {
+    Object existing = anchor.remove(names.get(segment));
+    flatten(anchor, key.substring(starts[segment], ends[segment]), existing);
+    anchor.put(key.substring(starts[segment]), value);
+    flatPaths.add(key.substring(0, ends[segment]));
+  }
+
+  private static void flatten(Map<String, Object> target, String prefix, Object node) {
+    if (node instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+        String name = (String) entry.getKey();
+        String key =
+            name.indexOf('.') >= 0 || name.indexOf('[') >= 0
+                ? prefix + '[' + name + ']'
+                : prefix + '.' + name;
+        flatten(target, key, entry.getValue());
+      }
+    } else if (node instanceof List) {
+      List<?> list = (List<?>) node;
+      for (int i = 0; i < list.size(); i++) {
+        if (list.get(i) != null) {
+          flatten(target, prefix + '[' + i + ']', list.get(i));
+        }
+      }
+    } else if (node != null) {
+      target.put(prefix, node);
+    }
+  }
+}
@@ -0,0 +1,371 @@
+package com.lsadf.yaproc.file.handler.input;
+
+import com.lsadf.yaproc.file.io.DelimiterScanner;
+import com.lsadf.yaproc.file.io.DelimiterScanner.Delimiters;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass scanner of the properties format, reading the raw bytes of a file. It follows the
+ * grammar of {@link java.util.Properties#load(java.io.Reader)}:
+ *
+ * <ul>
+ *   <li>lines end with {@code \n}, {@code \r} or {@code \r\n}, and a line ending with an odd number
+ *       of backslashes continues on the next one, whose leading whitespace is skipped;
+ *   <li>blank lines and lines starting with {@code #} or {@code !} are ignored;
+ *   <li>the key ends at the first unescaped {@code =}, {@code :} or whitespace, and is separated
+ *       from the value by whitespace and at most one {@code =} or {@code :};
+ *   <li>{@code \t}, {@code \n}, {@code \r}, {@code \f} and unicode escapes are unescaped, and a
+ *       backslash followed by any other character stands for that character.
+ * </ul>
+ *
+ * <p>Unlike {@link java.util.Properties}, an empty key is rejected, as it cannot be converted into
+ * a key of the other formats.
+ *
+ * <p>The structure of a line is found on the bytes themselves, every separator being an ASCII
+ * character, so the content must be in a charset encoding ASCII as itself, such as ISO-8859-1 or
+ * UTF-8. Keys, values and comments are skipped over by a {@link DelimiterScanner}, several bytes
+ * at a time, up to the next byte that may end them. A key or a value without escape is decoded in
+ * one go from the bytes; only the others go through a reused buffer. No other object is created
+ * per entry.
+ */
+public final class PropertiesScanner {
+  private static final Delimiters KEY_END =
+      DelimiterScanner.delimiters('\\', '=', ':', ' ', '\t', '\f', '\n', '\r');
+  private static final Delimiters VALUE_END = DelimiterScanner.delimiters('\\', '\n', '\r');
+  private static final Delimiters LINE_END = DelimiterScanner.delimiters('\n', '\r');
+
+  private final ByteBuffer bytes;
+  private final int end;
+  private final Charset charset;
+  private final boolean singleByte;
+  private final StringBuilder buffer = new StringBuilder();
+  private byte[] scratch;
+  private int position;
+
+  /** Receives the entries of a properties file, in the order of the file. */
+  @FunctionalInterface
+  public interface EntryConsumer {
+    /**
+     * Receives an entry. A key may be received several times, the last value winning.
+     *
+     * @param key the unescaped key
+     * @param value the unescaped value
+     * @throws IOException if the entry cannot be processed
+     */
+    void accept(String key, String value) throws IOException;
+  }
+
+  private PropertiesScanner(ByteBuffer bytes, Charset charset) {
+    this.bytes = bytes;
+    this.end = bytes.limit();
+    this.charset = charset;
+    this.singleByte =
+        StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+    this.position = bytes.position();
+  }
+
+  /**
+   * Indicates whether a charset can be scanned directly, i.e. whether it encodes ASCII characters
+   * as single ASCII bytes.
+   *
+   * @param charset the charset of the content
+   * @return {@code true} if the content can be scanned in this charset
+   */
+  public static boolean supports(Charset charset) {
+    return StandardCharsets.ISO_8859_1.equals(charset)
+        || StandardCharsets.US_ASCII.equals(charset)
+        || StandardCharsets.UTF_8.equals(charset);
+  }
+
+  /**
+   * Scans the remaining bytes of a buffer, passing every entry to the consumer. The position of
+   * the buffer is not changed.
+   *
+   * @param bytes the content to scan
+   * @param charset the charset of the content, one {@linkplain #supports(Charset) supported}
+   * @param consumer the consumer of the entries
+   * @throws IOException if the content is malformed, or if the consumer fails
+   */
+  public static void scan(ByteBuffer bytes, Charset charset, EntryConsumer consumer)
+      throws IOException {
+    if (!supports(charset)) {
+      throw new IllegalArgumentException("Unsupported properties charset: " + charset);
+    }
+    new PropertiesScanner(bytes, charset).scan(consumer);
+  }
+
+  /**
+   * Finds a point where the content can be cut into parts scanned independently: the start of the
+   * first logical line beginning after the given index. A physical line ending with an odd number
+   * of backslashes may continue on the next one, so it is never cut after, whether or not it is a
+   * comment.
+   *
+   * @param bytes the content, whose position is the start of a logical line
+   * @param from the index from which to look for a line break
+   * @return the index of the start of the next logical line, or the limit of the buffer if the
+   *     content cannot be cut after {@code from}
+   */
+  public static int nextLineStart(ByteBuffer bytes, int from) {
+    int start = bytes.position();
+    int end = bytes.limit();
+    int index = Math.max(from, start);
+    while ((index = DelimiterScanner.indexOfAny(bytes, index, end, LINE_END)) < end) {
+      int lineEnd = index;
+      if (bytes.get(index) == '\n' && index > start && bytes.get(index - 1) == '\r') {
+        lineEnd--;
+      }
+      index++;
+      if (bytes.get(lineEnd) == '\r' && index < end && bytes.get(index) == '\n') {
+        index++;
+      }
+      int backslashes = 0;
+      while (lineEnd - backslashes > start && bytes.get(lineEnd - backslashes - 1) == '\\') {
+        backslashes++;
+      }
+      if (backslashes % 2 == 0) {
+        return index;
+      }
+    }
+    return end;
+  }
+
+  private void scan(EntryConsumer consumer) throws IOException {
+    while (true) {
+      skipWhitespace();
+      if (position == end) {
+        return;
+      }
+      byte b = bytes.get(position);
+      if (b == '\n' || b == '\r') {
+        position++;
+        continue;
+      }
+      if (b == '#' || b == '!') {
+        skipLine();
+        continue;
+      }
+
+      // Key, up to the first unescaped separator or whitespace
+      int keyStart = position;
+      boolean keyEscaped = false;
+      while ((position = DelimiterScanner.indexOfAny(bytes, position, end, KEY_END)) < end
+          && bytes.get(position) == '\\') {
+        keyEscaped = true;
+        skipEscape();
+      }
+      int keyEnd = position;
+
+      // Separator: whitespace, then at most one '=' or ':', then whitespace
+      skipBlank();
+      if (position < end && (bytes.get(position) == '=' || bytes.get(position) == ':')) {
+        position++;
+        skipBlank();
+      }
+
+      // Value, up to the end of the logical line
+      int valueStart = position;
+      boolean valueEscaped = false;
+      while ((position = DelimiterScanner.indexOfAny(bytes, position, end, VALUE_END)) < end
+          && bytes.get(position) == '\\') {
+        valueEscaped = true;
+        skipEscape();
+      }
+      int valueEnd = position;
+
+      if (keyStart == keyEnd) {
+        throw new IOException(
+            "Malformed properties file: empty key at line " + lineNumber(keyStart));
+      }
+      String key = keyEscaped ? unescape(keyStart, keyEnd) : decode(keyStart, keyEnd);
+      String value = valueEscaped ? unescape(valueStart, valueEnd) : decode(valueStart, valueEnd);
+      consumer.accept(key, value);
+    }
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\f';
+  }
+
+  private void skipWhitespace() {
+    while (position < end && isWhitespace(bytes.get(position))) {
+      position++;
+    }
+  }
+
+  /** Skips whitespace, including line continuations and the leading whitespace they bring. */
+  private void skipBlank() {
+    while (position < end) {
+      byte b = bytes.get(position);
+      if (isWhitespace(b)) {
+        position++;
+      } else if (b == '\\' && position + 1 < end && isLineBreak(bytes.get(position + 1))) {
+        position++;
+        skipLineBreak();
+        skipWhitespace();
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void skipLine() {
+    position = DelimiterScanner.indexOfAny(bytes, position, end, LINE_END);
+  }
+
+  /**
+   * Skips an escape sequence starting at the current backslash. A line continuation is skipped
+   * with the leading whitespace of the next line; any other escape is two bytes long, the digits
+   * of a unicode escape never being separators.
+   */
+  private void skipEscape() {
+    position++;
+    if (position == end) {
+      return;
+    }
+    if (isLineBreak(bytes.get(position))) {
+      skipLineBreak();
+      skipWhitespace();
+    } else {
+      position++;
+    }
+  }
+
+  private static boolean isLineBreak(byte b) {
+    return b == '\n' || b == '\r';
+  }
+
+  private void skipLineBreak() {
+    if (bytes.get(position) == '\r' && position + 1 < end && bytes.get(position + 1) == '\n') {
+      position++;
+    }
+    position++;
+  }
+
+  /** Decodes a key or a value without escape. */
+  private String decode(int from, int to) {
+    int length = to - from;
+    if (bytes.hasArray()) {
+      return new String(bytes.array(), bytes.arrayOffset() + from, length, charset);
+    }
+    if (scratch == null || scratch.length < length) {
+      scratch = new byte[Math.max(length, 256)];
+    }
+    bytes.get(from, scratch, 0, length);
+    return new String(scratch, 0, length, charset);
+  }
+
+  /** Decodes a key or a value, resolving its escape sequences and line continuations. */
+  private String unescape(int from, int to) throws IOException {
+    buffer.setLength(0);
+    int i = from;
+    int runStart = from;
+    while (i < to) {
+      byte b = bytes.get(i);
+      if (b != '\\') {
+        i++;
+        continue;
+      }
+      appendRun(runStart, i);
+      i++;
+      if (i == to) {
+        // A continuation on the last line of the file
+        runStart = i;
+        break;
+      }
+      byte escaped = bytes.get(i);
+      switch (escaped) {
+        case '\r':
+        case '\n':
+          if (escaped == '\r' && i + 1 < to && bytes.get(i + 1) == '\n') {
+            i++;
+          }
+          i++;
+          while (i < to && isWhitespace(bytes.get(i))) {
+            i++;
+          }
+          break;
+        case 'u':
+          buffer.append(readUnicode(i + 1, to));
+          i += 5;
+          break;
+        case 't':
+          buffer.append('\t');
+          i++;
+          break;
+        case 'n':
+          buffer.append('\n');
+          i++;
+          break;
+        case 'r':
+          buffer.append('\r');
+          i++;
+          break;
+        case 'f':
+          buffer.append('\f');
+          i++;
+          break;
+        default:
+          // The escaped character stands for itself, and starts the next run
+          runStart = i;
+          i++;
+          continue;
+      }
+      runStart = i;
+    }
+    appendRun(runStart, to);
+    return buffer.toString();
+  }
+
+  private void appendRun(int from, int to) {
+    if (from == to) {
+      return;
+    }
+    if (!singleByte) {
+      for (int i = from; i < to; i++) {
+        if (bytes.get(i) < 0) {
+          // Multi-byte characters are left to the charset
+          buffer.append(decode(from, to));
+          return;
+        }
+      }
+    }
+    for (int i = from; i < to; i++) {
+      buffer.append((char) (bytes.get(i) & 0xFF));
+    }
+  }
+
+  private char readUnicode(int from, int to) throws IOException {
+    if (to - from < 4) {
+      throw new IOException(
+          "Malformed properties file: malformed \\uxxxx encoding at line " + lineNumber(from));
+    }
+    int value = 0;
+    for (int i = from; i < from + 4; i++) {
+      int digit = Character.digit(bytes.get(i), 16);
+      if (digit < 0) {
+        throw new IOException(
+            "Malformed properties file: malformed \\uxxxx encoding at line " + lineNumber(from));
+      }
+      value = (value << 4) | digit;
+    }
+    return (char) value;
+  }
+
+  /**
+   * Counts the lines up to an offset, only done to report an error. They are counted from the very
+   * start of the buffer, so that the line is right when a part of a larger content is scanned.
+   */
+  private int lineNumber(int offset) {
+    int line = 1;
+    for (int i = 0; i < offset; i++) {
+      byte b = bytes.get(i);
+      if (b == '\n' || (b == '\r' && (i + 1 == end || bytes.get(i + 1) != '\n'))) {
+        line++;
+      }
+    }
+    return line;
+  }
+}
@@ -1,25 +1,33 @@
 package com.lsadf.yaproc.file.handler.input;
 
-import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
-import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lsadf.yaproc.concurrent.OrderedTaskPipeline;
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileData;
 import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.util.JacksonUtils;
+import com.lsadf.yaproc.util.MapperRegistry;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 /**
- * A handler for processing input files in YAML format. This class uses {@link YAMLMapper} to parse
- * the YAML content into a {@link ContentMap} object. It supports chaining multiple handlers where
- * unsupported file formats can be delegated to the next handler in the chain. If no handler exists,
- * an {@link UnsupportedFileFormatException} is thrown when processing unsupported formats.
+ * A handler for processing input files in YAML format. This class uses the YAML {@link
+ * ObjectReader} of the {@link MapperRegistry} to parse the YAML content into a {@link ContentMap}
+ * object.
+ *
+ * <p>Files holding several documents separated by {@code ---} are read one document at a time
+ * through {@link #handleDocuments(FileData, DocumentConsumer)}, and can be parsed concurrently
+ * through {@link #handleDocuments(FileData, ExecutorService, DocumentConsumer)}.
  */
 public class YamlInputFileHandler implements InputFileHandler {
-  private final YAMLMapper yamlMapper;
-  private InputFileHandler next;
+  private static final String DOCUMENT_START = "---";
+  private static final String DOCUMENT_END = "...";
+
+  private final ObjectReader yamlReader;
 
   public YamlInputFileHandler() {
-    this.yamlMapper = new YAMLMapper();
+    this.yamlReader = MapperRegistry.getReader(FileFormat.YAML);
   }
 
   /** {@inheritDoc} */
@@ -31,19 +39,115 @@ public class YamlInputFileHandler implements InputFileHandler {
   /** {@inheritDoc} */
   @Override
   public ContentMap handleFile(FileData fileData) throws IOException {
-    String type = fileData.getType();
-    if (Arrays.stream(getType().getExtensions()).anyMatch(ext -> ext.equalsIgnoreCase(type))) {
-      return this.yamlMapper.readValue(fileData.getContent(), ContentMap.class);
+    return JacksonUtils.readContentMap(this.yamlReader, fileData);
+  }
+
+  /**
+   * Processes every document of a YAML file, parsing the next document only once the previous one
+   * has been consumed. Empty documents are skipped.
+   *
+   * @param fileData The file data containing content and metadata to be processed
+   * @param consumer the consumer receiving each document
+   * @throws IOException If there's an error reading or processing the file
+   */
+  @Override
+  public void handleDocuments(FileData fileData, DocumentConsumer consumer) throws IOException {
+    JacksonUtils.readContentMaps(this.yamlReader, fileData, consumer);
+  }
+
+  /**
+   * Processes every document of a YAML file, parsing them concurrently on the given executor.
+   *
+   * <p>The content is split on the document markers ({@code ---} and {@code ...}) found at the
+   * start of a line, and each document is parsed on its own. Only a bounded number of documents is
+   * held in memory at once, and they are handed to the consumer in the order of the file. Empty
+   * documents are skipped.
+   *
+   * <p>A document marker is only recognized at the very start of a line, where YAML forbids it
+   * inside block content: a multi-line quoted scalar with a continuation line starting with {@code
+   * ---} is the only construct that cannot be split this way.
+   *
+   * @param fileData The file data containing content and metadata to be processed
+   * @param executor the executor parsing the documents
+   * @param consumer the consumer receiving each document
+   * @throws IOException If there's an error reading or processing the file
+   */
+  @Override
+  public void handleDocuments(
+      FileData fileData, ExecutorService executor, DocumentConsumer consumer) throws IOException {
+    OrderedTaskPipeline<ContentMap> pipeline =
+        new OrderedTaskPipeline<>(
+            executor,
+            document -> {
+              if (document != null) {
+                consumer.accept(document);
+              }
+            });
+    try (BufferedReader reader = new BufferedReader(fileData.openReader())) {
+      DocumentBuffer document = new DocumentBuffer();
+      StringBuilder directives = new StringBuilder();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (isMarker(line, DOCUMENT_START) || isMarker(line, DOCUMENT_END)) {
+          submit(pipeline, document);
+          document = new DocumentBuffer();
+          if (isMarker(line, DOCUMENT_START)) {
+            // Directives only apply to the document they precede
+            document.appendDirectives(directives);
+            directives.setLength(0);
+            document.append(line);
+          }
+        } else if (line.startsWith("%") && !document.hasContent()) {
+          directives.append(line).append('\n');
+        } else {
+          document.append(line);
+        }
+      }
+      submit(pipeline, document);
+      pipeline.finish();
+    } finally {
+      pipeline.cancel();
     }
-    if (next == null) {
-      throw new UnsupportedFileFormatException("Unsupported file format.");
+  }
+
+  private void submit(OrderedTaskPipeline<ContentMap> pipeline, DocumentBuffer document)
+      throws IOException {
+    if (document.hasContent()) {
+      String content = document.toString();
+      pipeline.submit(() -> yamlReader.readValue(content));
     }
-    return next.handleFile(fileData);
   }
 
-  /** {@inheritDoc} */
-  @Override
-  public void setNextHandler(InputFileHandler nextHandler) {
-    this.next = nextHandler;
+  private static boolean isMarker(String line, String marker) {
+    int length = marker.length();
+    return line.startsWith(marker)
+        && (line.length() == length || Character.isWhitespace(line.charAt(length)));
+  }
+
+  /** Accumulates the lines of a single document, tracking whether it holds any content. */
+  private static class DocumentBuffer {
+    private final StringBuilder lines = new StringBuilder();
+    private boolean content;
+
+    void appendDirectives(CharSequence directives) {
+      lines.append(directives);
+    }
+
+    void append(String line) {
+      lines.append(line).append('\n');
+      String value = isMarker(line, DOCUMENT_START) ? line.substring(3).strip() : line.strip();
+      if (!value.isEmpty() && !value.startsWith("#")) {
+        content = true;
+      }
+    }
+
+    boolean hasContent() {
+      return content;
+    }
+
+    @Override
+    public String toString() {
+      return lines.toString();
+    }
   }
 }
@@ -1,23 +1,37 @@
 package com.lsadf.yaproc.file.handler.output;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileFormat;
 import com.lsadf.yaproc.util.FileUtils;
+import com.lsadf.yaproc.util.MapperRegistry;
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.OutputStream;
 
 /**
- * Handles output file processing for JSON file format. Implements the chain of responsibility
- * pattern to delegate unsupported file types to the next handler in the chain.
+ * Handles output file processing for JSON file format.
+ *
+ * <p>The content is serialized straight into a buffered stream on the output file, so the JSON
+ * document is never held in memory as a whole.
  */
 public class JsonOutputFileHandler implements OutputFileHandler {
-  private OutputFileHandler nextHandler;
-  private final ObjectMapper jsonMapper;
+  private final ObjectWriter jsonWriter;
+  private final int bufferSize;
 
   public JsonOutputFileHandler() {
-    this.jsonMapper = new ObjectMapper();
+    this(FileUtils.DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a JSON output handler writing through a buffer of the given size.
+   *
+   * @param bufferSize the size of the output buffer, in bytes
+   */
+  public JsonOutputFileHandler(int bufferSize) {
+    this.jsonWriter = MapperRegistry.getWriter(FileFormat.JSON);
+    this.bufferSize = bufferSize;
   }
 
   /** {@inheritDoc} */
@@ -29,25 +43,38 @@ public class JsonOutputFileHandler implements OutputFileHandler {
   /** {@inheritDoc} */
   @Override
   public void handleFile(File outputFile, ContentMap contentMap, boolean force) throws IOException {
-
-    String type = FileUtils.getFileExtension(outputFile);
-    if (Arrays.stream(getType().getExtensions()).noneMatch(ext -> ext.equalsIgnoreCase(type))) {
-      if (nextHandler != null) {
-        nextHandler.handleFile(outputFile, contentMap, force);
-      }
-      return;
-    }
-
-    // Convert data to JSON
-    String jsonContent = jsonMapper.writeValueAsString(contentMap);
-
-    // Write JSON to file
-    FileUtils.writeFile(outputFile, jsonContent, force);
+    // Stream JSON to file
+    FileUtils.writeFile(outputFile, force, bufferSize, out -> write(contentMap, out));
   }
 
   /** {@inheritDoc} */
   @Override
-  public void setNextHandler(OutputFileHandler nextHandler) {
-    this.nextHandler = nextHandler;
+  public void write(ContentMap contentMap, OutputStream outputStream) throws IOException {
+    jsonWriter.writeValue(outputStream, contentMap);
+    outputStream.flush();
+  }
+
+  /**
+   * Opens a writer serializing the documents as the elements of a JSON array.
+   *
+   * @param outputStream the stream to write the documents to
+   * @return a writer for the documents
+   * @throws IOException if the writer cannot be opened
+   */
+  @Override
+  public DocumentWriter openDocumentWriter(OutputStream outputStream) throws IOException {
+    SequenceWriter sequenceWriter = jsonWriter.writeValuesAsArray(outputStream);
+    return new DocumentWriter() {
+      @Override
+      public void write(ContentMap document) throws IOException {
+        sequenceWriter.write(document);
+      }
+
+      @Override
+      public void close() throws IOException {
+        sequenceWriter.close();
+        outputStream.flush();
+      }
+    };
   }
 }
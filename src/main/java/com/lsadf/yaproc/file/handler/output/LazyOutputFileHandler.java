@@ -0,0 +1,81 @@
+package com.lsadf.yaproc.file.handler.output;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.FileHandlerRegistry;
+import com.lsadf.yaproc.util.StartupProfile;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+
+/**
+ * Stands for the handler of a format created by the {@link FileHandlerRegistry}, and only creates
+ * it the first time content is written in that format, loading the shared mappers of the format if
+ * no other handler did.
+ *
+ * <p>The handler is created at most once, even when files are written concurrently.
+ */
+public class LazyOutputFileHandler implements OutputFileHandler {
+  private final FileFormat type;
+  private final Supplier<OutputFileHandler> factory;
+  private volatile OutputFileHandler delegate;
+
+  /**
+   * Creates a lazy handler for the given format.
+   *
+   * @param type the format written by the created handler
+   * @param factory creates the handler, on the first content written in the format
+   */
+  public LazyOutputFileHandler(FileFormat type, Supplier<OutputFileHandler> factory) {
+    this.type = type;
+    this.factory = factory;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public FileFormat getType() {
+    return type;
+  }
+
+  /**
+   * Indicates whether the handler of the format was created.
+   *
+   * @return {@code true} if content was written in the format, {@code false} otherwise
+   */
+  public boolean isInitialized() {
+    return delegate != null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void handleFile(File outputFile, ContentMap content, boolean force) throws IOException {
+    getDelegate().handleFile(outputFile, content, force);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(ContentMap content, OutputStream outputStream) throws IOException {
+    getDelegate().write(content, outputStream);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public DocumentWriter openDocumentWriter(OutputStream outputStream) throws IOException {
+    return getDelegate().openDocumentWriter(outputStream);
+  }
+
+  private OutputFileHandler getDelegate() {
+    OutputFileHandler handler = delegate;
+    if (handler == null) {
+      synchronized (this) {
+        handler = delegate;
+        if (handler == null) {
+          handler = StartupProfile.time(type + " output handler", factory);
+          delegate = handler;
+        }
+      }
+    }
+    return handler;
+  }
+}
@@ -0,0 +1,86 @@
+package com.lsadf.yaproc.file.handler.output;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.util.FileUtils;
+import com.lsadf.yaproc.util.MapperRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Handles output file processing for the NDJSON (JSON Lines) file format, where every record is
+ * written as compact JSON on a line of its own.
+ */
+public class NdjsonOutputFileHandler implements OutputFileHandler {
+  private final ObjectWriter jsonWriter;
+  private final int bufferSize;
+
+  public NdjsonOutputFileHandler() {
+    this(FileUtils.DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates an NDJSON output handler writing through a buffer of the given size.
+   *
+   * @param bufferSize the size of the output buffer, in bytes
+   */
+  public NdjsonOutputFileHandler(int bufferSize) {
+    this.jsonWriter = MapperRegistry.getWriter(FileFormat.NDJSON);
+    this.bufferSize = bufferSize;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public FileFormat getType() {
+    return FileFormat.NDJSON;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void handleFile(File outputFile, ContentMap contentMap, boolean force) throws IOException {
+    // Stream the record to file
+    FileUtils.writeFile(outputFile, force, bufferSize, out -> write(contentMap, out));
+  }
+
+  /**
+   * Serializes the specified content as a single record line.
+   *
+   * @param contentMap the content to be written
+   * @param outputStream the stream to write the content to
+   * @throws IOException if an error occurs during serialization
+   */
+  @Override
+  public void write(ContentMap contentMap, OutputStream outputStream) throws IOException {
+    writeRecord(contentMap, outputStream);
+    outputStream.flush();
+  }
+
+  /**
+   * Opens a writer serializing each document as a record line.
+   *
+   * @param outputStream the stream to write the documents to
+   * @return a writer for the documents
+   */
+  @Override
+  public DocumentWriter openDocumentWriter(OutputStream outputStream) {
+    return new DocumentWriter() {
+      @Override
+      public void write(ContentMap document) throws IOException {
+        writeRecord(document, outputStream);
+      }
+
+      @Override
+      public void close() throws IOException {
+        outputStream.flush();
+      }
+    };
+  }
+
+  private void writeRecord(ContentMap record, OutputStream outputStream) throws IOException {
+    // The compact JSON serialization escapes line breaks, so a record always fits on one line
+    jsonWriter.writeValue(outputStream, record);
+    outputStream.write('\n');
+  }
+}
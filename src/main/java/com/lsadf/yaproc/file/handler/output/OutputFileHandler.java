@@ -2,8 +2,10 @@ package com.lsadf.yaproc.file.handler.output;
 
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.handler.FileHandler;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * This interface represents a handler for writing processed file content to an output file. Classes
@@ -24,10 +26,34 @@ public interface OutputFileHandler extends FileHandler {
   void handleFile(File outputFile, ContentMap content, boolean force) throws IOException;
 
   /**
-   * Sets the next handler in the chain of responsibility. This allows the current handler to
-   * delegate the processing of unsupported file types to the next handler.
+   * Serializes the specified content in the format of this handler straight into the given stream.
+   * The stream is flushed but not closed.
    *
-   * @param nextHandler the next {@link FileHandler} in the chain.
+   * @param content the content to be written
+   * @param outputStream the stream to write the content to
+   * @throws IOException if an error occurs during serialization
    */
-  void setNextHandler(OutputFileHandler nextHandler);
+  void write(ContentMap content, OutputStream outputStream) throws IOException;
+
+  /**
+   * Opens a writer serializing a sequence of documents in the format of this handler into the given
+   * stream, each document being written as soon as it is received. Closing the writer completes
+   * the sequence and flushes the stream, but does not close it.
+   *
+   * @param outputStream the stream to write the documents to
+   * @return a writer for the documents
+   * @throws IOException if the writer cannot be opened
+   */
+  DocumentWriter openDocumentWriter(OutputStream outputStream) throws IOException;
+
+  /** Writes a sequence of documents, one at a time. */
+  interface DocumentWriter extends Closeable {
+    /**
+     * Writes the next document of the sequence.
+     *
+     * @param document the content of the document
+     * @throws IOException if the document cannot be written
+     */
+    void write(ContentMap document) throws IOException;
+  }
 }
@@ -4,68 +4,93 @@ import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileFormat;
 import com.lsadf.yaproc.util.FileUtils;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
-import java.util.Properties;
+import java.nio.charset.StandardCharsets;
 
 /**
  * The {@code PropertiesOutputFileHandler} class is responsible for handling the writing of
- * key-value content into a file in the {@code .properties} format. It implements the {@link
- * OutputFileHandler} interface as part of a chain of responsibility for processing output files
- * with varying formats.
+ * key-value content into a file in the {@code .properties} format.
  *
- * <p>This handler uses the {@link Properties} class to store and write the content defined in a
- * {@link ContentMap} to the given output file. It ensures that the content is serialized in valid
- * {@code .properties} format and includes robust error handling for scenarios like file existence,
- * directory creation, and writing operations.
+ * <p>This handler uses a {@link PropertiesWriter} to flatten the content defined in a {@link
+ * ContentMap} into {@code .properties} lines streamed to the given output file, its keys in the
+ * order of the content or sorted. It includes robust error handling for scenarios like file
+ * existence, directory creation, and writing operations.
  *
- * <p>If the specified file type is not supported by this handler, it delegates the responsibility
- * to the next handler in the chain, if present.
- *
- * <p>Features of this handler include: - Validation of file extension compatibility. - Ensures
- * parent directories for the specified output file exist. - Throws an {@link IOException} if the
- * file already exists and overwriting is not forced. - Supports chaining of multiple handlers via
- * {@link #setNextHandler(OutputFileHandler)}.
+ * <p>Features of this handler include: - Ensures parent directories for the specified output file
+ * exist. - Throws an {@link IOException} if the file already exists and overwriting is not forced.
  */
 public class PropertiesOutputFileHandler implements OutputFileHandler {
+  /** Comment separating the documents of a multi-document properties file, as read by Spring. */
+  private static final byte[] DOCUMENT_SEPARATOR = "#---\n".getBytes(StandardCharsets.ISO_8859_1);
 
-  private OutputFileHandler nextHandler;
-
-  /** {@inheritDoc} */
-  @Override
-  public void handleFile(File outputFile, ContentMap contentMap, boolean force) throws IOException {
-    String type = FileUtils.getFileExtension(outputFile);
-    if (Arrays.stream(getType().getExtensions()).noneMatch(ext -> ext.equalsIgnoreCase(type))
-        && nextHandler != null) {
-      nextHandler.handleFile(outputFile, contentMap, force);
-    }
+  private final int bufferSize;
+  private final boolean sortKeys;
 
-    Properties properties = new Properties();
-    contentMap.forEach((key, value) -> properties.setProperty(key, value.toString()));
+  public PropertiesOutputFileHandler() {
+    this(FileUtils.DEFAULT_BUFFER_SIZE);
+  }
 
-    // Check if file exists
-    if (outputFile.exists() && !force) {
-      throw new IOException("File already exists.");
-    }
+  /**
+   * Creates a properties output handler writing through a buffer of the given size, in the order
+   * of the content.
+   *
+   * @param bufferSize the size of the output buffer, in bytes
+   */
+  public PropertiesOutputFileHandler(int bufferSize) {
+    this(bufferSize, false);
+  }
 
-    // Ensure parent directories exist
-    File parent = outputFile.getParentFile();
-    if (parent != null && !parent.exists()) {
-      parent.mkdirs();
-    }
+  /**
+   * Creates a properties output handler writing through a buffer of the given size.
+   *
+   * @param bufferSize the size of the output buffer, in bytes
+   * @param sortKeys whether the keys are sorted rather than written in the order of the content
+   */
+  public PropertiesOutputFileHandler(int bufferSize, boolean sortKeys) {
+    this.bufferSize = bufferSize;
+    this.sortKeys = sortKeys;
+  }
 
-    // Write properties to file
-    try (OutputStream output = new FileOutputStream(outputFile)) {
-      properties.store(output, "Generated by Yaproc");
-    }
+  /** {@inheritDoc} */
+  @Override
+  public void handleFile(File outputFile, ContentMap contentMap, boolean force) throws IOException {
+    // Write properties to file, checking its existence and creating its parent directories
+    FileUtils.writeFile(outputFile, force, bufferSize, out -> write(contentMap, out));
   }
 
   /** {@inheritDoc} */
   @Override
-  public void setNextHandler(OutputFileHandler nextHandler) {
-    this.nextHandler = nextHandler;
+  public void write(ContentMap contentMap, OutputStream outputStream) throws IOException {
+    new PropertiesWriter(outputStream, sortKeys).write(contentMap);
+  }
+
+  /**
+   * Opens a writer serializing the documents one after the other, separated by a {@code #---}
+   * comment line.
+   *
+   * @param outputStream the stream to write the documents to
+   * @return a writer for the documents
+   */
+  @Override
+  public DocumentWriter openDocumentWriter(OutputStream outputStream) {
+    return new DocumentWriter() {
+      private boolean first = true;
+
+      @Override
+      public void write(ContentMap document) throws IOException {
+        if (!first) {
+          outputStream.write(DOCUMENT_SEPARATOR);
+        }
+        first = false;
+        PropertiesOutputFileHandler.this.write(document, outputStream);
+      }
+
+      @Override
+      public void close() throws IOException {
+        outputStream.flush();
+      }
+    };
   }
 
   /** {@inheritDoc} */
@@ -0,0 +1,207 @@
+package com.lsadf.yaproc.file.handler.output;
+
+import com.lsadf.yaproc.file.ContentMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes content in the properties format, one {@code key=value} line per scalar, without building
+ * an intermediate {@link java.util.Properties}.
+ *
+ * <p>Nested maps and lists are flattened into {@code a.b.c} and {@code a.list[0]} keys, walking the
+ * content with an explicit stack so that its depth does not matter. A nested key holding a dot or
+ * a bracket is written between brackets, such as {@code level[org.example]}, as read back by
+ * {@link com.lsadf.yaproc.file.handler.input.PropertiesNester}. An empty map or list, like a
+ * {@code null} value, is written as an empty value.
+ *
+ * <p>The keys are written in the order of the maps, or sorted segment by segment, the elements of
+ * the lists staying in their order. The lines are escaped as {@link
+ * java.util.Properties#store(OutputStream, String)} escapes them, in ISO-8859-1 with unicode
+ * escapes for the other characters, straight into a reused block of bytes. Unlike it, no timestamp
+ * is written, so that the same content always gives the same file. A writer is not thread-safe.
+ */
+public final class PropertiesWriter {
+  private static final int BLOCK_SIZE = 8192;
+  // Longest encoding of a char: a unicode escape
+  private static final int MAX_CHAR_BYTES = 6;
+  private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes();
+  private static final String HEADER = "#Generated by Yaproc";
+
+  private final OutputStream outputStream;
+  private final boolean sortKeys;
+  private final byte[] block = new byte[BLOCK_SIZE];
+  private final StringBuilder key = new StringBuilder();
+  private final Deque<Frame> stack = new ArrayDeque<>();
+  private int count;
+
+  /**
+   * Creates a writer of properties lines.
+   *
+   * @param outputStream the stream to write the lines to
+   * @param sortKeys whether the keys are sorted rather than written in the order of the maps
+   */
+  public PropertiesWriter(OutputStream outputStream, boolean sortKeys) {
+    this.outputStream = outputStream;
+    this.sortKeys = sortKeys;
+  }
+
+  /**
+   * Writes the header comment, then a line for every scalar of the content. The stream is flushed
+   * but not closed.
+   *
+   * @param content the content to write
+   * @throws IOException if the content cannot be written
+   */
+  public void write(ContentMap content) throws IOException {
+    writeAscii(HEADER);
+    writeByte('\n');
+    key.setLength(0);
+    stack.push(new Frame(entries(content), 0, false));
+    while (!stack.isEmpty()) {
+      Frame frame = stack.peek();
+      if (!frame.elements.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      key.setLength(frame.keyLength);
+      Object value;
+      if (frame.list) {
+        key.append('[').append(frame.index++).append(']');
+        value = frame.elements.next();
+      } else {
+        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) frame.elements.next();
+        appendName(String.valueOf(entry.getKey()), stack.size() == 1);
+        value = entry.getValue();
+      }
+      if (value instanceof Map && !((Map<?, ?>) value).isEmpty()) {
+        stack.push(new Frame(entries((Map<?, ?>) value), key.length(), false));
+      } else if (value instanceof List && !((List<?>) value).isEmpty()) {
+        stack.push(new Frame(((List<?>) value).iterator(), key.length(), true));
+      } else {
+        writeLine(value);
+      }
+    }
+    flushBlock();
+    outputStream.flush();
+  }
+
+  private Iterator<? extends Map.Entry<?, ?>> entries(Map<?, ?> map) {
+    if (sortKeys) {
+      Map<String, Object> sorted = new TreeMap<>();
+      map.forEach((name, value) -> sorted.put(String.valueOf(name), value));
+      return sorted.entrySet().iterator();
+    }
+    return map.entrySet().iterator();
+  }
+
+  private void appendName(String name, boolean root) {
+    if (root) {
+      key.append(name);
+    } else if (name.indexOf('.') >= 0 || name.indexOf('[') >= 0) {
+      key.append('[').append(name).append(']');
+    } else {
+      key.append('.').append(name);
+    }
+  }
+
+  private void writeLine(Object value) throws IOException {
+    writeEscaped(key, true);
+    writeByte('=');
+    if (value != null && !(value instanceof Map) && !(value instanceof List)) {
+      writeEscaped(value.toString(), false);
+    }
+    writeByte('\n');
+  }
+
+  /**
+   * Writes a key or a value with the escapes of {@link java.util.Properties#store}: every space of
+   * a key but only the leading space of a value, the separators and comment markers, the control
+   * characters, and the characters outside printable ASCII as unicode escapes.
+   */
+  private void writeEscaped(CharSequence text, boolean isKey) throws IOException {
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      if (count > BLOCK_SIZE - MAX_CHAR_BYTES) {
+        flushBlock();
+      }
+      char c = text.charAt(i);
+      if (c > ' ' && c < 0x7F) {
+        if (c == '\\' || c == '=' || c == ':' || c == '#' || c == '!') {
+          block[count++] = '\\';
+        }
+        block[count++] = (byte) c;
+        continue;
+      }
+      switch (c) {
+        case ' ':
+          if (i == 0 || isKey) {
+            block[count++] = '\\';
+          }
+          block[count++] = ' ';
+          break;
+        case '\t':
+          block[count++] = '\\';
+          block[count++] = 't';
+          break;
+        case '\n':
+          block[count++] = '\\';
+          block[count++] = 'n';
+          break;
+        case '\r':
+          block[count++] = '\\';
+          block[count++] = 'r';
+          break;
+        case '\f':
+          block[count++] = '\\';
+          block[count++] = 'f';
+          break;
+        default:
+          block[count++] = '\\';
+          block[count++] = 'u';
+          block[count++] = HEX_DIGITS[(c >> 12) & 0xF];
+          block[count++] = HEX_DIGITS[(c >> 8) & 0xF];
+          block[count++] = HEX_DIGITS[(c >> 4) & 0xF];
+          block[count++] = HEX_DIGITS[c & 0xF];
+          break;
+      }
+    }
+  }
+
+  private void writeAscii(String text) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      writeByte(text.charAt(i));
+    }
+  }
+
+  private void writeByte(char c) throws IOException {
+    if (count == BLOCK_SIZE) {
+      flushBlock();
+    }
+    block[count++] = (byte) c;
+  }
+
+  private void flushBlock() throws IOException {
+    outputStream.write(block, 0, count);
+    count = 0;
+  }
+
+  /** A map or a list being written, with the length of its key in the shared key builder. */
+  private static final class Frame {
+    private final Iterator<?> elements;
+    private final int keyLength;
+    private final boolean list;
+    private int index;
+
+    private Frame(Iterator<?> elements, int keyLength, boolean list) {
+      this.elements = elements;
+      this.keyLength = keyLength;
+      this.list = list;
+    }
+  }
+}
@@ -1,24 +1,35 @@
 package com.lsadf.yaproc.file.handler.output;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.FileFormat;
 import com.lsadf.yaproc.util.FileUtils;
+import com.lsadf.yaproc.util.MapperRegistry;
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.OutputStream;
 
 /**
  * A handler class responsible for generating YAML output files. It converts the provided data into
- * YAML format and writes it to the specified output file.
+ * YAML format and streams it to the specified output file as it is serialized.
  */
 public class YamlOutputFileHandler implements OutputFileHandler {
-  private OutputFileHandler nextHandler;
-  private final ObjectMapper yamlMapper;
+  private final ObjectWriter yamlWriter;
+  private final int bufferSize;
 
   public YamlOutputFileHandler() {
-    this.yamlMapper = new ObjectMapper(new YAMLFactory());
+    this(FileUtils.DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a YAML output handler writing through a buffer of the given size.
+   *
+   * @param bufferSize the size of the output buffer, in bytes
+   */
+  public YamlOutputFileHandler(int bufferSize) {
+    this.yamlWriter = MapperRegistry.getWriter(FileFormat.YAML);
+    this.bufferSize = bufferSize;
   }
 
   /** {@inheritDoc} */
@@ -30,25 +41,39 @@ public class YamlOutputFileHandler implements OutputFileHandler {
   /** {@inheritDoc} */
   @Override
   public void handleFile(File outputFile, ContentMap contentMap, boolean force) throws IOException {
-
-    String type = FileUtils.getFileExtension(outputFile);
-    if (Arrays.stream(getType().getExtensions()).noneMatch(ext -> ext.equalsIgnoreCase(type))) {
-      if (nextHandler != null) {
-        nextHandler.handleFile(outputFile, contentMap, force);
-      }
-      return;
-    }
-
-    // Convert data to YAML
-    String yamlContent = yamlMapper.writeValueAsString(contentMap);
-
-    // Write YAML to file
-    FileUtils.writeFile(outputFile, yamlContent, force);
+    // Stream YAML to file
+    FileUtils.writeFile(outputFile, force, bufferSize, out -> write(contentMap, out));
   }
 
   /** {@inheritDoc} */
   @Override
-  public void setNextHandler(OutputFileHandler nextHandler) {
-    this.nextHandler = nextHandler;
+  public void write(ContentMap contentMap, OutputStream outputStream) throws IOException {
+    yamlWriter.writeValue(outputStream, contentMap);
+    outputStream.flush();
+  }
+
+  /**
+   * Opens a writer serializing the documents as a stream of YAML documents separated by
+   * {@code ---}.
+   *
+   * @param outputStream the stream to write the documents to
+   * @return a writer for the documents
+   * @throws IOException if the writer cannot be opened
+   */
+  @Override
+  public DocumentWriter openDocumentWriter(OutputStream outputStream) throws IOException {
+    SequenceWriter sequenceWriter = yamlWriter.writeValues(outputStream);
+    return new DocumentWriter() {
+      @Override
+      public void write(ContentMap document) throws IOException {
+        sequenceWriter.write(document);
+      }
+
+      @Override
+      public void close() throws IOException {
+        sequenceWriter.close();
+        outputStream.flush();
+      }
+    };
   }
 }
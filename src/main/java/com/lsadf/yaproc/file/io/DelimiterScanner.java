@@ -0,0 +1,103 @@
+package com.lsadf.yaproc.file.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Finds the next occurrence of any of a small set of delimiter bytes, such as line breaks or the
+ * separators of the properties format, in a buffer of raw bytes. The line-oriented readers use it
+ * to skip over the bytes they have nothing to do with several at a time, instead of testing every
+ * byte.
+ *
+ * <p>The bytes are compared 8 at a time, read as a {@code long} (SWAR): the bytes equal to a
+ * delimiter are turned into zero bytes by a XOR with the delimiter repeated 8 times, then the zero
+ * bytes are found with carry-free arithmetic. Works on any JVM.
+ */
+@UtilityClass
+public class DelimiterScanner {
+  private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+  /**
+   * Creates a set of delimiters, to be created once and reused for every scan.
+   *
+   * @param delimiters the delimiter bytes, all ASCII characters
+   * @return the set of delimiters
+   */
+  public static Delimiters delimiters(char... delimiters) {
+    return new Delimiters(delimiters);
+  }
+
+  /**
+   * Finds the first delimiter in a range of a buffer. The position and limit of the buffer are
+   * ignored and left unchanged.
+   *
+   * @param bytes the buffer to scan
+   * @param from the index of the first byte to scan, inclusive
+   * @param to the index of the last byte to scan, exclusive
+   * @param delimiters the delimiters to find
+   * @return the index of the first delimiter, or {@code to} if there is none in the range
+   */
+  public static int indexOfAny(ByteBuffer bytes, int from, int to, Delimiters delimiters) {
+    long[] broadcasts = delimiters.broadcasts;
+    // In big-endian order, the default, the first byte is the most significant one
+    boolean bigEndian = bytes.order() == ByteOrder.BIG_ENDIAN;
+    int i = from;
+    for (; i + Long.BYTES <= to; i += Long.BYTES) {
+      long word = bytes.getLong(i);
+      long found = 0;
+      for (long broadcast : broadcasts) {
+        found |= zeroBytes(word ^ broadcast);
+      }
+      if (found != 0) {
+        int bits = bigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found);
+        return i + (bits >>> 3);
+      }
+    }
+    // Fewer than 8 bytes left
+    for (; i < to; i++) {
+      if (delimiters.contains(bytes.get(i))) {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  /**
+   * Sets the high bit of every zero byte of a word, and of no other byte. Unlike the shorter
+   * {@code (x - 0x01..) & ~x & 0x80..}, no borrow crosses bytes, so the first byte found is exact
+   * whichever end of the word it is looked for from.
+   */
+  private static long zeroBytes(long word) {
+    long sum = (word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS;
+    return ~(sum | word | LOW_SEVEN_BITS);
+  }
+
+  /** A set of ASCII delimiter bytes, with the masks comparing them 8 bytes at a time. */
+  public static final class Delimiters {
+    private final long[] broadcasts;
+    private final boolean[] table = new boolean[128];
+
+    private Delimiters(char... delimiters) {
+      this.broadcasts = new long[delimiters.length];
+      for (int i = 0; i < delimiters.length; i++) {
+        char delimiter = delimiters[i];
+        if (delimiter >= 128) {
+          throw new IllegalArgumentException("Not an ASCII delimiter: " + delimiter);
+        }
+        broadcasts[i] = 0x0101010101010101L * delimiter;
+        table[delimiter] = true;
+      }
+    }
+
+    /**
+     * Indicates whether a byte is one of the delimiters.
+     *
+     * @param b the byte
+     * @return {@code true} if the byte is a delimiter
+     */
+    public boolean contains(byte b) {
+      return b >= 0 && table[b];
+    }
+  }
+}
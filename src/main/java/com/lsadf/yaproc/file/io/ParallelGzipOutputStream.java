@@ -0,0 +1,155 @@
+package com.lsadf.yaproc.file.io;
+
+import com.lsadf.yaproc.concurrent.OrderedTaskPipeline;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link OutputStream} compressing its content in the gzip format using several threads.
+ *
+ * <p>The content is cut into independent blocks, in the same way as {@code pigz}. Each block is
+ * compressed on its own into a complete gzip member by a task of an {@link ExecutorService}, and
+ * the members are written to the underlying stream in order. A sequence of concatenated gzip
+ * members is a valid gzip file, which {@link java.util.zip.GZIPInputStream} and {@code gunzip} read
+ * as a single stream.
+ *
+ * <p>The number of blocks being compressed at the same time is bounded, so that the memory used by
+ * this stream does not depend on the size of the content. Content smaller than one block is
+ * compressed into a single member when the stream is closed.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+  /** Default size of the blocks compressed independently, in bytes. */
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  private final OutputStream out;
+  private final int blockSize;
+  private final OrderedTaskPipeline<byte[]> pipeline;
+
+  private byte[] block;
+  private int count;
+  private boolean memberWritten;
+  private boolean closed;
+
+  /**
+   * Creates a stream compressing blocks of {@link #DEFAULT_BLOCK_SIZE} bytes on the common
+   * fork-join pool.
+   *
+   * @param out the stream to write the compressed content to
+   */
+  public ParallelGzipOutputStream(OutputStream out) {
+    this(out, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a stream compressing blocks of the given size with the given executor.
+   *
+   * @param out the stream to write the compressed content to
+   * @param blockSize the size of the blocks compressed independently, in bytes
+   * @param executor the executor running the compression tasks
+   */
+  public ParallelGzipOutputStream(OutputStream out, int blockSize, ExecutorService executor) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+    }
+    this.out = out;
+    this.blockSize = blockSize;
+    this.pipeline = new OrderedTaskPipeline<>(executor, this::writeMember);
+    this.block = new byte[blockSize];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    block[count++] = (byte) b;
+    if (count == blockSize) {
+      submitBlock();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    ensureOpen();
+    while (length > 0) {
+      int chunk = Math.min(length, blockSize - count);
+      System.arraycopy(bytes, offset, block, count, chunk);
+      count += chunk;
+      offset += chunk;
+      length -= chunk;
+      if (count == blockSize) {
+        submitBlock();
+      }
+    }
+  }
+
+  /**
+   * Writes the members that are already compressed and flushes the underlying stream. The current
+   * block is not cut short, so flushing does not degrade the compression ratio.
+   *
+   * @throws IOException if a block could not be compressed or written
+   */
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    pipeline.consumeCompleted();
+    out.flush();
+  }
+
+  /**
+   * Compresses the remaining content, writes every member in order and closes the underlying
+   * stream.
+   *
+   * @throws IOException if a block could not be compressed or written
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      if (count > 0 || (!memberWritten && pipeline.isEmpty())) {
+        // Always write at least one member, so that empty content is still a valid gzip file
+        enqueue(block, count);
+      }
+      pipeline.finish();
+    } finally {
+      pipeline.cancel();
+      out.close();
+    }
+  }
+
+  private void submitBlock() throws IOException {
+    enqueue(block, count);
+    block = new byte[blockSize];
+    count = 0;
+  }
+
+  private void enqueue(byte[] data, int length) throws IOException {
+    pipeline.submit(() -> compress(data, length));
+  }
+
+  private void writeMember(byte[] member) throws IOException {
+    out.write(member);
+    memberWritten = true;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  private static byte[] compress(byte[] data, int length) throws IOException {
+    ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(member, 8192)) {
+      gzip.write(data, 0, length);
+    }
+    return member.toByteArray();
+  }
+}
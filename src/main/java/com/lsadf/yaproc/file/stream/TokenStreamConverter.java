@@ -0,0 +1,87 @@
+package com.lsadf.yaproc.file.stream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.util.MapperRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Converts files between token-based formats (JSON and YAML) without materializing their content.
+ *
+ * <p>A Jackson {@link JsonParser} reading the input is wired straight to a {@link JsonGenerator}
+ * writing the output, and every token is copied as soon as it is read. No {@code ContentMap} is
+ * built, so the memory footprint stays constant regardless of the input size. The parser and the
+ * generator are created by the shared readers and writers of the {@link MapperRegistry}, so that
+ * the streamed output is configured as the output handlers write it.
+ *
+ * <p>Formats that are not token-based, such as PROPERTIES, are not supported and must go through
+ * the regular input/output file handlers.
+ */
+public class TokenStreamConverter {
+
+  /**
+   * Indicates whether a conversion between the two given formats can be streamed token by token.
+   *
+   * @param inputFormat the format of the input file
+   * @param outputFormat the format of the output file
+   * @return {@code true} if both formats are token-based, {@code false} otherwise
+   */
+  public static boolean supports(FileFormat inputFormat, FileFormat outputFormat) {
+    return isTokenBased(inputFormat) && isTokenBased(outputFormat);
+  }
+
+  /**
+   * Streams the content of the input stream into the output stream, converting it from the input
+   * format to the output format on the fly. Neither stream is closed, and the output stream is
+   * flushed once the conversion is complete.
+   *
+   * @param input the stream to read
+   * @param inputFormat the format of the input stream
+   * @param output the stream to write
+   * @param outputFormat the format of the output stream
+   * @throws IOException if the input cannot be parsed or the output cannot be written
+   * @throws UnsupportedFileFormatException if one of the formats is not token-based
+   */
+  public void convert(
+      InputStream input, FileFormat inputFormat, OutputStream output, FileFormat outputFormat)
+      throws IOException {
+    if (!supports(inputFormat, outputFormat)) {
+      throw new UnsupportedFileFormatException(
+          "Streaming is not supported from " + inputFormat + " to " + outputFormat);
+    }
+    ObjectReader reader =
+        MapperRegistry.getReader(inputFormat).without(StreamReadFeature.AUTO_CLOSE_SOURCE);
+    ObjectWriter writer = MapperRegistry.getWriter(outputFormat);
+
+    try (JsonParser parser = reader.createParser(input);
+        JsonGenerator generator = writer.createGenerator(output, JsonEncoding.UTF8)) {
+      copyTokens(parser, generator);
+    }
+  }
+
+  /**
+   * Copies every remaining token of the parser to the generator, one event at a time.
+   *
+   * @param parser the parser to read tokens from
+   * @param generator the generator to write tokens to
+   * @throws IOException if an error occurs while reading or writing a token
+   */
+  public static void copyTokens(JsonParser parser, JsonGenerator generator) throws IOException {
+    while (parser.nextToken() != null) {
+      generator.copyCurrentEvent(parser);
+    }
+    generator.flush();
+  }
+
+  private static boolean isTokenBased(FileFormat format) {
+    return format == FileFormat.JSON || format == FileFormat.YAML;
+  }
+}
@@ -1,27 +1,27 @@
 package com.lsadf.yaproc.util;
 
+import java.util.EnumSet;
+import java.util.Set;
 import lombok.experimental.UtilityClass;
 
 /**
  * Utility class providing common methods for class-related operations. This class contains methods
  * for determining the type of values, specifically whether a given string represents a number or a
- * boolean.
+ * boolean, and for converting such strings into typed values.
  */
 @UtilityClass
 public class ClassUtils {
+  private static final Set<ScalarType> LONG = EnumSet.of(ScalarType.LONG);
+
   /**
    * Determines whether the given string represents a valid number.
    *
    * @param value the string to validate as a potential numeric value
-   * @return true if the string can be successfully parsed as a number, false otherwise
+   * @return true if the string is a decimal integer within the range of a {@code long}, false
+   *     otherwise
    */
   public static boolean isNumber(String value) {
-    try {
-      Long.parseLong(value);
-      return true;
-    } catch (NumberFormatException e) {
-      return false;
-    }
+    return toScalar(value, LONG) instanceof Long;
   }
 
   /**
@@ -34,4 +34,112 @@ public class ClassUtils {
   public static boolean isBoolean(String value) {
     return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
   }
+
+  /**
+   * Converts a string into the first of the given types it represents, in a single pass and
+   * without catching any exception. Integers are accumulated while they are recognized, and
+   * decimal numbers are only handed to {@link Double#parseDouble(String)} once their syntax is
+   * known to be valid.
+   *
+   * @param value the string to convert
+   * @param types the types the string may be converted to
+   * @return a {@link Long}, {@link Double}, {@link Boolean} or {@code null} if the string
+   *     represents one of the given types, the string itself otherwise
+   */
+  public static Object toScalar(String value, Set<ScalarType> types) {
+    int length = value.length();
+    if (length == 0 || types.isEmpty()) {
+      return value;
+    }
+    char first = value.charAt(0);
+    switch (first) {
+      case 't':
+      case 'T':
+      case 'f':
+      case 'F':
+        if (types.contains(ScalarType.BOOLEAN) && isBoolean(value)) {
+          return Boolean.parseBoolean(value);
+        }
+        return value;
+      case 'n':
+        return types.contains(ScalarType.NULL) && value.equals("null") ? null : value;
+      default:
+        return toNumber(value, types);
+    }
+  }
+
+  private static Object toNumber(String value, Set<ScalarType> types) {
+    int length = value.length();
+    int i = 0;
+    char first = value.charAt(0);
+    boolean negative = first == '-';
+    if (negative || first == '+') {
+      i++;
+    }
+
+    // Integer part, accumulated negatively as Long.parseLong does to reach Long.MIN_VALUE
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long multiplicationLimit = limit / 10;
+    long result = 0;
+    boolean overflow = false;
+    int integerDigits = 0;
+    while (i < length) {
+      int digit = value.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        break;
+      }
+      if (result < multiplicationLimit || result * 10 < limit + digit) {
+        overflow = true;
+      } else {
+        result = result * 10 - digit;
+      }
+      integerDigits++;
+      i++;
+    }
+    if (i == length) {
+      if (integerDigits == 0) {
+        return value;
+      }
+      if (types.contains(ScalarType.LONG)) {
+        // An integer too large for a long is kept rather than rounded to a double
+        return overflow ? value : (Object) (negative ? result : -result);
+      }
+      return types.contains(ScalarType.DOUBLE) ? (Object) Double.parseDouble(value) : value;
+    }
+    if (!types.contains(ScalarType.DOUBLE)) {
+      return value;
+    }
+
+    // Fraction and exponent
+    int fractionDigits = 0;
+    if (value.charAt(i) == '.') {
+      i++;
+      while (i < length && isDigit(value.charAt(i))) {
+        fractionDigits++;
+        i++;
+      }
+    }
+    if (integerDigits + fractionDigits == 0) {
+      return value;
+    }
+    if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+      i++;
+      if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+        i++;
+      }
+      int exponentDigits = 0;
+      while (i < length && isDigit(value.charAt(i))) {
+        exponentDigits++;
+        i++;
+      }
+      if (exponentDigits == 0) {
+        return value;
+      }
+    }
+    return i == length ? (Object) Double.parseDouble(value) : value;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
 }
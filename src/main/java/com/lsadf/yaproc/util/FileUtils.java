@@ -1,10 +1,18 @@
 package com.lsadf.yaproc.util;
 
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.io.ParallelGzipOutputStream;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
 import lombok.experimental.UtilityClass;
 
 /**
@@ -13,38 +21,329 @@ import lombok.experimental.UtilityClass;
  */
 @UtilityClass
 public class FileUtils {
+  /**
+   * Size from which input files are memory-mapped instead of being copied on the heap. Mapping a
+   * small file costs more than reading it, so only large files benefit from it.
+   */
+  public static final long MEMORY_MAP_THRESHOLD = 1024L * 1024L;
+
+  /**
+   * Path used on the command line to read from the standard input or write to the standard output.
+   */
+  public static final String STANDARD_STREAM = "-";
+
+  /** Default size of the buffers used to write output files. */
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  /** Extension of gzip compressed files, appended to the extension of the compressed format. */
+  public static final String GZIP_EXTENSION = "gz";
+
+  private static final byte[] GZIP_MAGIC = {(byte) 0x1F, (byte) 0x8B};
+  private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+  private static final byte[] UTF16BE_BOM = {(byte) 0xFE, (byte) 0xFF};
+  private static final byte[] UTF16LE_BOM = {(byte) 0xFF, (byte) 0xFE};
+
   /**
    * Reads the content of a file and returns its type and content.
    *
+   * <p>The raw bytes are read once through {@link #readBytes(File)} and are not decoded: the
+   * charset returned by {@link #detectCharset(ByteBuffer, String)} is attached to them so that each
+   * parser can decide how to read them. Line endings are kept as they are in the file.
+   *
+   * <p>Gzip compressed files are recognized by their magic bytes and are decompressed on the fly
+   * while they are parsed: the type is then taken from the extension preceding {@code .gz}.
+   *
    * @param file the file to read
    * @return a FileData object with type and content
    */
   public static FileData readFile(File file) throws IOException {
-    // Read file content as a string
-    var fileInputStream = new FileInputStream(file);
-    var inputStreamReader = new InputStreamReader(fileInputStream, StandardCharsets.ISO_8859_1);
+    ByteBuffer bytes = readBytes(file);
+
+    // Determine type
+    String type = FileUtils.getFileExtension(file);
+    // Get filename
+    String name = file.getName();
+
+    return toFileData(name, type, bytes);
+  }
+
+  /**
+   * Reads the content of a file whose format is known beforehand, regardless of its extension.
+   *
+   * @param file the file to read
+   * @param format the format of the file
+   * @return a FileData object typed with the default extension of the format
+   * @see #readFile(File)
+   */
+  public static FileData readFile(File file, FileFormat format) throws IOException {
+    ByteBuffer bytes = readBytes(file);
+    return toFileData(file.getName(), format.getDefaultExtension(), bytes);
+  }
+
+  private static FileData toFileData(String name, String type, ByteBuffer bytes)
+      throws IOException {
+    if (!startsWith(bytes, GZIP_MAGIC)) {
+      Charset charset = detectCharset(bytes, type);
+      return FileData.fromBytes(name, type, bytes, charset);
+    }
+    // Peek at the first decompressed bytes to find a byte order mark
+    ByteBuffer head;
+    try (InputStream inputStream =
+        new GZIPInputStream(new ByteBufferBackedInputStream(bytes.duplicate()))) {
+      head = ByteBuffer.wrap(inputStream.readNBytes(UTF8_BOM.length));
+    }
+    Charset charset = detectCharset(head, type);
+    int byteOrderMarkLength = head.position();
+    return FileData.fromStream(
+        name,
+        type,
+        () -> {
+          InputStream inputStream =
+              new GZIPInputStream(
+                  new ByteBufferBackedInputStream(bytes.duplicate()), DEFAULT_BUFFER_SIZE);
+          inputStream.skipNBytes(byteOrderMarkLength);
+          return inputStream;
+        },
+        charset);
+  }
+
+  /**
+   * Wraps the standard input into a {@link FileData} without reading it: the content is streamed
+   * to the parser as it arrives, and decompressed on the fly if it is gzip compressed. The standard
+   * input is never closed.
+   *
+   * @param format the format of the data sent to the standard input
+   * @return a stream-backed FileData object typed with the default extension of the format
+   */
+  public static FileData readStandardInput(FileFormat format) {
+    String type = format.getDefaultExtension();
+    Charset charset =
+        format == FileFormat.PROPERTIES ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+    return FileData.fromStream(
+        "stdin",
+        type,
+        () ->
+            decompressIfNeeded(
+                new FilterInputStream(System.in) {
+                  @Override
+                  public void close() {
+                    // The standard input is owned by the JVM and must stay open
+                  }
+                }),
+        charset);
+  }
+
+  /**
+   * Opens a buffered stream on the content of a file. Gzip compressed files are recognized by
+   * their magic bytes and decompressed on the fly.
+   *
+   * @param file the file to read
+   * @return a stream on the (decompressed) content of the file
+   * @throws FileNotFoundException if the file does not exist or is not a regular file
+   * @throws IOException if the file cannot be read
+   */
+  public static InputStream openInputStream(File file) throws IOException {
+    InputStream inputStream = new FileInputStream(file);
+    try {
+      return decompressIfNeeded(inputStream);
+    } catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+  }
+
+  private static InputStream decompressIfNeeded(InputStream inputStream) throws IOException {
+    InputStream buffered = new BufferedInputStream(inputStream, DEFAULT_BUFFER_SIZE);
+    buffered.mark(GZIP_MAGIC.length);
+    byte[] magic = buffered.readNBytes(GZIP_MAGIC.length);
+    buffered.reset();
+    if (Arrays.equals(magic, GZIP_MAGIC)) {
+      return new BufferedInputStream(
+          new GZIPInputStream(buffered, DEFAULT_BUFFER_SIZE), DEFAULT_BUFFER_SIZE);
+    }
+    return buffered;
+  }
+
+  /**
+   * Indicates whether the given file is gzip compressed, according to its {@code .gz} extension.
+   *
+   * @param file the file object
+   * @return {@code true} if the file name ends with {@code .gz}
+   */
+  public static boolean isGzipFile(File file) {
+    String filename = file.getName();
+    int lastDotIndex = filename.lastIndexOf('.');
+    return lastDotIndex > 0
+        && GZIP_EXTENSION.equalsIgnoreCase(filename.substring(lastDotIndex + 1));
+  }
 
-    try (var reader = new BufferedReader(inputStreamReader)) {
-      String content = reader.lines().collect(Collectors.joining("\n"));
+  /**
+   * Indicates whether the given file designates the standard input or output ({@code -}).
+   *
+   * @param file the file given on the command line
+   * @return {@code true} if the file stands for a standard stream
+   */
+  public static boolean isStandardStream(File file) {
+    return STANDARD_STREAM.equals(file.getPath());
+  }
 
-      // Determine type
-      String type = FileUtils.getFileExtension(file);
-      // Get filename
-      String name = file.getName();
+  /**
+   * Reads the raw bytes of a file in a single copy. Files larger than {@link
+   * #MEMORY_MAP_THRESHOLD} are memory-mapped, smaller ones are read into one heap buffer.
+   *
+   * @param file the file to read
+   * @return a buffer holding the file content, positioned at its first byte
+   * @throws FileNotFoundException if the file does not exist or is not a regular file
+   * @throws IOException if the file cannot be read or is larger than 2 GB
+   */
+  public static ByteBuffer readBytes(File file) throws IOException {
+    try (FileInputStream inputStream = new FileInputStream(file);
+        FileChannel channel = inputStream.getChannel()) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("File too large: " + file + " (" + size + " bytes)");
+      }
+      if (size >= MEMORY_MAP_THRESHOLD) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // Keep reading until the buffer is full or the end of the file is reached
+      }
+      return buffer.flip();
+    }
+  }
 
-      return new FileData(name, type, content);
+  /**
+   * Detects the charset of the given bytes from their byte order mark, falling back to the default
+   * charset of the file type: ISO-8859-1 for properties files, as specified by {@link
+   * java.util.Properties#load(InputStream)}, and UTF-8 for every other format.
+   *
+   * <p>If a byte order mark is found, the buffer position is moved past it so that it is not
+   * decoded as content.
+   *
+   * @param bytes the content of the file, positioned at its first byte
+   * @param type the file type, usually its extension
+   * @return the charset to use to decode the content
+   */
+  public static Charset detectCharset(ByteBuffer bytes, String type) {
+    if (startsWith(bytes, UTF8_BOM)) {
+      bytes.position(bytes.position() + UTF8_BOM.length);
+      return StandardCharsets.UTF_8;
     }
+    if (startsWith(bytes, UTF16BE_BOM)) {
+      bytes.position(bytes.position() + UTF16BE_BOM.length);
+      return StandardCharsets.UTF_16BE;
+    }
+    if (startsWith(bytes, UTF16LE_BOM)) {
+      bytes.position(bytes.position() + UTF16LE_BOM.length);
+      return StandardCharsets.UTF_16LE;
+    }
+    return FileFormat.PROPERTIES.hasExtension(type)
+        ? StandardCharsets.ISO_8859_1
+        : StandardCharsets.UTF_8;
+  }
+
+  private static boolean startsWith(ByteBuffer bytes, byte[] prefix) {
+    if (bytes.remaining() < prefix.length) {
+      return false;
+    }
+    int position = bytes.position();
+    for (int i = 0; i < prefix.length; i++) {
+      if (bytes.get(position + i) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
-   * Writes content to a file specified by its path.
+   * Writes content to a file specified by its path, streaming it through a buffered {@link
+   * OutputStream} instead of building it in memory first.
+   *
+   * <p>If the file name ends with {@code .gz}, the content is gzip compressed with a {@link
+   * ParallelGzipOutputStream}, which compresses large outputs on several cores.
+   *
+   * <p>The content is written to a temporary file next to the target, which is then moved over it,
+   * atomically where the file system supports it. If the writer fails, or the stream cannot be
+   * closed, only the temporary file is deleted: no truncated output is left behind, and a file
+   * being overwritten is kept as it was.
    *
    * @param file the file to write to
-   * @param content the content to write into the file
    * @param force whether to overwrite the file if it already exists
-   * @return true if the write operation is successful, false otherwise
+   * @param bufferSize the size of the output buffer, in bytes
+   * @param writer the writer serializing the content into the stream
+   * @throws FileAlreadyExistsException if the file exists and {@code force} is {@code false}
+   * @throws IOException if the content cannot be written
+   */
+  public static void writeFile(File file, boolean force, int bufferSize, ContentWriter writer)
+      throws IOException {
+    Path filepath = prepareOutputFile(file, force);
+    Path tempPath = createTempOutputFile(filepath);
+    boolean moved = false;
+    try {
+      try (OutputStream fileStream = Files.newOutputStream(tempPath);
+          OutputStream outputStream =
+              new BufferedOutputStream(
+                  isGzipFile(file) ? new ParallelGzipOutputStream(fileStream) : fileStream,
+                  bufferSize)) {
+        writer.write(outputStream);
+      }
+      moveOutputFile(tempPath, filepath, force);
+      moved = true;
+    } finally {
+      if (!moved) {
+        Files.deleteIfExists(tempPath);
+      }
+    }
+  }
+
+  /**
+   * Creates an empty temporary file in the directory of the given file, hidden and named after it,
+   * with the default permissions of a new file.
    */
-  public static boolean writeFile(File file, String content, boolean force) throws IOException {
+  private static Path createTempOutputFile(Path filepath) throws IOException {
+    Path directory = filepath.toAbsolutePath().getParent();
+    String prefix = "." + filepath.getFileName() + ".";
+    while (true) {
+      Path tempPath =
+          directory.resolve(prefix + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+      try {
+        return Files.createFile(tempPath);
+      } catch (FileAlreadyExistsException e) {
+        // Another write picked the same name, try another one
+      }
+    }
+  }
+
+  /**
+   * Moves a written temporary file over its target. Without {@code force}, an existing target is
+   * never replaced, even one created while the content was being written.
+   */
+  private static void moveOutputFile(Path tempPath, Path filepath, boolean force)
+      throws IOException {
+    if (!force) {
+      Files.move(tempPath, filepath);
+      return;
+    }
+    try {
+      Files.move(tempPath, filepath, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tempPath, filepath, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Prepares the given file to be written: checks that it can be overwritten and creates its
+   * parent directories if needed.
+   *
+   * @param file the file about to be written
+   * @param force whether to overwrite the file if it already exists
+   * @return the path of the file
+   * @throws FileAlreadyExistsException if the file exists and {@code force} is {@code false}
+   * @throws IOException if the parent directories cannot be created
+   */
+  public static Path prepareOutputFile(File file, boolean force) throws IOException {
     Path filepath = file.toPath();
     if (Files.exists(filepath) && !force) {
       throw new FileAlreadyExistsException(
@@ -54,13 +353,12 @@ public class FileUtils {
     if (parent != null) {
       Files.createDirectories(parent);
     }
-    Files.writeString(
-        filepath, content, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-    return true;
+    return filepath;
   }
 
   /**
-   * Retrieves the file extension from a given file.
+   * Retrieves the file extension from a given file. For gzip compressed files, the extension of
+   * the compressed content is returned: {@code config.json.gz} has the {@code json} extension.
    *
    * @param file the file object
    * @return the file extension (e.g., "json", "yaml", "properties") or an empty string if none is
@@ -68,6 +366,9 @@ public class FileUtils {
    */
   public static String getFileExtension(File file) {
     String filename = file.getName();
+    if (isGzipFile(file)) {
+      filename = filename.substring(0, filename.length() - GZIP_EXTENSION.length() - 1);
+    }
     int lastDotIndex = filename.lastIndexOf('.');
 
     if (lastDotIndex > 0 && lastDotIndex < filename.length() - 1) {
@@ -75,4 +376,16 @@ public class FileUtils {
     }
     return ""; // No extension found
   }
+
+  /** Serializes content into an {@link OutputStream}. */
+  @FunctionalInterface
+  public interface ContentWriter {
+    /**
+     * Writes the content into the given stream.
+     *
+     * @param outputStream the stream to write to
+     * @throws IOException if the content cannot be written
+     */
+    void write(OutputStream outputStream) throws IOException;
+  }
 }
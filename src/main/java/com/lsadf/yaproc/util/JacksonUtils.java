@@ -0,0 +1,90 @@
+package com.lsadf.yaproc.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utility class providing helper methods to read {@link FileData} with Jackson readers, using the
+ * cheapest entry point available for the way the content is held.
+ */
+@UtilityClass
+public class JacksonUtils {
+
+  /**
+   * Reads the content of the given file data into a {@link ContentMap}.
+   *
+   * <p>UTF-8 content held in a heap buffer is parsed straight from its backing array, and other
+   * UTF-8 content (memory-mapped or streamed) from an {@link InputStream}, so that no intermediate
+   * {@link String} is ever built. Content in any other charset is decoded through a {@link Reader}
+   * while being parsed.
+   *
+   * @param reader the reader to parse the content with
+   * @param fileData the file data to read
+   * @return the parsed content
+   * @throws IOException if the content cannot be read or parsed
+   */
+  public static ContentMap readContentMap(ObjectReader reader, FileData fileData)
+      throws IOException {
+    if (fileData.isUtf8()) {
+      ByteBuffer bytes = fileData.getBytes();
+      if (bytes != null && bytes.hasArray()) {
+        return reader.readValue(
+            bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+      }
+      try (InputStream inputStream = fileData.openStream()) {
+        return reader.readValue(inputStream);
+      }
+    }
+    try (Reader charReader = fileData.openReader()) {
+      return reader.readValue(charReader);
+    }
+  }
+
+  /**
+   * Reads the content of the given file data as a sequence of documents, such as the documents of
+   * a multi-document YAML file. Each document is parsed and handed to the consumer before the next
+   * one is read, so that only one document is held in memory at a time. Empty documents are
+   * skipped.
+   *
+   * @param reader the reader to parse the content with
+   * @param fileData the file data to read
+   * @param consumer the consumer receiving each document
+   * @throws IOException if the content cannot be read or parsed
+   * @see #readContentMap(ObjectReader, FileData)
+   */
+  public static void readContentMaps(
+      ObjectReader reader, FileData fileData, InputFileHandler.DocumentConsumer consumer)
+      throws IOException {
+    try (JsonParser parser = createParser(reader, fileData)) {
+      while (parser.nextToken() != null) {
+        // An empty document is read as a null root value
+        if (parser.currentToken() != JsonToken.VALUE_NULL) {
+          consumer.accept(reader.readValue(parser));
+        }
+      }
+    }
+  }
+
+  private static JsonParser createParser(ObjectReader reader, FileData fileData)
+      throws IOException {
+    if (fileData.isUtf8()) {
+      ByteBuffer bytes = fileData.getBytes();
+      if (bytes != null && bytes.hasArray()) {
+        return reader.createParser(
+            bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+      }
+      // The parser closes the stream along with itself
+      return reader.createParser(fileData.openStream());
+    }
+    return reader.createParser(fileData.openReader());
+  }
+}
@@ -0,0 +1,140 @@
+package com.lsadf.yaproc.util;
+
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Registry of the Jackson readers and writers of {@link ContentMap}, shared by every handler of the
+ * process: commands, batch jobs and daemon requests all reuse the same instances, so that the
+ * mappers are configured, and their serializers and deserializers looked up, only once.
+ *
+ * <p>Only {@link ObjectReader} and {@link ObjectWriter} instances are handed out: unlike mappers,
+ * they are immutable, hence safe to share between threads. The mappers of a format are created the
+ * first time one of its readers or writers is requested, so that the YAML stack is never loaded by
+ * a run that does not read or write YAML.
+ *
+ * <p>Outputs written through the writers are never closed by them, the callers owning their
+ * streams.
+ */
+@UtilityClass
+public class MapperRegistry {
+
+  /**
+   * Gets the reader parsing content of the given format into a {@link ContentMap}.
+   *
+   * @param format the format of the content
+   * @return the shared reader of the format
+   * @throws UnsupportedFileFormatException if the format is not read through Jackson
+   */
+  public static ObjectReader getReader(FileFormat format) {
+    switch (format) {
+      case JSON:
+      case NDJSON:
+        return JsonMappers.READER;
+      case YAML:
+        return YamlMappers.READER;
+      default:
+        throw new UnsupportedFileFormatException("No Jackson reader for format: " + format);
+    }
+  }
+
+  /**
+   * Gets the writer serializing a {@link ContentMap} in the given format.
+   *
+   * @param format the format of the content
+   * @return the shared writer of the format
+   * @throws UnsupportedFileFormatException if the format is not written through Jackson
+   */
+  public static ObjectWriter getWriter(FileFormat format) {
+    switch (format) {
+      case JSON:
+      case NDJSON:
+        return JsonMappers.WRITER;
+      case YAML:
+        return YamlMappers.WRITER;
+      default:
+        throw new UnsupportedFileFormatException("No Jackson writer for format: " + format);
+    }
+  }
+
+  /**
+   * Warms up the readers and writers of every Jackson-backed format. See {@link
+   * #warmUp(FileFormat...)}.
+   */
+  public static void warmUp() {
+    warmUp(FileFormat.JSON, FileFormat.YAML);
+  }
+
+  /**
+   * Warms up the readers and writers of the given formats, by writing and reading back a document
+   * holding every kind of value a converted file may hold. The serializers and deserializers are
+   * then cached by the mappers, and the first conversion does not pay for their lookup. Formats
+   * not backed by Jackson are ignored.
+   *
+   * @param formats the formats to warm up
+   */
+  public static void warmUp(FileFormat... formats) {
+    for (FileFormat format : formats) {
+      if (format != FileFormat.JSON && format != FileFormat.NDJSON && format != FileFormat.YAML) {
+        continue;
+      }
+      try {
+        byte[] bytes = getWriter(format).writeValueAsBytes(createWarmUpDocument());
+        getReader(format).readValue(bytes);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to warm up the " + format + " mappers", e);
+      }
+    }
+  }
+
+  private static ContentMap createWarmUpDocument() {
+    ContentMap nested = new ContentMap();
+    nested.put("boolean", true);
+    nested.put("null", null);
+    nested.put("list", List.of("string", 1, 1.5));
+    ContentMap document = new ContentMap();
+    document.put("string", "value");
+    document.put("integer", 1);
+    document.put("long", Long.MAX_VALUE);
+    document.put("double", 0.5);
+    document.put("map", Map.of("key", "value"));
+    document.put("nested", nested);
+    return document;
+  }
+
+  private static ObjectReader createReader(ObjectMapper mapper) {
+    return mapper.readerFor(ContentMap.class);
+  }
+
+  private static ObjectWriter createWriter(ObjectMapper mapper) {
+    return mapper.writerFor(ContentMap.class);
+  }
+
+  /** The JSON mappers, created on first use by the class loading mechanism. */
+  private static final class JsonMappers {
+    private static final ObjectMapper MAPPER =
+        JsonMapper.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+    private static final ObjectReader READER = createReader(MAPPER);
+    private static final ObjectWriter WRITER = createWriter(MAPPER);
+  }
+
+  /** The YAML mappers, created on first use by the class loading mechanism. */
+  private static final class YamlMappers {
+    private static final ObjectMapper MAPPER =
+        YAMLMapper.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+    private static final ObjectReader READER = createReader(MAPPER);
+    private static final ObjectWriter WRITER = createWriter(MAPPER);
+  }
+}
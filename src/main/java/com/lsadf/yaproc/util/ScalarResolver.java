@@ -0,0 +1,107 @@
+package com.lsadf.yaproc.util;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts the values of a format holding nothing but strings, such as properties, into typed
+ * values. The default resolver infers longs and booleans; inference can be widened, turned off, or
+ * replaced for some keys by type hints.
+ */
+@FunctionalInterface
+public interface ScalarResolver {
+
+  /** The resolver keeping every value as a string. */
+  ScalarResolver NONE = inferring(Inference.NONE);
+
+  /** The resolver converting longs and booleans, the historical behavior. */
+  ScalarResolver DEFAULT = inferring(Inference.DEFAULT);
+
+  /**
+   * Converts a value.
+   *
+   * @param key the key of the value
+   * @param value the value, as read
+   * @return the typed value, which may be {@code null}
+   */
+  Object resolve(String key, String value);
+
+  /**
+   * Creates a resolver inferring the types of the given inference level.
+   *
+   * @param inference the types to infer
+   * @return a resolver inferring the types regardless of the keys
+   */
+  static ScalarResolver inferring(Inference inference) {
+    Set<ScalarType> types = inference.getTypes();
+    return (key, value) -> ClassUtils.toScalar(value, types);
+  }
+
+  /**
+   * Creates a resolver giving the values of some keys a type of their own, the other keys being
+   * resolved by this resolver. A value that does not match the type of its key is kept as a
+   * string.
+   *
+   * @param hints the types by key; a key ending with {@code *} matches every key starting with
+   *     the characters before it, the longest match winning
+   * @return a resolver following the hints, or this resolver if there are none
+   */
+  default ScalarResolver withHints(Map<String, ScalarType> hints) {
+    if (hints.isEmpty()) {
+      return this;
+    }
+    Map<String, Set<ScalarType>> exact = new HashMap<>();
+    List<Map.Entry<String, Set<ScalarType>>> prefixes = new ArrayList<>();
+    hints.forEach(
+        (key, type) -> {
+          Set<ScalarType> types = EnumSet.of(type);
+          if (key.endsWith("*")) {
+            prefixes.add(Map.entry(key.substring(0, key.length() - 1), types));
+          } else {
+            exact.put(key, types);
+          }
+        });
+    prefixes.sort((a, b) -> b.getKey().length() - a.getKey().length());
+    return (key, value) -> {
+      Set<ScalarType> types = exact.get(key);
+      if (types == null) {
+        for (Map.Entry<String, Set<ScalarType>> prefix : prefixes) {
+          if (key.startsWith(prefix.getKey())) {
+            types = prefix.getValue();
+            break;
+          }
+        }
+      }
+      return types == null ? resolve(key, value) : ClassUtils.toScalar(value, types);
+    };
+  }
+
+  /** The levels of type inference. */
+  enum Inference {
+    /** Every value is kept as a string. */
+    NONE(EnumSet.noneOf(ScalarType.class)),
+    /** Longs and booleans are converted. */
+    DEFAULT(EnumSet.of(ScalarType.LONG, ScalarType.BOOLEAN)),
+    /** Longs, doubles, booleans and {@code null} are converted. */
+    ALL(EnumSet.of(ScalarType.LONG, ScalarType.DOUBLE, ScalarType.BOOLEAN, ScalarType.NULL));
+
+    private final Set<ScalarType> types;
+
+    Inference(Set<ScalarType> types) {
+      this.types = types;
+    }
+
+    /**
+     * Gets the types inferred at this level.
+     *
+     * @return the inferred types, {@link ScalarType#STRING} being implied
+     */
+    public Set<ScalarType> getTypes() {
+      return EnumSet.copyOf(types);
+    }
+  }
+}
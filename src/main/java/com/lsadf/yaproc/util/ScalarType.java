@@ -0,0 +1,19 @@
+package com.lsadf.yaproc.util;
+
+/**
+ * The types a scalar read as a string, such as a value of a properties file, may be converted to.
+ *
+ * @see ClassUtils#toScalar(String, java.util.Set)
+ */
+public enum ScalarType {
+  /** The value is kept as it is. */
+  STRING,
+  /** A decimal integer within the range of a {@code long}, such as {@code -42}. */
+  LONG,
+  /** A decimal number with a fraction or an exponent, such as {@code 4.5} or {@code 1.23E2}. */
+  DOUBLE,
+  /** {@code true} or {@code false}, in any case. */
+  BOOLEAN,
+  /** The {@code null} literal. */
+  NULL
+}
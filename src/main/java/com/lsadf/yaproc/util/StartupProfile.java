@@ -0,0 +1,131 @@
+package com.lsadf.yaproc.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+import org.slf4j.Logger;
+
+/**
+ * Utility class recording where the start-up time of an invocation goes: from the JVM start to
+ * {@code main}, from {@code main} to the command, and the initialization of every file handler, so
+ * that the formats a run loaded can be told apart from the ones it never touched.
+ *
+ * <p>The steps are recorded process-wide, and {@link #log(Logger)} drains them. An invocation
+ * logging its breakdown therefore only reports the initializations that happened since the
+ * previous one, which is what a daemon or a watch run, reusing its warm handlers, should report.
+ * The steps measured from {@code main} are only reported once, by the first run of the process.
+ */
+@UtilityClass
+public class StartupProfile {
+  private static final Queue<Step> STEPS = new ConcurrentLinkedQueue<>();
+  private static volatile long mainNanos;
+  private static volatile long mainMillis;
+
+  /** Marks the entry of {@code main}, the origin of the following steps. */
+  public static void markMain() {
+    mainNanos = System.nanoTime();
+    mainMillis = System.currentTimeMillis();
+  }
+
+  /**
+   * Records the time elapsed since {@code main} was entered, typically the building of the command
+   * line model and the parsing of the arguments. Nothing is recorded when {@code main} was not
+   * marked, as for a command run by a daemon.
+   *
+   * @param name the name of the step
+   */
+  public static void markSinceMain(String name) {
+    long start = mainNanos;
+    if (start != 0) {
+      STEPS.add(new Step(name, System.nanoTime() - start, false));
+    }
+  }
+
+  /**
+   * Runs an initialization step, recording its duration.
+   *
+   * @param name the name of the step, such as the format and the direction of a handler
+   * @param initializer the step to run
+   * @param <T> the type of the initialized object
+   * @return the initialized object
+   */
+  public static <T> T time(String name, Supplier<T> initializer) {
+    long start = System.nanoTime();
+    T result = initializer.get();
+    STEPS.add(new Step(name, System.nanoTime() - start, true));
+    return result;
+  }
+
+  /**
+   * Logs the recorded steps at debug level, then forgets them. The steps are drained even when
+   * debug logging is disabled, so that a long-running process does not accumulate them.
+   *
+   * @param logger the logger of the command
+   */
+  public static void log(Logger logger) {
+    long main = mainNanos;
+    long mainWall = mainMillis;
+    mainNanos = 0;
+    mainMillis = 0;
+    List<Step> steps = new ArrayList<>();
+    for (Step step = STEPS.poll(); step != null; step = STEPS.poll()) {
+      steps.add(step);
+    }
+    if (!logger.isDebugEnabled()) {
+      return;
+    }
+
+    logger.debug("Start-up breakdown:");
+    getJvmStartToMain(mainWall)
+        .ifPresent(millis -> logger.debug("  JVM start to main: {} ms", millis));
+    List<String> initialized = new ArrayList<>();
+    for (Step step : steps) {
+      logger.debug("  {}: {} ms", step.getName(), toMillis(step.getNanos()));
+      if (step.isInitialization()) {
+        initialized.add(step.getName());
+      }
+    }
+    if (main != 0) {
+      logger.debug("  main to end of run: {} ms", toMillis(System.nanoTime() - main));
+    }
+    logger.debug("Initialized in this run: {}", initialized.isEmpty() ? "nothing" : initialized);
+  }
+
+  /**
+   * Computes the time from the JVM start to {@code main}. The start time of the JVM comes from the
+   * {@code java.management} module, which the trimmed runtime of the distribution does not ship:
+   * the step is then left out. The start time of the process is no substitute, since the operating
+   * system may only give it to the second.
+   */
+  private static Optional<Long> getJvmStartToMain(long main) {
+    if (main == 0) {
+      return Optional.empty();
+    }
+    try {
+      long start = ManagementFactory.getRuntimeMXBean().getStartTime();
+      return Optional.of(main - start).filter(millis -> millis >= 0);
+    } catch (LinkageError e) {
+      return Optional.empty();
+    }
+  }
+
+  private static String toMillis(long nanos) {
+    return String.format(Locale.ROOT, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  /** A recorded step. */
+  @Value
+  private static class Step {
+    String name;
+    long nanos;
+    boolean initialization;
+  }
+}
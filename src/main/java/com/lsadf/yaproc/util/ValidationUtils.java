@@ -12,8 +12,9 @@ import lombok.experimental.UtilityClass;
 public class ValidationUtils {
 
   /**
-   * Validates the given file format against a predefined list of supported file extensions. If the
-   * file format is not supported, an {@code UnsupportedFileFormatException} is thrown.
+   * Validates the given file format against the supported file extensions, matched
+   * case-insensitively. If the file format is not supported, an {@code
+   * UnsupportedFileFormatException} is thrown.
    *
    * @param fileFormat the file format to validate; typically represented as a string such as
    *     "json", "yaml", or "properties"
@@ -21,7 +22,7 @@ public class ValidationUtils {
    *     of valid extensions
    */
   public static void validateFileFormat(String fileFormat) {
-    if (!FileFormat.getValidExtensions().contains(fileFormat)) {
+    if (FileFormat.findByExtension(fileFormat).isEmpty()) {
       throw new UnsupportedFileFormatException("Unsupported file format: " + fileFormat);
     }
   }
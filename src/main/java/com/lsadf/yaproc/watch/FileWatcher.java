@@ -0,0 +1,194 @@
+package com.lsadf.yaproc.watch;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches files and directory trees for changes through a {@link WatchService}, and reports them in
+ * debounced batches.
+ *
+ * <p>Editors often fire several events for a single save (truncate, write, rename, attribute
+ * change). Once a first change is seen, the watcher keeps collecting events until no new one
+ * arrives for the debounce delay, and reports every changed path once.
+ *
+ * <p>Single files are watched through their parent directory, and only the events on the watched
+ * files are reported. Directory trees are watched recursively, including the directories created
+ * after the watch started.
+ */
+public class FileWatcher implements Closeable {
+  private final WatchService watchService;
+  private final Duration debounce;
+  private final Map<WatchKey, Path> directories = new HashMap<>();
+  private final Set<Path> files = new HashSet<>();
+  private final Set<Path> trees = new HashSet<>();
+  private final Set<Path> ignored = new HashSet<>();
+
+  /**
+   * Creates a watcher reporting changes once no event was received for the given delay.
+   *
+   * @param debounce the quiet period closing a batch of changes
+   * @throws IOException if the watch service cannot be created
+   */
+  public FileWatcher(Duration debounce) throws IOException {
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.debounce = debounce;
+  }
+
+  /**
+   * Watches a single file. The file does not need to exist yet.
+   *
+   * @param file the file to watch
+   * @throws IOException if the parent directory of the file cannot be watched
+   */
+  public void watchFile(Path file) throws IOException {
+    Path path = normalize(file);
+    files.add(path);
+    register(path.getParent());
+  }
+
+  /**
+   * Watches every file of a directory tree.
+   *
+   * @param directory the root of the tree to watch
+   * @throws IOException if a directory of the tree cannot be watched
+   */
+  public void watchDirectory(Path directory) throws IOException {
+    Path root = normalize(directory);
+    trees.add(root);
+    registerTree(root);
+  }
+
+  /**
+   * Ignores the changes in the given file or tree, for instance an output directory nested in a
+   * watched input directory.
+   *
+   * @param path the file or root of the tree to ignore
+   */
+  public void ignore(Path path) {
+    ignored.add(normalize(path));
+  }
+
+  /**
+   * Waits for the next batch of changes.
+   *
+   * @return the paths that changed, in the order they were first seen
+   * @throws InterruptedException if the thread is interrupted while waiting
+   * @throws IOException if a new directory cannot be watched
+   */
+  public Set<Path> awaitChanges() throws InterruptedException, IOException {
+    Set<Path> changes = new LinkedHashSet<>();
+    while (changes.isEmpty()) {
+      collect(watchService.take(), changes);
+    }
+    return debounce(changes);
+  }
+
+  /**
+   * Waits for the next batch of changes, for at most the given time.
+   *
+   * @param timeout the maximum time to wait for a first change
+   * @return the paths that changed, or an empty set if nothing changed in time
+   * @throws InterruptedException if the thread is interrupted while waiting
+   * @throws IOException if a new directory cannot be watched
+   */
+  public Set<Path> awaitChanges(Duration timeout) throws InterruptedException, IOException {
+    Set<Path> changes = new LinkedHashSet<>();
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (changes.isEmpty()) {
+      long remaining = deadline - System.nanoTime();
+      WatchKey key = remaining > 0 ? watchService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+      if (key == null) {
+        return changes;
+      }
+      collect(key, changes);
+    }
+    return debounce(changes);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  private Set<Path> debounce(Set<Path> changes) throws InterruptedException, IOException {
+    WatchKey key;
+    while ((key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+      collect(key, changes);
+    }
+    return changes;
+  }
+
+  private void collect(WatchKey key, Set<Path> changes) throws IOException {
+    Path directory = directories.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        // Events were lost: report everything that is watched
+        changes.addAll(files);
+        changes.addAll(trees);
+        continue;
+      }
+      if (directory == null) {
+        continue;
+      }
+      Path path = directory.resolve((Path) event.context());
+      if (!isWatched(path)) {
+        continue;
+      }
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+        registerTree(path);
+      }
+      changes.add(path);
+    }
+    if (!key.reset()) {
+      directories.remove(key);
+    }
+  }
+
+  private boolean isWatched(Path path) {
+    if (ignored.stream().anyMatch(path::startsWith)) {
+      return false;
+    }
+    return files.contains(path) || trees.stream().anyMatch(path::startsWith);
+  }
+
+  private void registerTree(Path root) throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path directory : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+        if (!ignored.contains(directory)) {
+          register(directory);
+        }
+      }
+    }
+  }
+
+  private void register(Path directory) throws IOException {
+    if (!directories.containsValue(directory)) {
+      WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+      directories.put(key, directory);
+    }
+  }
+
+  private static Path normalize(Path path) {
+    return path.toAbsolutePath().normalize();
+  }
+}
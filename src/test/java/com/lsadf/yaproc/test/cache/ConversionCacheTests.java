@@ -0,0 +1,109 @@
+package com.lsadf.yaproc.test.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.cache.ConversionCache;
+import com.lsadf.yaproc.file.FileFormat;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link ConversionCache} that verifies outputs are only considered up to date when
+ * neither their input, their options nor themselves changed.
+ */
+class ConversionCacheTests {
+  private static final String OPTIONS = "from=YAML";
+
+  @TempDir Path tempDir;
+
+  private File input;
+  private File output;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    input = Files.writeString(tempDir.resolve("input.yaml"), "key: value\n").toFile();
+    Files.createDirectories(tempDir.resolve("out"));
+    output = Files.writeString(tempDir.resolve("out/output.json"), "{}").toFile();
+  }
+
+  /** Tests that a recorded conversion is up to date once the manifest is saved and reloaded. */
+  @Test
+  void shouldSkipRecordedConversion() throws IOException {
+    // Given
+    ConversionCache cache = ConversionCache.forOutput(output);
+    assertThat(cache.isUpToDate(input, output, FileFormat.JSON, OPTIONS)).isFalse();
+
+    // When
+    cache.record(input, output, FileFormat.JSON, OPTIONS);
+    cache.save();
+
+    // Then
+    assertThat(tempDir.resolve("out").resolve(ConversionCache.MANIFEST_NAME)).exists();
+    ConversionCache reloaded = ConversionCache.forOutput(output);
+    assertThat(reloaded.isUpToDate(input, output, FileFormat.JSON, OPTIONS)).isTrue();
+    assertThat(reloaded.isUpToDate(input, output, FileFormat.YAML, OPTIONS)).isFalse();
+    assertThat(reloaded.isUpToDate(input, output, FileFormat.JSON, "from=JSON")).isFalse();
+  }
+
+  /** Tests that a touched input with the same content is still up to date. */
+  @Test
+  void shouldCompareChecksumWhenOnlyModificationTimeChanged() throws IOException {
+    // Given
+    ConversionCache cache = ConversionCache.forOutput(output);
+    cache.record(input, output, FileFormat.JSON, OPTIONS);
+
+    // When
+    Files.setLastModifiedTime(input.toPath(), FileTime.fromMillis(input.lastModified() + 60_000));
+
+    // Then
+    assertThat(cache.isUpToDate(input, output, FileFormat.JSON, OPTIONS)).isTrue();
+  }
+
+  /** Tests that the modification time of a touched input is saved once its checksum matched. */
+  @Test
+  void shouldSaveRefreshedModificationTime() throws IOException {
+    // Given
+    ConversionCache cache = ConversionCache.forOutput(output);
+    cache.record(input, output, FileFormat.JSON, OPTIONS);
+    cache.save();
+    long touched = input.lastModified() + 60_000;
+    Files.setLastModifiedTime(input.toPath(), FileTime.fromMillis(touched));
+
+    // When
+    ConversionCache reloaded = ConversionCache.forOutput(output);
+    assertThat(reloaded.isUpToDate(input, output, FileFormat.JSON, OPTIONS)).isTrue();
+    reloaded.save();
+
+    // Then
+    Path manifest = tempDir.resolve("out").resolve(ConversionCache.MANIFEST_NAME);
+    assertThat(Files.readString(manifest)).contains("\"inputModified\" : " + touched);
+  }
+
+  /** Tests that a change of the input content or of the output invalidates the conversion. */
+  @Test
+  void shouldDetectChangedInputOrOutput() throws IOException {
+    // Given
+    ConversionCache cache = ConversionCache.forOutput(output);
+    cache.record(input, output, FileFormat.JSON, OPTIONS);
+
+    // When: same size, different content
+    Files.writeString(input.toPath(), "key: other\n");
+    Files.setLastModifiedTime(input.toPath(), FileTime.fromMillis(input.lastModified() + 60_000));
+
+    // Then
+    assertThat(cache.isUpToDate(input, output, FileFormat.JSON, OPTIONS)).isFalse();
+
+    // When: the output is deleted
+    cache.record(input, output, FileFormat.JSON, OPTIONS);
+    Files.delete(output.toPath());
+
+    // Then
+    assertThat(cache.isUpToDate(input, output, FileFormat.JSON, OPTIONS)).isFalse();
+  }
+}
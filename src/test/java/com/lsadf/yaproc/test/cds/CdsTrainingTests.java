@@ -0,0 +1,31 @@
+package com.lsadf.yaproc.test.cds;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.cds.CdsTraining;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link CdsTraining} that verifies the training workload run by the build succeeds,
+ * so that a change of the commands cannot silently break the class data sharing archive.
+ */
+class CdsTrainingTests {
+  @TempDir Path tempDir;
+
+  /** Tests that every training invocation succeeds and writes its output. */
+  @Test
+  void shouldRunEveryTrainingInvocation() throws IOException {
+    // When
+    CdsTraining.train(tempDir);
+
+    // Then
+    assertThat(tempDir.resolve("out/yaml.json")).exists();
+    assertThat(tempDir.resolve("out/properties.yaml.gz")).exists();
+    assertThat(tempDir.resolve("out/yaml.ndjson")).exists();
+    assertThat(tempDir.resolve("out/concat.json")).exists();
+    assertThat(tempDir.resolve("batch/properties/test.yml")).exists();
+  }
+}
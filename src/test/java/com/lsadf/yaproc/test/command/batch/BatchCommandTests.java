@@ -0,0 +1,141 @@
+package com.lsadf.yaproc.test.command.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.stefanbirkner.systemlambda.SystemLambda;
+import com.lsadf.yaproc.YaprocApplication;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+/**
+ * Test class for the batch command, verifying that a directory tree is converted into a mirrored
+ * output tree.
+ */
+class BatchCommandTests {
+
+  private static final String BATCH = "batch";
+
+  @TempDir Path tempDir;
+
+  /** Tests that every supported file is converted, keeping the layout of the input tree. */
+  @Test
+  void testBatchCommandMirrorsInputTree() throws Exception {
+    // Given
+    Path input = tempDir.resolve("in");
+    Files.createDirectories(input.resolve("nested/deeper"));
+    Files.writeString(input.resolve("root.yaml"), "key: value\n");
+    Files.writeString(input.resolve("nested/app.properties"), "port=8080\n");
+    Files.writeString(input.resolve("nested/deeper/data.json"), "{\"a\": [1, 2]}");
+    Files.writeString(input.resolve("nested/readme.txt"), "not converted");
+    Path output = tempDir.resolve("out");
+
+    // When
+    int status =
+        SystemLambda.catchSystemExit(
+            () ->
+                YaprocApplication.main(
+                    new String[] {
+                      BATCH, input.toString(), output.toString(), "--to", "json", "--threads", "2"
+                    }));
+
+    // Then
+    assertThat(status).isZero();
+    ObjectMapper mapper = new ObjectMapper();
+    assertThat(mapper.readValue(output.resolve("root.json").toFile(), Map.class))
+        .containsEntry("key", "value");
+    assertThat(mapper.readValue(output.resolve("nested/app.json").toFile(), Map.class))
+        .containsEntry("port", 8080);
+    assertThat(output.resolve("nested/deeper/data.json")).exists();
+    assertThat(output.resolve("nested/readme.json")).doesNotExist();
+  }
+
+  /** Tests that a file failing to convert does not prevent the others from being converted. */
+  @Test
+  void testBatchCommandReportsFailures() throws Exception {
+    // Given
+    Path input = tempDir.resolve("in");
+    Files.createDirectories(input);
+    Files.writeString(input.resolve("valid.json"), "{\"key\": \"value\"}");
+    Files.writeString(input.resolve("broken.json"), "{\"key\": ");
+    Path output = tempDir.resolve("out");
+
+    // When
+    int status =
+        SystemLambda.catchSystemExit(
+            () ->
+                YaprocApplication.main(
+                    new String[] {BATCH, input.toString(), output.toString(), "--to", "yaml"}));
+
+    // Then
+    assertThat(status).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+    assertThat(output.resolve("valid.yml")).exists();
+    assertThat(output.resolve("broken.yml")).doesNotExist();
+  }
+
+  /** Tests that files converted to the same output file are reported before any conversion. */
+  @Test
+  void testBatchCommandWithConflictingOutputs() throws Exception {
+    // Given
+    Path input = tempDir.resolve("in");
+    Files.createDirectories(input);
+    Files.writeString(input.resolve("app.json"), "{\"key\": \"json\"}");
+    Files.writeString(input.resolve("app.yaml"), "key: yaml\n");
+    Files.writeString(input.resolve("other.yaml"), "key: other\n");
+    Path output = tempDir.resolve("out");
+
+    // When
+    int status =
+        SystemLambda.catchSystemExit(
+            () ->
+                YaprocApplication.main(
+                    new String[] {BATCH, input.toString(), output.toString(), "--to", "json"}));
+
+    // Then
+    assertThat(status).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+    assertThat(output.resolve("app.json")).doesNotExist();
+    assertThat(output.resolve("other.json")).doesNotExist();
+  }
+
+  /** Tests that the target format is mandatory. */
+  @Test
+  void testBatchCommandWithoutTargetFormat() throws Exception {
+    int status =
+        SystemLambda.catchSystemExit(
+            () ->
+                YaprocApplication.main(
+                    new String[] {BATCH, tempDir.toString(), tempDir.resolve("out").toString()}));
+
+    assertThat(status).isEqualTo(CommandLine.ExitCode.USAGE);
+  }
+
+  /** Tests that a second run with the cache enabled leaves up-to-date outputs untouched. */
+  @Test
+  void testBatchCommandWithCacheSkipsUpToDateFiles() throws Exception {
+    // Given
+    Path input = tempDir.resolve("in");
+    Files.createDirectories(input);
+    Files.writeString(input.resolve("a.yaml"), "key: a\n");
+    Files.writeString(input.resolve("b.yaml"), "key: b\n");
+    Path output = tempDir.resolve("out");
+    String[] args = {BATCH, input.toString(), output.toString(), "--to", "json", "--cache"};
+    assertThat(SystemLambda.catchSystemExit(() -> YaprocApplication.main(args))).isZero();
+    assertThat(output.resolve(".yaproc-cache")).exists();
+
+    // When: without --force, a second run only succeeds if every file is skipped
+    Files.writeString(input.resolve("b.yaml"), "key: c\n");
+    int skippedStatus = SystemLambda.catchSystemExit(() -> YaprocApplication.main(args));
+
+    // Then: b.yaml changed, so it is converted again and fails on its existing output
+    assertThat(skippedStatus).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+    Files.writeString(input.resolve("b.yaml"), "key: b\n");
+    Files.setLastModifiedTime(
+        input.resolve("b.yaml"), Files.getLastModifiedTime(input.resolve("a.yaml")));
+    // Same content again: the checksum matches even though the modification time changed
+    assertThat(SystemLambda.catchSystemExit(() -> YaprocApplication.main(args))).isZero();
+  }
+}
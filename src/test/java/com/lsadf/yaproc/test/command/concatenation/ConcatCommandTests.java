@@ -5,6 +5,11 @@ import com.lsadf.yaproc.YaprocApplication;
 import org.junit.jupiter.api.Test;
 import picocli.CommandLine;
 
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 class ConcatCommandTests {
@@ -123,4 +128,54 @@ class ConcatCommandTests {
         assertThat(status).isZero();
     }
 
+    /**
+     * Tests that concatenated properties files are written as properties, and not dropped by a
+     * handler of another format.
+     * Expected to write every key of the inputs to the output.
+     */
+    @Test
+    void testConcatCommandWritesPropertiesOutput() throws Exception {
+        Path output = Path.of("target/test-data/outputs/concatenated_written.properties");
+
+        int status = SystemLambda.catchSystemExit(() -> {
+            YaprocApplication.main(new String[]{
+                    "concat",
+                    output.toString(),
+                    "target/test-data/inputs/test1.properties",
+                    "target/test-data/inputs/test2.properties",
+                    "-f"
+            });
+        });
+
+        assertThat(status).isZero();
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(output)) {
+            properties.load(reader);
+        }
+        assertThat(properties.getProperty("TEST1")).isEqualTo("test1");
+        assertThat(properties.getProperty("toto")).isEqualTo("TOIHZIJD");
+        assertThat(properties.getProperty("MONEY")).isEqualTo("542");
+    }
+
+    /**
+     * Tests that the options reading properties inputs are not options of the concat command.
+     * Expected to exit with a usage error code.
+     */
+    @Test
+    void testConcatCommandWithPropertiesOptions() throws Exception {
+        int status = SystemLambda.catchSystemExit(() -> {
+            YaprocApplication.main(new String[]{
+                    "concat",
+                    "target/test-data/outputs/concatenated_inferred.properties",
+                    "target/test-data/inputs/test1.properties",
+                    "target/test-data/inputs/test2.properties",
+                    "--infer",
+                    "all",
+                    "-f"
+            });
+        });
+
+        assertThat(status).isEqualTo(CommandLine.ExitCode.USAGE);
+    }
+
 }
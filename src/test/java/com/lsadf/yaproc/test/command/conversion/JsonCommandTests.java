@@ -2,13 +2,20 @@ package com.lsadf.yaproc.test.command.conversion;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.stefanbirkner.systemlambda.SystemLambda;
 import com.lsadf.yaproc.YaprocApplication;
 import com.lsadf.yaproc.util.TestUtils;
+import java.io.File;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import picocli.CommandLine;
 
 class JsonCommandTests {
@@ -72,6 +79,20 @@ class JsonCommandTests {
     assertThat(Files.exists(Paths.get("target/test-data/outputs"))).isFalse();
   }
 
+  @Test
+  void testJsonCommandWithNonPositiveBufferSize() throws Exception {
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {JSON, "--buffer-size", "0", "test.properties", "test.json"});
+            });
+
+    assertThat(status).isEqualTo(CommandLine.ExitCode.USAGE);
+    // Verify no output was created
+    assertThat(Files.exists(Paths.get("target/test-data/outputs"))).isFalse();
+  }
+
   @Test
   void testJsonCommandWithInvalidInputFile() throws Exception {
     String inputPath = "target/test-data/nonexisting.properties";
@@ -127,4 +148,143 @@ class JsonCommandTests {
     // Verify that no output file was created due to the error
     assertThat(Files.exists(Paths.get(outputPath))).isFalse();
   }
+
+  /**
+   * Tests the JSON command's streaming mode when converting a YAML file. This test verifies that
+   * the tokens are copied to the JSON output without going through a content map.
+   *
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testJsonCommandWithStreamingYamlInput() throws Exception {
+    String outputPath = "target/test-data/outputs/test_stream_output.json";
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {
+                    JSON, "target/test-data/inputs/complex/complex.yaml", outputPath, "--stream"
+                  });
+            });
+
+    assertThat(status).isZero();
+    Map<String, Object> content = new ObjectMapper().readValue(new File(outputPath), Map.class);
+    Map<String, Object> app = (Map<String, Object>) content.get("app");
+    assertThat(app.get("name")).isEqualTo("TestApp");
+    assertThat(app.get("text")).isEqualTo("multiple\nlines here\n");
+  }
+
+  /**
+   * Tests the JSON command's multi-document mode, with and without parallel parsing. This test
+   * verifies that every YAML document is converted into an element of a JSON array, in order.
+   *
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testJsonCommandWithMultiDocumentYamlInput() throws Exception {
+    for (String mode : new String[] {"--multi-document", "--parallel"}) {
+      String outputPath = "target/test-data/outputs/test_multi_output" + mode + ".json";
+
+      int status =
+          SystemLambda.catchSystemExit(
+              () -> {
+                YaprocApplication.main(
+                    new String[] {
+                      JSON, "target/test-data/inputs/multi/multi.yaml", outputPath, mode
+                    });
+              });
+
+      assertThat(status).isZero();
+      List<Map<String, Object>> documents =
+          new ObjectMapper().readValue(new File(outputPath), List.class);
+      assertThat(documents.size()).isEqualTo(3);
+      assertThat(documents.get(1).get("server")).isEqualTo(Map.of("port", 8081));
+      assertThat(documents.get(2).get("server")).isEqualTo(Map.of("port", 80));
+    }
+  }
+
+  /**
+   * Tests the JSON command with an input without extension. This test verifies that the format of
+   * the input is detected from its content instead of being rejected.
+   *
+   * @param tempDir the directory holding the input
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testJsonCommandWithExtensionlessYamlInput(@TempDir Path tempDir) throws Exception {
+    Path inputPath = tempDir.resolve("upload-7f3a");
+    Files.copy(Paths.get("target/test-data/inputs/complex/complex.yaml"), inputPath);
+    String outputPath = "target/test-data/outputs/test_detected_output.json";
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(new String[] {JSON, inputPath.toString(), outputPath});
+            });
+
+    assertThat(status).isZero();
+    Map<String, Object> content = new ObjectMapper().readValue(new File(outputPath), Map.class);
+    Map<String, Object> app = (Map<String, Object>) content.get("app");
+    assertThat(app.get("name")).isEqualTo("TestApp");
+  }
+
+  /**
+   * Tests the JSON command's typing options when converting a properties file. This test verifies
+   * that every scalar type is inferred with --infer all, and that --type overrides the inference.
+   *
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testJsonCommandWithTypedPropertiesInput() throws Exception {
+    String outputPath = "target/test-data/outputs/test_typed_output.json";
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {
+                    JSON,
+                    "target/test-data/inputs/complex/complex.properties",
+                    outputPath,
+                    "--infer",
+                    "all",
+                    "--type",
+                    "db.pool.*=string"
+                  });
+            });
+
+    assertThat(status).isZero();
+    Map<String, Object> content = new ObjectMapper().readValue(new File(outputPath), Map.class);
+    assertThat(content.get("app.port")).isEqualTo(8080);
+    assertThat(content.get("app.enabled")).isEqualTo(true);
+    assertThat(content.get("db.pool.size")).isEqualTo("5");
+  }
+
+  /**
+   * Tests the JSON command's nesting option when converting a properties file. This test verifies
+   * that the dotted keys are written as nested objects.
+   *
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testJsonCommandWithNestedPropertiesInput() throws Exception {
+    String outputPath = "target/test-data/outputs/test_nested_output.json";
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {
+                    JSON, "target/test-data/inputs/complex/complex.properties", outputPath, "--nest"
+                  });
+            });
+
+    assertThat(status).isZero();
+    Map<String, Object> content = new ObjectMapper().readValue(new File(outputPath), Map.class);
+    assertThat(content.keySet()).isEqualTo(Set.of("app", "db", "features", "text", "special"));
+    Map<String, Object> db = (Map<String, Object>) content.get("db");
+    assertThat(db.get("pool")).isEqualTo(Map.of("size", 5));
+    assertThat(db.get("url")).isEqualTo("jdbc:postgresql://localhost:5432/testdb");
+  }
 }
@@ -0,0 +1,86 @@
+package com.lsadf.yaproc.test.command.conversion;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.github.stefanbirkner.systemlambda.SystemLambda;
+import com.lsadf.yaproc.YaprocApplication;
+import com.lsadf.yaproc.util.TestUtils;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NdjsonCommandTests {
+
+  private static final String NDJSON = "ndjson";
+
+  /**
+   * Cleans the default output directory before each test execution, so that no output of a
+   * previous test is mistaken for the output of the current one.
+   */
+  @BeforeEach
+  void cleanOutputDirectory() {
+    TestUtils.cleanDefaultOutputDirectory();
+  }
+
+  /**
+   * Tests the NDJSON command with a multi-document YAML input. This test verifies that every YAML
+   * document becomes a record line, in order, without the multi-document option being required.
+   *
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testNdjsonCommandWithMultiDocumentYamlInput() throws Exception {
+    String outputPath = "target/test-data/outputs/test_output.ndjson";
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {
+                    NDJSON, "target/test-data/inputs/multi/multi.yaml", outputPath, "--parallel"
+                  });
+            });
+
+    assertThat(status).isZero();
+    List<String> lines = Files.readAllLines(Path.of(outputPath));
+    assertThat(lines.size()).isEqualTo(3);
+    Map<String, Object> record = new ObjectMapper().readValue(lines.get(1), Map.class);
+    assertThat(record.get("server")).isEqualTo(Map.of("port", 8081));
+  }
+
+  /**
+   * Tests the YAML command with an NDJSON input. This test verifies that the records are converted
+   * into a stream of YAML documents.
+   *
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testYamlCommandWithNdjsonInput() throws Exception {
+    String outputPath = "target/test-data/outputs/test_ndjson_output.yaml";
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {
+                    "yaml", "target/test-data/inputs/ndjson/records.ndjson", outputPath
+                  });
+            });
+
+    assertThat(status).isZero();
+    List<Map<String, Object>> documents =
+        new YAMLMapper()
+            .readerFor(Map.class)
+            .<Map<String, Object>>readValues(new File(outputPath))
+            .readAll();
+    assertThat(documents.size()).isEqualTo(3);
+    assertThat(documents.get(0).get("tenant")).isEqualTo("alpha");
+    assertThat(documents.get(2).get("note")).isEqualTo("multi\nline");
+  }
+}
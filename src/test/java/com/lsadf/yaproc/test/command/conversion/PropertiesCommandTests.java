@@ -6,10 +6,13 @@ import com.github.stefanbirkner.systemlambda.SystemLambda;
 import com.lsadf.yaproc.YaprocApplication;
 import com.lsadf.yaproc.util.TestUtils;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import org.assertj.core.api.AssertionsForClassTypes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import picocli.CommandLine;
 
 /**
@@ -158,4 +161,66 @@ class PropertiesCommandTests {
     // Verify that no output file was created due to the error
     assertThat(Files.exists(Paths.get(outputPath))).isFalse();
   }
+
+  /**
+   * Tests the properties command's key ordering option when converting a nested YAML file. This
+   * test verifies that the nested content is flattened into dotted keys written in sorted order.
+   *
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testPropertiesCommandWithSortedKeys() throws Exception {
+    String outputPath = "target/test-data/outputs/test_sorted_output.properties";
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {
+                    PROPERTIES,
+                    "target/test-data/inputs/complex/complex.yaml",
+                    outputPath,
+                    "--sort-keys"
+                  });
+            });
+
+    assertThat(status).isZero();
+    List<String> keys =
+        Files.readAllLines(Paths.get(outputPath)).stream()
+            .filter(line -> !line.startsWith("#"))
+            .map(line -> line.substring(0, line.indexOf('=')))
+            .toList();
+    assertThat(keys).isSorted().contains("app.name").noneMatch(key -> key.equals("app"));
+  }
+
+  /**
+   * Tests the properties command's key ordering when converting a YAML file whose root keys are
+   * not in alphabetical order. This test verifies that the keys are written in the order of the
+   * input, the root keys included.
+   *
+   * @param tempDir the directory holding the input file
+   * @throws Exception if there is an unexpected error during test execution
+   */
+  @Test
+  void testPropertiesCommandKeepsKeyOrder(@TempDir Path tempDir) throws Exception {
+    String inputPath = tempDir.resolve("unordered.yaml").toString();
+    String outputPath = "target/test-data/outputs/test_ordered_output.properties";
+    Files.writeString(
+        Paths.get(inputPath),
+        "zeta: 1\nalpha: 2\nmid: 3\nbeta: 4\nomega: 5\nserver:\n  port: 8080\n");
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(new String[] {PROPERTIES, inputPath, outputPath});
+            });
+
+    assertThat(status).isZero();
+    List<String> keys =
+        Files.readAllLines(Paths.get(outputPath)).stream()
+            .filter(line -> !line.startsWith("#"))
+            .map(line -> line.substring(0, line.indexOf('=')))
+            .toList();
+    assertThat(keys).containsExactly("zeta", "alpha", "mid", "beta", "omega", "server.port");
+  }
 }
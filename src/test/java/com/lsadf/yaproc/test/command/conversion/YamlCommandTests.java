@@ -5,9 +5,11 @@ import com.lsadf.yaproc.YaprocApplication;
 import com.lsadf.yaproc.util.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import picocli.CommandLine;
 
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -151,4 +153,93 @@ class YamlCommandTests {
     // Verify that no output file was created due to the error
     assertThat(Files.exists(Paths.get(outputPath))).isFalse();
   }
+
+  /**
+   * Tests the yaml command in pipe mode, reading JSON from the standard input and writing YAML to
+   * the standard output. Expected to execute successfully without creating any file.
+   */
+  @Test
+  void testYamlCommandWithStandardStreams() throws Exception {
+    int[] status = new int[1];
+    String output =
+        SystemLambda.tapSystemOutNormalized(
+            () ->
+                SystemLambda.withTextFromSystemIn("{\"key\": \"value\", \"number\": 42}")
+                    .execute(
+                        () ->
+                            status[0] =
+                                SystemLambda.catchSystemExit(
+                                    () ->
+                                        YaprocApplication.main(
+                                            new String[] {YAML, "--from", "json", "-", "-"}))));
+
+    assertThat(status[0]).isZero();
+    assertThat(output).contains("key: \"value\"").contains("number: 42");
+    assertThat(Files.exists(Paths.get("target/test-data/outputs"))).isFalse();
+  }
+
+  /**
+   * Tests the yaml command in pipe mode with token streaming enabled. Expected to execute
+   * successfully and write the YAML document to the standard output.
+   */
+  @Test
+  void testYamlCommandWithStandardStreamsAndStreaming() throws Exception {
+    String[] args = {YAML, "-s", "--from", "JSON", "-", "-"};
+    int[] status = new int[1];
+    String output =
+        SystemLambda.tapSystemOutNormalized(
+            () ->
+                SystemLambda.withTextFromSystemIn("{\"list\": [1, 2]}")
+                    .execute(
+                        () ->
+                            status[0] =
+                                SystemLambda.catchSystemExit(() -> YaprocApplication.main(args))));
+
+    assertThat(status[0]).isZero();
+    assertThat(output).contains("list:").contains("- 1").contains("- 2");
+  }
+
+  /**
+   * Tests the yaml command when reading from the standard input without the --from option.
+   * Expected to exit with a usage error code.
+   */
+  @Test
+  void testYamlCommandWithStandardInputAndNoFormat() throws Exception {
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {YAML, "-", "target/test-data/outputs/test_output.yml"});
+            });
+
+    assertThat(status).isEqualTo(CommandLine.ExitCode.USAGE);
+    assertThat(Files.exists(Paths.get("target/test-data/outputs"))).isFalse();
+  }
+
+  /**
+   * Tests the yaml command with a forced input format on a file whose extension is not supported.
+   * Expected to execute successfully.
+   */
+  @Test
+  void testYamlCommandWithForcedInputFormat(@TempDir Path tempDir) throws Exception {
+    Path input = tempDir.resolve("config.txt");
+    Files.writeString(input, "app.port=8080");
+
+    int status =
+        SystemLambda.catchSystemExit(
+            () -> {
+              YaprocApplication.main(
+                  new String[] {
+                    YAML,
+                    "--from",
+                    "properties",
+                    input.toString(),
+                    "target/test-data/outputs/forced.yml"
+                  });
+            });
+
+    assertThat(status).isZero();
+    assertThat(Files.readString(Paths.get("target/test-data/outputs/forced.yml")))
+        .contains("app.port: 8080");
+  }
 }
@@ -0,0 +1,213 @@
+package com.lsadf.yaproc.test.daemon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lsadf.yaproc.YaprocApplication;
+import com.lsadf.yaproc.daemon.DaemonClient;
+import com.lsadf.yaproc.daemon.DaemonServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link DaemonServer} and {@link DaemonClient} that verifies the invocations
+ * forwarded to a daemon behave as if they were run in-process.
+ */
+class DaemonServerTests {
+  private static final Path INPUT = Path.of("target/test-data/inputs/test.yaml").toAbsolutePath();
+
+  @TempDir Path tempDir;
+
+  private Path socket;
+  private DaemonServer server;
+  private CompletableFuture<Void> serving;
+
+  @BeforeEach
+  void startDaemon() throws Exception {
+    socket = tempDir.resolve("yaproc.sock");
+    server = new DaemonServer(socket, 2, YaprocApplication::createCommandLine);
+    server.start();
+    serving =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                server.serve();
+              } catch (Exception e) {
+                throw new IllegalStateException(e);
+              }
+            });
+  }
+
+  @AfterEach
+  void stopDaemon() throws Exception {
+    server.close();
+    serving.get();
+    assertThat(socket).doesNotExist();
+  }
+
+  /** Tests that relative paths are resolved against the working directory of the client. */
+  @Test
+  void shouldResolveRelativePathsAgainstClientDirectory() throws Exception {
+    // Given
+    DaemonClient client = new DaemonClient(socket);
+
+    // When
+    OptionalInt exitCode =
+        client.execute(
+            tempDir,
+            new String[] {"json", INPUT.toString(), "output.json"},
+            new ByteArrayOutputStream(),
+            new ByteArrayOutputStream());
+
+    // Then
+    assertThat(exitCode).hasValue(0);
+    Map<?, ?> content =
+        new ObjectMapper().readValue(tempDir.resolve("output.json").toFile(), Map.class);
+    assertThat(content).isNotEmpty();
+  }
+
+  /** Tests that the options of an invocation do not leak into the following ones. */
+  @Test
+  void shouldServeSuccessiveInvocations() throws Exception {
+    // Given
+    DaemonClient client = new DaemonClient(socket);
+    Path output = tempDir.resolve("output.yaml");
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    // When
+    OptionalInt first =
+        client.execute(
+            tempDir,
+            new String[] {"yaml", INPUT.toString(), output.toString()},
+            new ByteArrayOutputStream(),
+            new ByteArrayOutputStream());
+    OptionalInt second =
+        client.execute(
+            tempDir,
+            new String[] {"yaml", INPUT.toString(), output.toString()},
+            new ByteArrayOutputStream(),
+            err);
+    OptionalInt forced =
+        client.execute(
+            tempDir,
+            new String[] {"yaml", INPUT.toString(), output.toString(), "-f"},
+            new ByteArrayOutputStream(),
+            new ByteArrayOutputStream());
+
+    // Then
+    assertThat(first).hasValue(0);
+    assertThat(second).hasValue(1);
+    assertThat(err.toString(StandardCharsets.UTF_8)).contains(output.toString());
+    assertThat(forced).hasValue(0);
+  }
+
+  /** Tests that the errors of an invocation are sent back to its client. */
+  @Test
+  void shouldSendErrorsToClient() throws Exception {
+    // Given
+    DaemonClient client = new DaemonClient(socket);
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    // When
+    OptionalInt exitCode =
+        client.execute(
+            tempDir,
+            new String[] {"json", "missing.yaml", "output.json"},
+            new ByteArrayOutputStream(),
+            err);
+
+    // Then
+    assertThat(exitCode).hasValue(1);
+    assertThat(err.toString(StandardCharsets.UTF_8)).contains("missing.yaml");
+  }
+
+  /** Tests that the invocations bound to the client process are sent back to it. */
+  @Test
+  void shouldRejectInvocationsBoundToProcess() {
+    // Given
+    DaemonClient client = new DaemonClient(socket);
+    String input = INPUT.toString();
+    String output = tempDir.resolve("output.json").toString();
+
+    // When & Then
+    assertThat(execute(client, "json", input, output, "--watch")).isEmpty();
+    assertThat(execute(client, "json", input, output, "-fw")).isEmpty();
+    assertThat(execute(client, "json", input, output, "--debug")).isEmpty();
+    assertThat(execute(client, "json", "-", output)).isEmpty();
+    assertThat(execute(client, "batch", tempDir.toString(), output, "--to", "json")).isEmpty();
+    assertThat(execute(client, "daemon")).isEmpty();
+    assertThat(tempDir.resolve("output.json")).doesNotExist();
+    assertThat(execute(client, "json", input, output, "-f")).hasValue(0);
+  }
+
+  /** Tests that the socket is bound in a directory created for the current user only. */
+  @Test
+  void shouldBindSocketInPrivateDirectory() throws Exception {
+    // Given
+    Path directory = tempDir.resolve("runtime/yaproc");
+    Path privateSocket = directory.resolve("yaproc.sock");
+
+    // When
+    try (DaemonServer privateServer =
+        new DaemonServer(privateSocket, 1, YaprocApplication::createCommandLine)) {
+      privateServer.start();
+
+      // Then
+      assertThat(Files.getPosixFilePermissions(directory))
+          .isEqualTo(PosixFilePermissions.fromString("rwx------"));
+      assertThat(privateSocket).exists();
+    }
+  }
+
+  /** Tests that the daemon refuses to listen in a directory accessible to other users. */
+  @Test
+  void shouldRefuseSharedDirectory() throws Exception {
+    // Given
+    Path directory = Files.createDirectory(tempDir.resolve("shared"));
+    Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+    // When & Then
+    Path sharedSocket = directory.resolve("yaproc.sock");
+    try (DaemonServer sharedServer =
+        new DaemonServer(sharedSocket, 1, YaprocApplication::createCommandLine)) {
+      assertThatThrownBy(sharedServer::start)
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining(directory.toString());
+    }
+    assertThat(sharedSocket).doesNotExist();
+  }
+
+  /** Tests that the client falls back to in-process execution when no daemon is running. */
+  @Test
+  void shouldNotForwardWithoutDaemon() {
+    // Given
+    DaemonClient client = new DaemonClient(tempDir.resolve("missing.sock"));
+
+    // When
+    OptionalInt exitCode =
+        client.execute(
+            tempDir,
+            new String[] {"version"},
+            new ByteArrayOutputStream(),
+            new ByteArrayOutputStream());
+
+    // Then
+    assertThat(exitCode).isEmpty();
+  }
+
+  private OptionalInt execute(DaemonClient client, String... args) {
+    return client.execute(tempDir, args, new ByteArrayOutputStream(), new ByteArrayOutputStream());
+  }
+}
@@ -0,0 +1,112 @@
+package com.lsadf.yaproc.test.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.FileFormatDetector;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link FileFormatDetector} that verifies the format of a file is found from its
+ * content when its extension does not name one.
+ */
+class FileFormatDetectorTests {
+
+  @TempDir Path tempDir;
+
+  /** Tests that the JSON family is recognized from the first character of the content. */
+  @Test
+  void shouldDetectJsonAndNdjson() {
+    assertThat(detect("{\n  \"key\": \"value\"\n}")).contains(FileFormat.JSON);
+    assertThat(detect("  [1, 2, 3]")).contains(FileFormat.JSON);
+    assertThat(detect("{\"id\": 1}\n{\"id\": 2}\n")).contains(FileFormat.NDJSON);
+  }
+
+  /** Tests that YAML is recognized from its markers, structure and key-value lines. */
+  @Test
+  void shouldDetectYaml() {
+    assertThat(detect("---\nkey: value\n")).contains(FileFormat.YAML);
+    assertThat(detect("%YAML 1.2\n---\nkey: value\n")).contains(FileFormat.YAML);
+    assertThat(detect("# comment\nkey: value\nother:\n")).contains(FileFormat.YAML);
+    assertThat(detect("- first\n- second\n")).contains(FileFormat.YAML);
+    assertThat(detect("app:\n  url: http://host?a=b\n")).contains(FileFormat.YAML);
+  }
+
+  /** Tests that properties are recognized from their separators, even after YAML-like lines. */
+  @Test
+  void shouldDetectProperties() {
+    assertThat(detect("# comment\nkey=value\n")).contains(FileFormat.PROPERTIES);
+    assertThat(detect("key = value\n")).contains(FileFormat.PROPERTIES);
+    assertThat(detect("key:value\n")).contains(FileFormat.PROPERTIES);
+    assertThat(detect("first: value\nsecond=value\n")).contains(FileFormat.PROPERTIES);
+    assertThat(detect("key=multi \\\n  line\n")).contains(FileFormat.PROPERTIES);
+  }
+
+  /** Tests that content looking like none of the formats is not given one. */
+  @Test
+  void shouldNotDetectUnknownContent() {
+    assertThat(detect("")).isEmpty();
+    assertThat(detect("# only a comment\n\n")).isEmpty();
+    assertThat(detect("Some plain text\n")).isEmpty();
+  }
+
+  /** Tests that byte order marks are skipped. */
+  @Test
+  void shouldSkipByteOrderMark() {
+    byte[] utf16 = "﻿{\"key\": \"value\"}".getBytes(StandardCharsets.UTF_16BE);
+    byte[] utf8 = "﻿key: value".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(FileFormatDetector.detect(utf16, true)).contains(FileFormat.JSON);
+    assertThat(FileFormatDetector.detect(utf8, true)).contains(FileFormat.YAML);
+  }
+
+  /** Tests that the format of a file without extension is detected from its content. */
+  @Test
+  void shouldResolveFormatOfFileWithoutExtension() throws IOException {
+    // Given
+    Path plain = Files.writeString(tempDir.resolve("upload"), "key=value\n");
+    Path compressed = tempDir.resolve("upload.gz");
+    try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+      outputStream.write("{\"key\": \"value\"}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    // When
+    Optional<FileFormat> plainFormat = FileFormatDetector.resolve(plain.toFile());
+    Optional<FileFormat> compressedFormat = FileFormatDetector.resolve(compressed.toFile());
+
+    // Then
+    assertThat(plainFormat).contains(FileFormat.PROPERTIES);
+    assertThat(compressedFormat).contains(FileFormat.JSON);
+  }
+
+  /** Tests that the extension, then the inner extension of a compound name, are used first. */
+  @Test
+  void shouldResolveFormatFromExtensions() throws IOException {
+    // Given
+    Path yaml = Files.writeString(tempDir.resolve("settings.yaml.tmp"), "{\"key\": \"value\"}");
+    Path properties = Files.writeString(tempDir.resolve("app.properties.bak"), "key: value\n");
+    Path mislabeled = Files.writeString(tempDir.resolve("data.json.tmp"), "key=value\n");
+
+    // When / Then
+    assertThat(FileFormatDetector.resolve(yaml.toFile())).contains(FileFormat.YAML);
+    assertThat(FileFormatDetector.resolve(properties.toFile())).contains(FileFormat.PROPERTIES);
+    assertThat(FileFormatDetector.resolve(mislabeled.toFile())).contains(FileFormat.PROPERTIES);
+    assertThat(
+            FileFormatDetector.resolve(
+                Paths.get("target/test-data/inputs/malformed/malformed.json").toFile()))
+        .contains(FileFormat.JSON);
+  }
+
+  private static Optional<FileFormat> detect(String content) {
+    return FileFormatDetector.detect(content.getBytes(StandardCharsets.UTF_8), true);
+  }
+}
@@ -0,0 +1,116 @@
+package com.lsadf.yaproc.test.file.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.FileHandlerProvider;
+import com.lsadf.yaproc.file.handler.FileHandlerRegistry;
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
+import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.PropertiesOutputFileHandler;
+import com.lsadf.yaproc.util.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link FileHandlerRegistry} that verifies the handlers are found by format, and
+ * can be replaced by {@link FileHandlerProvider} implementations.
+ */
+class FileHandlerRegistryTests {
+
+  @TempDir Path tempDir;
+
+  /** Tests that every format has a handler of its own, shared for the input. */
+  @Test
+  void shouldProvideHandlersForEveryFormat() {
+    FileHandlerRegistry registry = FileHandlerRegistry.getDefault();
+
+    for (FileFormat format : FileFormat.values()) {
+      assertThat(registry.getInputFileHandler(format).getType()).isEqualTo(format);
+      assertThat(registry.getInputFileHandler(format))
+          .isSameAs(registry.getInputFileHandler(format));
+      assertThat(registry.createOutputFileHandler(format, 1024).getType()).isEqualTo(format);
+    }
+  }
+
+  /** Tests that the properties output is written by the properties handler. */
+  @Test
+  void shouldWritePropertiesWithPropertiesHandler() throws IOException {
+    // Given
+    OutputFileHandler handler =
+        FileHandlerRegistry.getDefault().createOutputFileHandler(FileFormat.PROPERTIES, 1024);
+    ContentMap content = new ContentMap();
+    content.put("key", "value");
+    Path output = tempDir.resolve("output.properties");
+
+    // When
+    handler.handleFile(output.toFile(), content, false);
+
+    // Then
+    assertThat(Files.readAllLines(output)).contains("key=value");
+  }
+
+  /** Tests that a provider replaces the built-in handlers of its format only. */
+  @Test
+  void shouldReplaceBuiltInHandlersWithProvider() throws IOException {
+    // Given
+    ContentMap provided = new ContentMap();
+    provided.put("provided", true);
+    FileHandlerProvider provider =
+        new FileHandlerProvider() {
+          @Override
+          public FileFormat getFormat() {
+            return FileFormat.JSON;
+          }
+
+          @Override
+          public InputFileHandler createInputFileHandler() {
+            return new InputFileHandler() {
+              @Override
+              public FileFormat getType() {
+                return FileFormat.JSON;
+              }
+
+              @Override
+              public ContentMap handleFile(FileData fileData) {
+                return provided;
+              }
+            };
+          }
+
+          @Override
+          public OutputFileHandler createOutputFileHandler(int bufferSize) {
+            return new PropertiesOutputFileHandler(bufferSize);
+          }
+        };
+    FileHandlerRegistry registry = new FileHandlerRegistry(List.of(provider));
+    FileData json = FileUtils.readFile(new File("target/test-data/inputs/simple/simple.json"));
+    FileData yaml = FileUtils.readFile(new File("target/test-data/inputs/simple/simple.yaml"));
+
+    // When
+    ContentMap jsonContent = registry.getInputFileHandler(FileFormat.JSON).handleFile(json);
+    ContentMap yamlContent = registry.getInputFileHandler(FileFormat.YAML).handleFile(yaml);
+
+    // Then
+    assertThat(jsonContent).isSameAs(provided);
+    assertThat(yamlContent).containsEntry("key", "value");
+  }
+
+  /** Tests that the extensions are looked up case-insensitively. */
+  @Test
+  void shouldFindFormatsByExtensionIgnoringCase() {
+    assertThat(FileFormat.fromExtension("YML")).isEqualTo(FileFormat.YAML);
+    assertThat(FileFormat.findByExtension("Jsonl")).contains(FileFormat.NDJSON);
+    assertThat(FileFormat.findByExtension("txt")).isEmpty();
+    assertThat(FileFormat.findByExtension(null)).isEmpty();
+    assertThat(FileFormat.PROPERTIES.hasExtension("PROP")).isTrue();
+    assertThat(FileFormat.JSON.hasExtension("yaml")).isFalse();
+  }
+}
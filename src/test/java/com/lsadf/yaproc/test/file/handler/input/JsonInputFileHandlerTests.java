@@ -9,8 +9,11 @@ import com.lsadf.yaproc.file.FileData;
 import com.lsadf.yaproc.file.handler.input.InputFileHandler;
 import com.lsadf.yaproc.file.handler.input.JsonInputFileHandler;
 import com.lsadf.yaproc.util.FileUtils;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
@@ -62,22 +65,42 @@ class JsonInputFileHandlerTests {
   }
 
   @Test
-  void shouldThrowExceptionForUnsupportedFormat() throws IOException {
+  void shouldThrowExceptionForInvalidJsonContent() throws IOException {
     // Given
     FileData fileData =
-        FileUtils.readFile(new File("target/test-data/inputs/simple/simple.properties"));
+        FileUtils.readFile(new File("target/test-data/inputs/malformed/malformed.json"));
 
     // When & Then
-    assertThrows(UnsupportedFileFormatException.class, () -> handler.handleFile(fileData));
+    assertThrows(IOException.class, () -> handler.handleFile(fileData));
   }
 
   @Test
-  void shouldThrowExceptionForInvalidJsonContent() throws IOException {
+  void shouldHandleStreamedJsonContent() throws IOException, UnsupportedFileFormatException {
     // Given
+    byte[] content = "{\"key\": \"h\u00e9llo\"}".getBytes(StandardCharsets.UTF_8);
     FileData fileData =
-        FileUtils.readFile(new File("target/test-data/inputs/malformed/malformed.json"));
+        FileData.fromStream(
+            "stream.json", "json", () -> new ByteArrayInputStream(content), StandardCharsets.UTF_8);
 
-    // When & Then
-    assertThrows(IOException.class, () -> handler.handleFile(fileData));
+    // When
+    ContentMap contentMap = handler.handleFile(fileData);
+
+    // Then
+    assertThat(contentMap).containsEntry("key", "h\u00e9llo");
+  }
+
+  @Test
+  void shouldHandleUtf16JsonContent() throws IOException, UnsupportedFileFormatException {
+    // Given
+    byte[] content = "{\"key\": \"h\u00e9llo\"}".getBytes(StandardCharsets.UTF_16LE);
+    FileData fileData =
+        FileData.fromBytes(
+            "utf16.json", "json", ByteBuffer.wrap(content), StandardCharsets.UTF_16LE);
+
+    // When
+    ContentMap contentMap = handler.handleFile(fileData);
+
+    // Then
+    assertThat(contentMap).containsEntry("key", "h\u00e9llo");
   }
 }
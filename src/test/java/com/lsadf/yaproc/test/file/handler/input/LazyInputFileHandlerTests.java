@@ -0,0 +1,77 @@
+package com.lsadf.yaproc.test.file.handler.input;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
+import com.lsadf.yaproc.file.handler.input.JsonInputFileHandler;
+import com.lsadf.yaproc.file.handler.input.LazyInputFileHandler;
+import com.lsadf.yaproc.file.handler.input.PropertiesInputFileHandler;
+import com.lsadf.yaproc.file.handler.input.YamlInputFileHandler;
+import com.lsadf.yaproc.util.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link LazyInputFileHandler} that verifies the handlers are only created for the
+ * formats actually read.
+ */
+class LazyInputFileHandlerTests {
+
+  /** Tests that reading a JSON file never creates the handlers of the other formats. */
+  @Test
+  void shouldOnlyCreateHandlerOfReadFormat() throws IOException {
+    // Given
+    AtomicInteger yamlCreations = new AtomicInteger();
+    LazyInputFileHandler json =
+        new LazyInputFileHandler(FileFormat.JSON, () -> new JsonInputFileHandler());
+    LazyInputFileHandler yaml =
+        new LazyInputFileHandler(
+            FileFormat.YAML,
+            () -> {
+              yamlCreations.incrementAndGet();
+              return new YamlInputFileHandler();
+            });
+    FileData fileData = FileUtils.readFile(new File("target/test-data/inputs/simple/simple.json"));
+
+    // When
+    ContentMap content = json.handleFile(fileData);
+
+    // Then
+    assertThat(content).containsEntry("key", "value");
+    assertThat(json.isInitialized()).isTrue();
+    assertThat(yaml.isInitialized()).isFalse();
+    assertThat(yamlCreations).hasValue(0);
+  }
+
+  /** Tests that the handler of a format is created once, and delegated to for its documents. */
+  @Test
+  void shouldCreateHandlerOnce() throws IOException {
+    // Given
+    AtomicInteger creations = new AtomicInteger();
+    InputFileHandler properties =
+        new LazyInputFileHandler(
+            FileFormat.PROPERTIES,
+            () -> {
+              creations.incrementAndGet();
+              return new PropertiesInputFileHandler();
+            });
+    FileData fileData =
+        FileUtils.readFile(new File("target/test-data/inputs/simple/simple.properties"));
+    List<ContentMap> documents = new ArrayList<>();
+
+    // When
+    properties.handleFile(fileData);
+    properties.handleDocuments(fileData, documents::add);
+
+    // Then
+    assertThat(documents).hasSize(1);
+    assertThat(creations).hasValue(1);
+  }
+}
@@ -0,0 +1,110 @@
+package com.lsadf.yaproc.test.file.handler.input;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.handler.input.InputFileHandler;
+import com.lsadf.yaproc.file.handler.input.NdjsonInputFileHandler;
+import com.lsadf.yaproc.util.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class for {@link NdjsonInputFileHandler} that verifies records are read one at a time, both
+ * sequentially and in parallel chunks, in the order of the file.
+ */
+class NdjsonInputFileHandlerTests {
+  private static final File RECORDS = new File("target/test-data/inputs/ndjson/records.ndjson");
+
+  private final InputFileHandler handler = new NdjsonInputFileHandler();
+
+  /** Tests that every record is handed over in order, skipping blank lines. */
+  @Test
+  void shouldHandleRecordsOneAtATime() throws IOException {
+    // Given
+    FileData fileData = FileUtils.readFile(RECORDS);
+    List<ContentMap> records = new ArrayList<>();
+
+    // When
+    handler.handleDocuments(fileData, records::add);
+
+    // Then
+    assertThat(records)
+        .extracting(record -> record.get("tenant"))
+        .containsExactly("alpha", "beta", "gamma");
+    assertThat((Map<String, Object>) records.get(0).get("config")).containsEntry("limit", 10);
+    assertThat(records.get(2)).containsEntry("note", "multi\nline");
+  }
+
+  /**
+   * Tests that records parsed in parallel from many small chunks are handed over in the order of
+   * the file.
+   */
+  @Test
+  void shouldHandleRecordsInParallelChunks(@TempDir Path tempDir) throws IOException {
+    // Given
+    Path file = tempDir.resolve("many.jsonl");
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      content
+          .append("{\"id\": ")
+          .append(i)
+          .append(", \"name\": \"record-")
+          .append(i)
+          .append("\"}\n");
+    }
+    Files.writeString(file, content);
+    FileData fileData = FileUtils.readFile(file.toFile());
+    List<ContentMap> records = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // When
+    try {
+      new NdjsonInputFileHandler(100).handleDocuments(fileData, executor, records::add);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertThat(records).hasSize(1000);
+    for (int i = 0; i < records.size(); i++) {
+      assertThat(records.get(i)).containsEntry("id", i).containsEntry("name", "record-" + i);
+    }
+  }
+
+  /** Tests that a file holding a single record can be read as a single document. */
+  @Test
+  void shouldHandleSingleRecordFile(@TempDir Path tempDir) throws IOException {
+    // Given
+    Path file = tempDir.resolve("single.ndjson");
+    Files.writeString(file, "{\"key\": \"value\"}\n");
+
+    // When
+    ContentMap contentMap = handler.handleFile(FileUtils.readFile(file.toFile()));
+
+    // Then
+    assertThat(contentMap).containsEntry("key", "value");
+  }
+
+  /** Tests that a file holding several records cannot be read as a single document. */
+  @Test
+  void shouldThrowExceptionForSeveralRecordsInSingleDocument() throws IOException {
+    // Given
+    FileData fileData = FileUtils.readFile(RECORDS);
+
+    // When & Then
+    assertThrows(IOException.class, () -> handler.handleFile(fileData));
+  }
+}
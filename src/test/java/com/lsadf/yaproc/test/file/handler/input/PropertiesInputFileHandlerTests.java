@@ -9,9 +9,15 @@ import com.lsadf.yaproc.file.FileData;
 import com.lsadf.yaproc.file.handler.input.InputFileHandler;
 import com.lsadf.yaproc.file.handler.input.PropertiesInputFileHandler;
 import com.lsadf.yaproc.util.FileUtils;
+import com.lsadf.yaproc.util.ScalarResolver;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.Test;
 
 class PropertiesInputFileHandlerTests {
@@ -70,16 +76,6 @@ class PropertiesInputFileHandlerTests {
         .containsEntry("special.chars", "Hello@#$%^&* World!");
   }
 
-  /** Tests that the handler throws the correct exception when given an unsupported format. */
-  @Test
-  void shouldThrowExceptionForUnsupportedFormat() throws IOException {
-    // Given
-    FileData fileData = FileUtils.readFile(new File("target/test-data/inputs/simple/simple.json"));
-
-    // When & Then
-    assertThrows(UnsupportedFileFormatException.class, () -> handler.handleFile(fileData));
-  }
-
   /**
    * Tests that the handler throws an IOException when given a malformed properties file. This
    * validates that the system correctly detects and reports formatting errors in properties files.
@@ -92,4 +88,113 @@ class PropertiesInputFileHandlerTests {
     // When & Then
     assertThrows(IOException.class, () -> handler.handleFile(fileData));
   }
+
+  /**
+   * Tests that content scanned in many small chunks, with continuations and duplicated keys
+   * spanning the chunks, is read as in one go.
+   */
+  @Test
+  void shouldHandleLargeContentInChunks() throws IOException {
+    // Given
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      content.append("key").append(i % 50).append(" = value ").append(i).append(" \\\r\n");
+      content.append("  continued").append(i).append("\n");
+      content.append("# comment ending with a backslash \\\n");
+      content.append("count").append(i).append(':').append(i).append('\n');
+    }
+    FileData fileData = fromString(content.toString());
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // When
+    ContentMap sequential = handler.handleFile(fileData);
+    ContentMap chunked;
+    try {
+      chunked =
+          new PropertiesInputFileHandler(ScalarResolver.DEFAULT, false, 64, executor)
+              .handleFile(fileData);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertThat(chunked).isEqualTo(sequential).hasSize(550);
+    assertThat(chunked)
+        .containsEntry("key7", "value 457 continued457")
+        .containsEntry("count499", 499L);
+  }
+
+  /** Tests that keys read in chunks are nested as when read in one go. */
+  @Test
+  void shouldNestKeysReadInChunks() throws IOException {
+    // Given
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      content.append("servers[").append(i).append("].name=server").append(i).append('\n');
+      content.append("servers[").append(i).append("].port=").append(8000 + i).append('\n');
+    }
+    content.append("servers.count=200\n");
+    FileData fileData = fromString(content.toString());
+
+    // When
+    ContentMap sequential =
+        new PropertiesInputFileHandler(ScalarResolver.DEFAULT, true).handleFile(fileData);
+    ContentMap chunked =
+        new PropertiesInputFileHandler(
+                ScalarResolver.DEFAULT, true, 64, ForkJoinPool.commonPool())
+            .handleFile(fileData);
+
+    // Then
+    assertThat(chunked).isEqualTo(sequential).containsEntry("servers.count", 200L);
+    assertThat(chunked).containsEntry("servers[199].port", 8199L);
+  }
+
+  /** Tests that keys read in chunks are nested in the order of the file. */
+  @Test
+  void shouldNestKeysReadInChunksInFileOrder() throws IOException {
+    // Given
+    StringBuilder content = new StringBuilder();
+    for (String name : new String[] {"zeta", "alpha", "mid", "beta", "omega"}) {
+      content.append("app.").append(name).append('=').append(name).append('\n');
+    }
+    for (int i = 0; i < 20; i++) {
+      content.append("padding").append(i).append("=value\n");
+    }
+    FileData fileData = fromString(content.toString());
+
+    // When
+    ContentMap chunked =
+        new PropertiesInputFileHandler(
+                ScalarResolver.DEFAULT, true, 100, ForkJoinPool.commonPool())
+            .handleFile(fileData);
+
+    // Then
+    assertThat(((Map<String, Object>) chunked.get("app")).keySet())
+        .containsExactly("zeta", "alpha", "mid", "beta", "omega");
+  }
+
+  /** Tests that a malformed line found in a later chunk is reported with its line in the file. */
+  @Test
+  void shouldReportLineOfMalformedChunk() {
+    // Given
+    String content = "key=value\n".repeat(100) + "=no key\n" + "key=value\n".repeat(100);
+    InputFileHandler chunkedHandler =
+        new PropertiesInputFileHandler(
+            ScalarResolver.DEFAULT, false, 64, ForkJoinPool.commonPool());
+
+    // When
+    IOException exception =
+        assertThrows(IOException.class, () -> chunkedHandler.handleFile(fromString(content)));
+
+    // Then
+    assertThat(exception).hasMessageContaining("line 101");
+  }
+
+  private static FileData fromString(String content) {
+    return FileData.fromBytes(
+        "test.properties",
+        "properties",
+        ByteBuffer.wrap(content.getBytes(StandardCharsets.ISO_8859_1)),
+        StandardCharsets.ISO_8859_1);
+  }
 }
@@ -0,0 +1,137 @@
+package com.lsadf.yaproc.test.file.handler.input;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.handler.input.PropertiesNester;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link PropertiesNester} that verifies dotted keys and indices are unflattened
+ * into nested maps and lists, and that the keys that cannot be nested are kept flat.
+ */
+class PropertiesNesterTests {
+
+  /** Tests that dotted keys sharing a prefix are nested under a single map, in file order. */
+  @Test
+  void shouldNestDottedKeys() {
+    // When
+    ContentMap content =
+        nest("server.port", 8080L, "server.ssl.enabled", true, "server.host", "localhost");
+
+    // Then
+    assertThat(content).containsOnlyKeys("server");
+    Map<String, Object> server = (Map<String, Object>) content.get("server");
+    assertThat(server.keySet()).containsExactly("port", "ssl", "host");
+    assertThat(server.get("ssl")).isEqualTo(Map.of("enabled", true));
+  }
+
+  /** Tests that the root keys, nested or kept flat, are in file order. */
+  @Test
+  void shouldKeepRootKeysInFileOrder() {
+    // When
+    ContentMap content =
+        nest("zeta", 1L, "alpha", 2L, "mid", 3L, "beta", 4L, "omega", 5L, "server.port", 8080L);
+
+    // Then
+    assertThat(content.keySet()).containsExactly("zeta", "alpha", "mid", "beta", "omega", "server");
+  }
+
+  /** Tests that indices build lists, of scalars and of maps, whatever their order in the file. */
+  @Test
+  void shouldNestIndicesIntoLists() {
+    // When
+    ContentMap content =
+        nest(
+            "hosts[1]", "b",
+            "hosts[0]", "a",
+            "users[0].name", "alice",
+            "users[0].roles[0]", "admin",
+            "users[1].name", "bob",
+            "matrix[0][1]", 1L);
+
+    // Then
+    assertThat(content.get("hosts")).isEqualTo(List.of("a", "b"));
+    assertThat(content.get("users"))
+        .isEqualTo(
+            List.of(Map.of("name", "alice", "roles", List.of("admin")), Map.of("name", "bob")));
+    assertThat(content.get("matrix")).isEqualTo(List.of(Arrays.asList(null, 1L)));
+  }
+
+  /** Tests that a bracketed segment that is not a number is a key holding dots. */
+  @Test
+  void shouldNestBracketedKeys() {
+    // When
+    ContentMap content = nest("logging.level[org.example.app]", "debug");
+
+    // Then
+    assertThat(content.get("logging"))
+        .isEqualTo(Map.of("level", Map.of("org.example.app", "debug")));
+  }
+
+  /** Tests that a key both holding a value and prefixing other keys is kept flat in both orders. */
+  @Test
+  void shouldKeepConflictingKeysFlat() {
+    // When
+    ContentMap valueFirst = nest("app.name", "demo", "app.db", "h2", "app.db.url", "jdbc:h2:mem");
+    ContentMap prefixFirst =
+        nest(
+            "app.name", "demo",
+            "app.db.url", "jdbc:h2:mem",
+            "app.db.pool.size", 5L,
+            "app.db", "h2");
+
+    // Then
+    assertThat(valueFirst.get("app"))
+        .isEqualTo(Map.of("name", "demo", "db", "h2", "db.url", "jdbc:h2:mem"));
+    assertThat(prefixFirst.get("app"))
+        .isEqualTo(
+            Map.of("name", "demo", "db", "h2", "db.url", "jdbc:h2:mem", "db.pool.size", 5L));
+  }
+
+  /** Tests that the keys following a conflict on their prefix are kept flat, the last winning. */
+  @Test
+  void shouldKeepKeysFlatAfterConflict() {
+    // When
+    ContentMap content =
+        nest("list[0]", "a", "list.size", 1L, "list[1]", "b", "list.size", 2L, "other.key", "c");
+
+    // Then
+    assertThat(content)
+        .containsOnly(
+            Map.entry("list[0]", "a"),
+            Map.entry("list[1]", "b"),
+            Map.entry("list.size", 2L),
+            Map.entry("other", Map.of("key", "c")));
+  }
+
+  /** Tests that keys with empty segments or far indices are kept flat with their full name. */
+  @Test
+  void shouldKeepInvalidKeysFlat() {
+    // When
+    ContentMap content =
+        nest("a..b", 1L, ".a", 2L, "a.", 3L, "[0]", 4L, "b[]", 5L, "c[0]d", 6L, "d[5000]", 7L);
+
+    // Then
+    assertThat(content)
+        .containsOnly(
+            Map.entry("a..b", 1L),
+            Map.entry(".a", 2L),
+            Map.entry("a.", 3L),
+            Map.entry("[0]", 4L),
+            Map.entry("b[]", 5L),
+            Map.entry("c[0]d", 6L),
+            Map.entry("d[5000]", 7L));
+  }
+
+  private static ContentMap nest(Object... entries) {
+    PropertiesNester nester = new PropertiesNester();
+    for (int i = 0; i < entries.length; i += 2) {
+      nester.put((String) entries[i], entries[i + 1]);
+    }
+    return nester.getContent();
+  }
+}
@@ -0,0 +1,129 @@
+package com.lsadf.yaproc.test.file.handler.input;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.handler.input.PropertiesInputFileHandler;
+import com.lsadf.yaproc.file.handler.input.PropertiesScanner;
+import com.lsadf.yaproc.util.ScalarResolver;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares the throughput of {@link PropertiesScanner} with {@link Properties#load}, and of the
+ * sequential and chunked reading of {@link PropertiesInputFileHandler}, on a generated 200k-line
+ * bundle. Only run on demand, with {@code make benchmark-properties}.
+ */
+@EnabledIfSystemProperty(named = "yaproc.benchmark", matches = "true")
+class PropertiesScannerBenchmarkTests {
+
+  private static final int LINES = 200_000;
+  private static final int WARM_UP_RUNS = 10;
+  private static final int RUNS = 20;
+
+  /** Measures the average time taken by both parsers to read the bundle. */
+  @Test
+  void compareWithPropertiesLoad() throws IOException {
+    // Given
+    byte[] bundle = createBundle();
+
+    // When
+    long scannerNanos = measure(() -> scan(bundle));
+    long propertiesNanos = measure(() -> load(bundle));
+
+    // Then
+    System.out.printf(
+        "Reading %d lines (%d KB): PropertiesScanner %.1f ms, Properties.load %.1f ms%n",
+        LINES, bundle.length / 1024, scannerNanos / 1e6, propertiesNanos / 1e6);
+    assertThat(scan(bundle)).isEqualTo(load(bundle));
+  }
+
+  /** Measures the average time taken by the handler to read the bundle in one go and in chunks. */
+  @Test
+  void compareChunkedWithSequential() throws IOException {
+    // Given
+    byte[] bundle = createBundle();
+    ByteBuffer bytes = ByteBuffer.wrap(bundle);
+    FileData fileData =
+        FileData.fromBytes("bundle.properties", "properties", bytes, StandardCharsets.ISO_8859_1);
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    PropertiesInputFileHandler sequential =
+        new PropertiesInputFileHandler(ScalarResolver.DEFAULT, false, Integer.MAX_VALUE, pool);
+    PropertiesInputFileHandler chunked =
+        new PropertiesInputFileHandler(ScalarResolver.DEFAULT, false, 256 * 1024, pool);
+
+    // When
+    long sequentialNanos = measure(() -> sequential.handleFile(fileData));
+    long chunkedNanos = measure(() -> chunked.handleFile(fileData));
+
+    // Then
+    System.out.printf(
+        "Handling %d lines (%d KB) on %d threads: sequential %.1f ms, chunked %.1f ms%n",
+        LINES,
+        bundle.length / 1024,
+        pool.getParallelism(),
+        sequentialNanos / 1e6,
+        chunkedNanos / 1e6);
+    assertThat(chunked.handleFile(fileData)).isEqualTo(sequential.handleFile(fileData));
+  }
+
+  private static byte[] createBundle() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < LINES; i++) {
+      switch (i % 10) {
+        case 0:
+          builder.append("# Section ").append(i / 10).append('\n');
+          break;
+        case 1:
+          builder.append("app.module").append(i).append(".description=A longer value \\\n");
+          builder.append("    continued on the next line\n");
+          break;
+        case 2:
+          builder.append("app.module").append(i).append(".label=Caf\\u00e9 n\\u00b0").append(i);
+          builder.append('\n');
+          break;
+        default:
+          builder.append("app.module").append(i).append(".setting = ").append(i * 31L);
+          builder.append('\n');
+          break;
+      }
+    }
+    return builder.toString().getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  private static Map<String, String> scan(byte[] bundle) throws IOException {
+    Map<String, String> entries = new HashMap<>();
+    PropertiesScanner.scan(ByteBuffer.wrap(bundle), StandardCharsets.ISO_8859_1, entries::put);
+    return entries;
+  }
+
+  private static Properties load(byte[] bundle) throws IOException {
+    Properties properties = new Properties();
+    properties.load(new ByteArrayInputStream(bundle));
+    return properties;
+  }
+
+  private static long measure(Parse parse) throws IOException {
+    for (int i = 0; i < WARM_UP_RUNS; i++) {
+      parse.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < RUNS; i++) {
+      parse.run();
+    }
+    return (System.nanoTime() - start) / RUNS;
+  }
+
+  @FunctionalInterface
+  private interface Parse {
+    Object run() throws IOException;
+  }
+}
@@ -0,0 +1,146 @@
+package com.lsadf.yaproc.test.file.handler.input;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.lsadf.yaproc.file.handler.input.PropertiesScanner;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link PropertiesScanner} that verifies it reads the same entries as {@link
+ * Properties#load(java.io.Reader)}.
+ */
+class PropertiesScannerTests {
+
+  private static final String GRAMMAR =
+      "# comment\n"
+          + "  ! another comment\n"
+          + "\n"
+          + "simple=value\n"
+          + "colon:value\n"
+          + "spaced = value with trailing spaces  \n"
+          + "whitespace separated\n"
+          + "  indented\t: \tvalue\n"
+          + "empty=\n"
+          + "alone\n"
+          + "escaped\\=key\\:with\\ spaces=escaped\\tvalue\\n\n"
+          + "unicode=caf\\u00e9 \\u2603\n"
+          + "other\\escapes=\\a\\b\\\\\n"
+          + "multi=first \\\n"
+          + "      second \\\r\n"
+          + "\t third\n"
+          + "con\\\n"
+          + "  tinued=key\n"
+          + "crlf=windows\r\n"
+          + "cr=mac\r"
+          + "even=backslashes\\\\\n"
+          + "#not=a comment\\\n"
+          + "after=comment\n"
+          + "duplicate=first\n"
+          + "duplicate=last\n"
+          + "last=line without break";
+
+  /** Tests that every construct of the grammar is read as {@link Properties} reads it. */
+  @Test
+  void shouldReadAsPropertiesLoad() throws IOException {
+    // Given
+    Properties expected = new Properties();
+    expected.load(new StringReader(GRAMMAR));
+
+    // When
+    Map<String, String> entries = scan(GRAMMAR, StandardCharsets.ISO_8859_1, false);
+
+    // Then
+    assertThat(entries).isEqualTo(expected);
+    assertThat(entries)
+        .containsEntry("multi", "first second third")
+        .containsEntry("escaped=key:with spaces", "escaped\tvalue\n")
+        .containsEntry("unicode", "café ☃")
+        .containsEntry("duplicate", "last");
+  }
+
+  /** Tests that the content is decoded with its charset, from heap and direct buffers. */
+  @Test
+  void shouldDecodeWithCharset() throws IOException {
+    // Given
+    String content = "clé=été\nescaped\\ clé=\\été \\u2603\nlatin=\\u00e9\n";
+    Properties expected = new Properties();
+    expected.load(new StringReader(content));
+
+    // When
+    Map<String, String> utf8 = scan(content, StandardCharsets.UTF_8, false);
+    Map<String, String> utf8Direct = scan(content, StandardCharsets.UTF_8, true);
+    Map<String, String> latin1Direct = scan(content, StandardCharsets.ISO_8859_1, true);
+
+    // Then
+    assertThat(utf8).isEqualTo(expected);
+    assertThat(utf8Direct).isEqualTo(expected);
+    assertThat(latin1Direct).isEqualTo(expected);
+  }
+
+  /** Tests that the entries are received in the order of the file. */
+  @Test
+  void shouldKeepOrderOfFile() throws IOException {
+    assertThat(scan("b=1\na=2\nc=3\n", StandardCharsets.ISO_8859_1, false).keySet())
+        .containsExactly("b", "a", "c");
+  }
+
+  /** Tests that an empty key and a malformed unicode escape are reported with their line. */
+  @Test
+  void shouldRejectMalformedContent() {
+    IOException emptyKey =
+        assertThrows(
+            IOException.class, () -> scan("key=value\n= value\n", StandardCharsets.UTF_8, false));
+    IOException unicode =
+        assertThrows(
+            IOException.class, () -> scan("key=\\u00g1\n", StandardCharsets.UTF_8, false));
+
+    assertThat(emptyKey).hasMessageContaining("line 2");
+    assertThat(unicode).hasMessageContaining("line 1");
+  }
+
+  /**
+   * Tests that the content cut at any point found by {@link PropertiesScanner#nextLineStart} is
+   * read as a whole, whichever index the point is looked for from.
+   */
+  @Test
+  void shouldCutContentOnlyBetweenLogicalLines() throws IOException {
+    // Given
+    ByteBuffer buffer = ByteBuffer.wrap(GRAMMAR.getBytes(StandardCharsets.ISO_8859_1));
+    Map<String, String> expected = scan(GRAMMAR, StandardCharsets.ISO_8859_1, false);
+
+    for (int from = 0; from < buffer.limit(); from++) {
+      // When
+      int cut = PropertiesScanner.nextLineStart(buffer, from);
+      Map<String, String> entries = new LinkedHashMap<>();
+      PropertiesScanner.scan(
+          buffer.duplicate().limit(cut), StandardCharsets.ISO_8859_1, entries::put);
+      PropertiesScanner.scan(
+          buffer.duplicate().position(cut), StandardCharsets.ISO_8859_1, entries::put);
+
+      // Then
+      assertThat(cut).isGreaterThan(from);
+      assertThat(entries).as("cut at %d", cut).isEqualTo(expected);
+    }
+  }
+
+  private static Map<String, String> scan(String content, Charset charset, boolean direct)
+      throws IOException {
+    byte[] bytes = content.getBytes(charset);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    if (direct) {
+      buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+    Map<String, String> entries = new LinkedHashMap<>();
+    PropertiesScanner.scan(buffer, charset, entries::put);
+    return entries;
+  }
+}
@@ -10,8 +10,11 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -109,27 +112,81 @@ class YamlInputFileHandlerTests {
     assertThat(mixed.get(4)).isInstanceOf(Map.class);
   }
 
-  /** Tests that the handler throws the correct exception when given an unsupported file format. */
+  /**
+   * Tests that the handler throws an exception when given a malformed YAML file. This validates
+   * that the system correctly detects and reports formatting errors in YAML files.
+   */
   @Test
-  void shouldThrowExceptionForUnsupportedFormat() throws IOException {
+  void shouldThrowExceptionForMalformedYamlFile() throws IOException {
     // Given
     FileData fileData =
-        FileUtils.readFile(new File("target/test-data/inputs/simple/simple.properties"));
+        FileUtils.readFile(new File("target/test-data/inputs/malformed/malformed.yaml"));
 
     // When & Then
-    assertThrows(UnsupportedFileFormatException.class, () -> handler.handleFile(fileData));
+    assertThrows(IOException.class, () -> handler.handleFile(fileData));
   }
 
   /**
-   * Tests that the handler throws an exception when given a malformed YAML file. This validates
-   * that the system correctly detects and reports formatting errors in YAML files.
+   * Tests that every document of a multi-document YAML file is handed over in order, skipping the
+   * empty ones.
    */
   @Test
-  void shouldThrowExceptionForMalformedYamlFile() throws IOException {
+  void shouldHandleMultiDocumentYamlFile() throws IOException {
     // Given
-    FileData fileData = FileUtils.readFile(new File("target/test-data/inputs/malformed/malformed.yaml"));
+    FileData fileData = FileUtils.readFile(new File("target/test-data/inputs/multi/multi.yaml"));
+    List<ContentMap> documents = new ArrayList<>();
+
+    // When
+    handler.handleDocuments(fileData, documents::add);
+
+    // Then
+    assertMultiDocuments(documents);
+  }
+
+  /**
+   * Tests that the documents of a multi-document YAML file parsed in parallel are handed over in
+   * the order of the file.
+   */
+  @Test
+  void shouldHandleMultiDocumentYamlFileInParallel() throws IOException {
+    // Given
+    FileData fileData = FileUtils.readFile(new File("target/test-data/inputs/multi/multi.yaml"));
+    List<ContentMap> documents = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // When
+    try {
+      handler.handleDocuments(fileData, executor, documents::add);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertMultiDocuments(documents);
+  }
+
+  /** Tests that a failure to parse one of the documents parsed in parallel is reported. */
+  @Test
+  void shouldThrowExceptionForMalformedDocumentInParallel() throws IOException {
+    // Given
+    FileData fileData =
+        FileUtils.readFile(new File("target/test-data/inputs/malformed/malformed.yaml"));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
 
     // When & Then
-    assertThrows(IOException.class, () -> handler.handleFile(fileData));
+    try {
+      assertThrows(
+          IOException.class, () -> handler.handleDocuments(fileData, executor, document -> {}));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void assertMultiDocuments(List<ContentMap> documents) {
+    assertThat(documents).hasSize(3);
+    assertThat((Map<String, Object>) documents.get(0).get("spring")).containsKey("application");
+    assertThat((Map<String, Object>) documents.get(1).get("server")).containsEntry("port", 8081);
+    assertThat((Map<String, Object>) documents.get(2).get("server")).containsEntry("port", 80);
+    assertThat(documents.get(2)).containsEntry("description", "Block scalar\n--- kept as text\n");
   }
 }
@@ -3,13 +3,11 @@ package com.lsadf.yaproc.test.file.handler.output;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lsadf.yaproc.file.ContentMap;
 import com.lsadf.yaproc.file.handler.output.JsonOutputFileHandler;
-import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
-import com.lsadf.yaproc.file.handler.output.PropertiesOutputFileHandler;
-import com.lsadf.yaproc.file.handler.output.YamlOutputFileHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -27,27 +25,17 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  *
  * <p>JsonOutputFileHandlerTests is responsible for conducting specific test cases to evaluate the
  * behavior of the JSON output file handling operations, including but not limited to writing data,
- * handling exceptions, ensuring output integrity under different conditions, and verifying
- * handler delegation.
+ * handling exceptions and ensuring output integrity under different conditions.
  */
 class JsonOutputFileHandlerTests {
   @TempDir Path tempDir;
 
   private JsonOutputFileHandler jsonHandler;
-  private OutputFileHandler propertiesHandler;
-  private OutputFileHandler yamlHandler;
   private ObjectMapper objectMapper;
 
   @BeforeEach
   void setUp() {
     jsonHandler = new JsonOutputFileHandler();
-    propertiesHandler = new PropertiesOutputFileHandler();
-    yamlHandler = new YamlOutputFileHandler();
-
-    // Set up chain of responsibility
-    jsonHandler.setNextHandler(propertiesHandler);
-    propertiesHandler.setNextHandler(yamlHandler);
-
     objectMapper = new ObjectMapper();
   }
 
@@ -208,4 +196,26 @@ class JsonOutputFileHandlerTests {
         .containsEntry("quotes", "\"quoted text\"")
         .containsEntry("escapes", "Line 1\nLine 2\tTabbed");
   }
+
+  /** Tests that the handler serializes content straight into a stream without closing it. */
+  @Test
+  void shouldWriteJsonToStream() throws IOException {
+    // Given
+    ContentMap contentMap = new ContentMap();
+    contentMap.put("key", "value");
+    ByteArrayOutputStream outputStream =
+        new ByteArrayOutputStream() {
+          @Override
+          public void close() {
+            throw new IllegalStateException("Stream should not be closed");
+          }
+        };
+
+    // When
+    new JsonOutputFileHandler(16).write(contentMap, outputStream);
+
+    // Then
+    Map<String, Object> readContent = objectMapper.readValue(outputStream.toByteArray(), Map.class);
+    assertThat(readContent).containsEntry("key", "value");
+  }
 }
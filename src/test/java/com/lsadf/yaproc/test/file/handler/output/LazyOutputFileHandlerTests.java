@@ -0,0 +1,58 @@
+package com.lsadf.yaproc.test.file.handler.output;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.FileHandlerRegistry;
+import com.lsadf.yaproc.file.handler.output.JsonOutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.LazyOutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.YamlOutputFileHandler;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link LazyOutputFileHandler} that verifies the handlers are only created for the
+ * formats actually written.
+ */
+class LazyOutputFileHandlerTests {
+
+  @TempDir Path tempDir;
+
+  /** Tests that writing a JSON file never creates the handlers of the other formats. */
+  @Test
+  void shouldOnlyCreateHandlerOfWrittenFormat() throws IOException {
+    // Given
+    LazyOutputFileHandler json =
+        new LazyOutputFileHandler(FileFormat.JSON, () -> new JsonOutputFileHandler());
+    LazyOutputFileHandler yaml =
+        new LazyOutputFileHandler(FileFormat.YAML, () -> new YamlOutputFileHandler());
+    ContentMap content = new ContentMap();
+    content.put("key", "value");
+    Path output = tempDir.resolve("output.json");
+
+    // When
+    json.handleFile(output.toFile(), content, false);
+
+    // Then
+    assertThat(Files.readString(output)).contains("\"key\"", "\"value\"");
+    assertThat(json.isInitialized()).isTrue();
+    assertThat(yaml.isInitialized()).isFalse();
+  }
+
+  /** Tests that a handler created for a runtime format does not create its mapper up front. */
+  @Test
+  void shouldNotCreateHandlerBeforeWriting() {
+    // When
+    LazyOutputFileHandler handler =
+        (LazyOutputFileHandler)
+            FileHandlerRegistry.getDefault().createOutputFileHandler(FileFormat.YAML, 1024);
+
+    // Then
+    assertThat(handler.getType()).isEqualTo(FileFormat.YAML);
+    assertThat(handler.isInitialized()).isFalse();
+  }
+}
@@ -0,0 +1,71 @@
+package com.lsadf.yaproc.test.file.handler.output;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.output.NdjsonOutputFileHandler;
+import com.lsadf.yaproc.file.handler.output.OutputFileHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link NdjsonOutputFileHandler} that verifies every record is written as compact
+ * JSON on a line of its own.
+ */
+class NdjsonOutputFileHandlerTests {
+  @TempDir Path tempDir;
+
+  private final NdjsonOutputFileHandler handler = new NdjsonOutputFileHandler();
+
+  /** Tests that each document is written on its own line, with its line breaks escaped. */
+  @Test
+  void shouldWriteOneRecordPerLine() throws IOException {
+    // Given
+    ContentMap first = new ContentMap();
+    first.put("tenant", "alpha");
+    first.put("config", Map.of("limit", 10));
+    ContentMap second = new ContentMap();
+    second.put("note", "multi\nline");
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    // When
+    try (OutputFileHandler.DocumentWriter writer = handler.openDocumentWriter(outputStream)) {
+      writer.write(first);
+      writer.write(second);
+    }
+
+    // Then
+    String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0])
+        .startsWith("{")
+        .contains("\"tenant\":\"alpha\"")
+        .contains("{\"limit\":10}");
+    assertThat(lines[1]).isEqualTo("{\"note\":\"multi\\nline\"}");
+  }
+
+  /** Tests that a single record is written to a file with a supported extension. */
+  @Test
+  void shouldWriteSingleRecordFile() throws IOException {
+    // Given
+    ContentMap contentMap = new ContentMap();
+    contentMap.put("key", "value");
+    File outputFile = tempDir.resolve("output.jsonl").toFile();
+
+    // When
+    handler.handleFile(outputFile, contentMap, false);
+
+    // Then
+    assertThat(Files.readString(outputFile.toPath())).isEqualTo("{\"key\":\"value\"}\n");
+    assertThat(handler.getType()).isEqualTo(FileFormat.NDJSON);
+  }
+}
@@ -53,7 +53,7 @@ class PropertiesOutputFileHandlerTests {
     complexContentMap.put("number", 123);
     complexContentMap.put("boolean", true);
 
-    // Add nested structures that will be converted to string representations
+    // Add nested structures that will be flattened into dotted keys
     Map<String, Object> nestedMap = new LinkedHashMap<>();
     nestedMap.put("nestedKey1", "nestedValue1");
     nestedMap.put("nestedKey2", 456);
@@ -103,9 +103,9 @@ class PropertiesOutputFileHandlerTests {
     assertEquals("simpleValue", loadedProperties.getProperty("string"));
     assertEquals("123", loadedProperties.getProperty("number"));
     assertEquals("true", loadedProperties.getProperty("boolean"));
-    assertEquals(
-        "{nestedKey1=nestedValue1, nestedKey2=456}", loadedProperties.getProperty("nested"));
-    assertEquals(4, loadedProperties.size());
+    assertEquals("nestedValue1", loadedProperties.getProperty("nested.nestedKey1"));
+    assertEquals("456", loadedProperties.getProperty("nested.nestedKey2"));
+    assertEquals(5, loadedProperties.size());
   }
 
   /** Tests that the handler overwrites an existing file when force is set to true. */
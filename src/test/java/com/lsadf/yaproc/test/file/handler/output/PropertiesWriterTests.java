@@ -0,0 +1,166 @@
+package com.lsadf.yaproc.test.file.handler.output;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileData;
+import com.lsadf.yaproc.file.handler.input.PropertiesInputFileHandler;
+import com.lsadf.yaproc.file.handler.output.PropertiesWriter;
+import com.lsadf.yaproc.util.ScalarResolver;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link PropertiesWriter} that verifies nested content is flattened into escaped
+ * lines read back as written, in the order of the content or sorted.
+ */
+class PropertiesWriterTests {
+
+  /** Tests that the lines are escaped as {@link Properties#store} escapes them. */
+  @Test
+  void shouldEscapeAsPropertiesStore() throws IOException {
+    // Given
+    ContentMap content = new ContentMap();
+    content.put("key with spaces", " leading and trailing ");
+    content.put("separators=:#!", "value=:#!\\");
+    content.put("controls", "tab\tnew\nline\rfeed\f");
+    content.put("unicode", "café ☃ \u007F");
+    Properties expected = new Properties();
+    content.forEach((key, value) -> expected.setProperty(key, (String) value));
+    ByteArrayOutputStream stored = new ByteArrayOutputStream();
+    expected.store(stored, null);
+
+    // When
+    String written = write(content, false);
+
+    // Then
+    assertThat(lines(written)).containsExactlyInAnyOrderElementsOf(lines(stored.toString()));
+    assertThat(load(written)).isEqualTo(expected);
+    assertThat(written).startsWith("#Generated by Yaproc\n");
+  }
+
+  /** Tests that nested maps and lists are flattened into dotted and indexed keys. */
+  @Test
+  void shouldFlattenNestedContent() throws IOException {
+    // Given
+    Map<String, Object> annotations = new LinkedHashMap<>();
+    annotations.put("kubernetes.io/ingress.class", "nginx");
+    Map<String, Object> ingress = new LinkedHashMap<>();
+    ingress.put("enabled", true);
+    ingress.put("annotations", annotations);
+    ingress.put("hosts", List.of(Map.of("host", "a.example"), Map.of("host", "b.example")));
+    ingress.put("tls", List.of());
+    ingress.put("extra", Arrays.asList(1L, null));
+    ContentMap content = new ContentMap();
+    content.put("ingress", ingress);
+
+    // When
+    String written = write(content, false);
+
+    // Then
+    assertThat(lines(written))
+        .containsExactly(
+            "ingress.enabled=true",
+            "ingress.annotations[kubernetes.io/ingress.class]=nginx",
+            "ingress.hosts[0].host=a.example",
+            "ingress.hosts[1].host=b.example",
+            "ingress.tls=",
+            "ingress.extra[0]=1",
+            "ingress.extra[1]=");
+  }
+
+  /** Tests that the keys are sorted segment by segment, the lists keeping their order. */
+  @Test
+  void shouldSortKeys() throws IOException {
+    // Given
+    Map<String, Object> nested = new LinkedHashMap<>();
+    nested.put("zeta", 1L);
+    nested.put("alpha", List.of("second", "first"));
+    ContentMap content = new ContentMap();
+    content.put("b", nested);
+    content.put("a", "value");
+
+    // When
+    String written = write(content, true);
+
+    // Then
+    assertThat(lines(written))
+        .containsExactly("a=value", "b.alpha[0]=second", "b.alpha[1]=first", "b.zeta=1");
+  }
+
+  /** Tests that deeply nested content is written without exhausting the call stack. */
+  @Test
+  void shouldWriteDeeplyNestedContent() throws IOException {
+    // Given
+    ContentMap content = new ContentMap();
+    Map<String, Object> node = content;
+    for (int i = 0; i < 10_000; i++) {
+      Map<String, Object> child = new LinkedHashMap<>();
+      node.put("n", child);
+      node = child;
+    }
+    node.put("leaf", "value");
+
+    // When
+    String written = write(content, false);
+
+    // Then
+    assertThat(lines(written)).containsExactly("n" + ".n".repeat(9_999) + ".leaf=value");
+  }
+
+  /** Tests that flattened content is nested back as it was when read with nesting. */
+  @Test
+  void shouldBeNestedBackByPropertiesInput() throws IOException {
+    // Given
+    Map<String, Object> logging = new LinkedHashMap<>();
+    logging.put("org.example.app", "debug");
+    Map<String, Object> server = new LinkedHashMap<>();
+    server.put("port", 8080L);
+    server.put("hosts", new ArrayList<>(List.of("a", "b")));
+    server.put("logging", logging);
+    ContentMap content = new ContentMap();
+    content.put("server", server);
+    content.put("name", "demo app");
+
+    // When
+    String written = write(content, true);
+    ContentMap read =
+        new PropertiesInputFileHandler(ScalarResolver.DEFAULT, true)
+            .handleFile(
+                FileData.fromBytes(
+                    "out.properties",
+                    "properties",
+                    ByteBuffer.wrap(written.getBytes(StandardCharsets.ISO_8859_1)),
+                    StandardCharsets.ISO_8859_1));
+
+    // Then
+    assertThat(read).isEqualTo(content);
+  }
+
+  private static String write(ContentMap content, boolean sortKeys) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    new PropertiesWriter(outputStream, sortKeys).write(content);
+    return outputStream.toString(StandardCharsets.ISO_8859_1);
+  }
+
+  /** Gets the lines of a properties file, without its comments. */
+  private static List<String> lines(String written) {
+    return written.lines().filter(line -> !line.startsWith("#")).toList();
+  }
+
+  private static Properties load(String written) throws IOException {
+    Properties properties = new Properties();
+    properties.load(new ByteArrayInputStream(written.getBytes(StandardCharsets.ISO_8859_1)));
+    return properties;
+  }
+}
@@ -0,0 +1,107 @@
+package com.lsadf.yaproc.test.file.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.lsadf.yaproc.file.io.DelimiterScanner;
+import com.lsadf.yaproc.file.io.DelimiterScanner.Delimiters;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link DelimiterScanner} that verifies it finds the same delimiters as a
+ * byte-by-byte search, whatever the kind of buffer.
+ */
+class DelimiterScannerTests {
+  private static final Delimiters DELIMITERS = DelimiterScanner.delimiters('\\', '=', ':', '\n');
+
+  /** Tests that the first delimiter of every range is found, on every kind of buffer. */
+  @Test
+  void shouldFindFirstDelimiterLikeByteSearch() {
+    // Given
+    byte[] content = createContent(new Random(42), 1000);
+    ByteBuffer direct = ByteBuffer.allocateDirect(content.length).put(content).flip();
+    List<ByteBuffer> buffers =
+        List.of(
+            ByteBuffer.wrap(content),
+            ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN),
+            direct,
+            direct.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+
+    // When & Then
+    for (ByteBuffer buffer : buffers) {
+      for (int from = 0; from < content.length; from += 3) {
+        for (int length : new int[] {0, 1, 7, 70, content.length}) {
+          int to = Math.min(from + length, content.length);
+          assertThat(DelimiterScanner.indexOfAny(buffer, from, to, DELIMITERS))
+              .as("%s from %d to %d", buffer, from, to)
+              .isEqualTo(indexOfAny(content, from, to));
+        }
+      }
+    }
+  }
+
+  /** Tests that bytes outside ASCII are never taken for delimiters. */
+  @Test
+  void shouldIgnoreNonAsciiBytes() {
+    // Given
+    byte[] content = new byte[100];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (0x80 | '=');
+    }
+    content[90] = '=';
+
+    // When
+    int index = DelimiterScanner.indexOfAny(ByteBuffer.wrap(content), 0, 100, DELIMITERS);
+
+    // Then
+    assertThat(index).isEqualTo(90);
+  }
+
+  /** Tests that the end of the range is returned when it holds no delimiter. */
+  @Test
+  void shouldReturnEndWhenNoDelimiter() {
+    // Given
+    ByteBuffer buffer = ByteBuffer.wrap("abcdefghijklmnopqrstuvwxyz=".repeat(10).getBytes());
+
+    // When
+    int index = DelimiterScanner.indexOfAny(buffer, 27, 53, DELIMITERS);
+
+    // Then
+    assertThat(index).isEqualTo(53);
+    assertThat(buffer.position()).isZero();
+  }
+
+  /** Tests that delimiters outside ASCII are rejected. */
+  @Test
+  void shouldRejectNonAsciiDelimiter() {
+    // When & Then
+    assertThatThrownBy(() -> DelimiterScanner.delimiters('=', 'é'))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /** Creates mostly plain content, with a delimiter or a non-ASCII byte now and then. */
+  private static byte[] createContent(Random random, int length) {
+    byte[] content = new byte[length];
+    byte[] rare = {'\\', '=', ':', '\n', (byte) 0xBD, (byte) 0x8A};
+    for (int i = 0; i < length; i++) {
+      content[i] =
+          random.nextInt(40) == 0
+              ? rare[random.nextInt(rare.length)]
+              : (byte) ('a' + random.nextInt(26));
+    }
+    return content;
+  }
+
+  private static int indexOfAny(byte[] content, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (content[i] == '\\' || content[i] == '=' || content[i] == ':' || content[i] == '\n') {
+        return i;
+      }
+    }
+    return to;
+  }
+}
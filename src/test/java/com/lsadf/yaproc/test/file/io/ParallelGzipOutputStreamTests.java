@@ -0,0 +1,90 @@
+package com.lsadf.yaproc.test.file.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.lsadf.yaproc.file.io.ParallelGzipOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link ParallelGzipOutputStream} that verifies the concatenated gzip members are
+ * read back as the original content.
+ */
+class ParallelGzipOutputStreamTests {
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(3);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** Tests that content spanning many blocks is decompressed in the original order. */
+  @Test
+  void shouldCompressBlocksInOrder() throws IOException {
+    // Given
+    byte[] content = new byte[10_000];
+    Random random = new Random(42);
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) ('a' + random.nextInt(26));
+    }
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+    // When
+    try (ParallelGzipOutputStream out =
+        new ParallelGzipOutputStream(compressed, 256, executor)) {
+      out.write(content, 0, 1000);
+      out.write(content[1000]);
+      out.write(content, 1001, content.length - 1001);
+    }
+
+    // Then
+    assertThat(decompress(compressed.toByteArray())).isEqualTo(content);
+  }
+
+  /** Tests that an empty content still produces a valid gzip stream. */
+  @Test
+  void shouldWriteValidGzipForEmptyContent() throws IOException {
+    // Given
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+    // When
+    new ParallelGzipOutputStream(compressed, 256, executor).close();
+
+    // Then
+    assertThat(decompress(compressed.toByteArray())).isEmpty();
+  }
+
+  /** Tests that writing to a closed stream fails. */
+  @Test
+  void shouldRejectWritesAfterClose() throws IOException {
+    // Given
+    ParallelGzipOutputStream out =
+        new ParallelGzipOutputStream(new ByteArrayOutputStream(), 256, executor);
+    out.close();
+
+    // When / Then
+    assertThatThrownBy(() -> out.write(1)).isInstanceOf(IOException.class);
+  }
+
+  private static byte[] decompress(byte[] compressed) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.lsadf.yaproc.test.file.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.stream.TokenStreamConverter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link TokenStreamConverter} that verifies JSON and YAML files are converted token
+ * by token while preserving their structure.
+ */
+class TokenStreamConverterTests {
+
+  @TempDir Path tempDir;
+
+  private final TokenStreamConverter converter = new TokenStreamConverter();
+
+  /** Tests that only JSON and YAML conversions are reported as streamable. */
+  @Test
+  void shouldOnlySupportTokenBasedFormats() {
+    assertThat(TokenStreamConverter.supports(FileFormat.JSON, FileFormat.YAML)).isTrue();
+    assertThat(TokenStreamConverter.supports(FileFormat.YAML, FileFormat.JSON)).isTrue();
+    assertThat(TokenStreamConverter.supports(FileFormat.PROPERTIES, FileFormat.JSON)).isFalse();
+    assertThat(TokenStreamConverter.supports(FileFormat.YAML, FileFormat.PROPERTIES)).isFalse();
+  }
+
+  /** Tests that a complex JSON file is streamed into an equivalent YAML file. */
+  @Test
+  void shouldStreamJsonToYaml() throws IOException {
+    // Given
+    File input = new File("target/test-data/inputs/complex/complex.json");
+    File output = tempDir.resolve("complex.yaml").toFile();
+
+    // When
+    convert(input, FileFormat.JSON, output, FileFormat.YAML);
+
+    // Then
+    Map<String, Object> expected = new ObjectMapper().readValue(input, Map.class);
+    Map<String, Object> actual = new YAMLMapper().readValue(output, Map.class);
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  /** Tests that a complex YAML file is streamed into an equivalent JSON file. */
+  @Test
+  void shouldStreamYamlToJson() throws IOException {
+    // Given
+    File input = new File("target/test-data/inputs/complex/complex.yaml");
+    File output = tempDir.resolve("complex.json").toFile();
+
+    // When
+    convert(input, FileFormat.YAML, output, FileFormat.JSON);
+
+    // Then
+    Map<String, Object> expected = new YAMLMapper().readValue(input, Map.class);
+    Map<String, Object> actual = new ObjectMapper().readValue(output, Map.class);
+    assertThat(actual).isEqualTo(expected);
+    Map<String, Object> app = (Map<String, Object>) actual.get("app");
+    assertThat((List<Object>) app.get("mixed")).hasSize(5);
+  }
+
+  /** Tests that neither stream is closed by the conversion. */
+  @Test
+  void shouldLeaveStreamsOpen() throws IOException {
+    // Given
+    AtomicBoolean inputClosed = new AtomicBoolean();
+    AtomicBoolean outputClosed = new AtomicBoolean();
+    InputStream input =
+        new ByteArrayInputStream("{\"key\": \"value\"}".getBytes(StandardCharsets.UTF_8)) {
+          @Override
+          public void close() {
+            inputClosed.set(true);
+          }
+        };
+    ByteArrayOutputStream output =
+        new ByteArrayOutputStream() {
+          @Override
+          public void close() {
+            outputClosed.set(true);
+          }
+        };
+
+    // When
+    converter.convert(input, FileFormat.JSON, output, FileFormat.YAML);
+
+    // Then
+    assertThat(inputClosed).isFalse();
+    assertThat(outputClosed).isFalse();
+    assertThat(output.toString(StandardCharsets.UTF_8)).contains("key: \"value\"");
+  }
+
+  /** Tests that formats which are not token-based are rejected. */
+  @Test
+  void shouldThrowExceptionForPropertiesFormat() {
+    // Given
+    File input = new File("target/test-data/inputs/complex/complex.properties");
+    File output = tempDir.resolve("complex.json").toFile();
+
+    // When & Then
+    assertThatThrownBy(() -> convert(input, FileFormat.PROPERTIES, output, FileFormat.JSON))
+        .isInstanceOf(UnsupportedFileFormatException.class);
+  }
+
+  private void convert(File input, FileFormat inputFormat, File output, FileFormat outputFormat)
+      throws IOException {
+    try (InputStream inputStream = new FileInputStream(input);
+        OutputStream outputStream = new FileOutputStream(output)) {
+      converter.convert(inputStream, inputFormat, outputStream, outputFormat);
+    }
+  }
+}
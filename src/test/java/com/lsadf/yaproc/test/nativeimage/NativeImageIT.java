@@ -0,0 +1,144 @@
+package com.lsadf.yaproc.test.nativeimage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Integration tests running the native executable built by the {@code native} Maven profile. They
+ * go through the code paths relying on reflection and resources (picocli commands, Jackson
+ * mappers, logback configuration, cache manifest), which fail at runtime when the native image
+ * metadata is incomplete.
+ *
+ * <p>Run with {@code mvn -Pnative verify}. The tests are skipped when the executable given by the
+ * {@code yaproc.native.executable} system property does not exist.
+ */
+class NativeImageIT {
+  private static final String INPUTS = "target/test-data/inputs/";
+  private static final long TIMEOUT_SECONDS = 30;
+
+  private static Path executable;
+
+  @TempDir Path tempDir;
+
+  @BeforeAll
+  static void findExecutable() {
+    String path = System.getProperty("yaproc.native.executable");
+    assumeTrue(path != null && Files.isExecutable(Path.of(path)), "No native executable");
+    executable = Path.of(path);
+  }
+
+  /** Tests that the picocli model is complete: the help lists every subcommand. */
+  @Test
+  void shouldPrintHelp() throws Exception {
+    Result result = run("help");
+
+    assertThat(result.exitCode).isZero();
+    assertThat(result.stdout)
+        .contains("json", "ndjson", "properties", "yaml", "concat", "batch", "daemon");
+  }
+
+  /** Tests the conversion of a YAML file to JSON, through the YAML and JSON mappers. */
+  @Test
+  void shouldConvertYamlToJson() throws Exception {
+    Path output = tempDir.resolve("output.json");
+
+    Result result = run("json", INPUTS + "test.yaml", output.toString());
+
+    assertThat(result.exitCode).isZero();
+    Map<?, ?> content = new ObjectMapper().readValue(output.toFile(), Map.class);
+    assertThat(content).isNotEmpty();
+  }
+
+  /** Tests the conversion of a properties file to YAML, through the properties parser. */
+  @Test
+  void shouldConvertPropertiesToYaml() throws Exception {
+    Path output = tempDir.resolve("output.yaml");
+
+    Result result = run("yaml", INPUTS + "test.properties", output.toString());
+
+    assertThat(result.exitCode).isZero();
+    assertThat(Files.readString(output)).isNotBlank();
+  }
+
+  /** Tests a parallel multi-document conversion to gzip compressed NDJSON. */
+  @Test
+  void shouldConvertMultiDocumentYamlToCompressedNdjson() throws Exception {
+    Path output = tempDir.resolve("output.ndjson.gz");
+
+    Result result = run("ndjson", INPUTS + "multi/multi.yaml", output.toString(), "--parallel");
+
+    assertThat(result.exitCode).isZero();
+    assertThat(Files.size(output)).isPositive();
+  }
+
+  /**
+   * Tests that the cache manifest, serialized by Jackson from Lombok beans, is written and read.
+   */
+  @Test
+  void shouldSkipUpToDateConversion() throws Exception {
+    Path output = tempDir.resolve("output.json");
+
+    Result first = run("json", INPUTS + "test.yaml", output.toString(), "--cache");
+    Result second = run("json", INPUTS + "test.yaml", output.toString(), "--cache");
+
+    assertThat(first.exitCode).isZero();
+    assertThat(second.exitCode).isZero();
+    assertThat(tempDir.resolve(".yaproc-cache")).exists();
+    assertThat(second.stderr).contains("up to date");
+  }
+
+  /** Tests that the errors are logged and mapped to their exit codes. */
+  @Test
+  void shouldReportErrors() throws Exception {
+    Result missing = run("json", tempDir.resolve("missing.yaml").toString(), "out.json");
+    Result unsupported = run("json", INPUTS + "test.yaml", tempDir.resolve("out.txt").toString());
+
+    assertThat(missing.exitCode).isEqualTo(1);
+    assertThat(missing.stderr).contains("missing.yaml");
+    assertThat(unsupported.exitCode).isNotZero();
+  }
+
+  private Result run(String... args) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(executable.toString());
+    command.addAll(List.of(args));
+    ProcessBuilder builder = new ProcessBuilder(command);
+    // Never forward to a daemon running on the machine
+    builder.environment().put("YAPROC_SOCKET", tempDir.resolve("none.sock").toString());
+    Path stdout = tempDir.resolve("stdout.txt");
+    Path stderr = tempDir.resolve("stderr.txt");
+    builder.redirectOutput(stdout.toFile()).redirectError(stderr.toFile());
+
+    Process process = builder.start();
+    assertThat(process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    return new Result(
+        process.exitValue(),
+        Files.readString(stdout, StandardCharsets.UTF_8),
+        Files.readString(stderr, StandardCharsets.UTF_8));
+  }
+
+  private static class Result {
+    private final int exitCode;
+    private final String stdout;
+    private final String stderr;
+
+    Result(int exitCode, String stdout, String stderr) {
+      this.exitCode = exitCode;
+      this.stdout = stdout;
+      this.stderr = stderr;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.lsadf.yaproc.test.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.util.ClassUtils;
+import com.lsadf.yaproc.util.ScalarType;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link ClassUtils} that verifies the strings are typed in a single pass. */
+class ClassUtilsTests {
+
+  private static final Set<ScalarType> ALL = EnumSet.allOf(ScalarType.class);
+
+  /** Tests that integers are converted to longs up to the limits of the type. */
+  @Test
+  void shouldConvertLongs() {
+    assertThat(ClassUtils.toScalar("8080", ALL)).isEqualTo(8080L);
+    assertThat(ClassUtils.toScalar("+5", ALL)).isEqualTo(5L);
+    assertThat(ClassUtils.toScalar("-0", ALL)).isEqualTo(0L);
+    assertThat(ClassUtils.toScalar("9223372036854775807", ALL)).isEqualTo(Long.MAX_VALUE);
+    assertThat(ClassUtils.toScalar("-9223372036854775808", ALL)).isEqualTo(Long.MIN_VALUE);
+    assertThat(ClassUtils.toScalar("9223372036854775808", ALL)).isEqualTo("9223372036854775808");
+    assertThat(ClassUtils.isNumber("42")).isTrue();
+    assertThat(ClassUtils.isNumber("4.2")).isFalse();
+  }
+
+  /** Tests that decimal numbers are converted to doubles only when their syntax is valid. */
+  @Test
+  void shouldConvertDoubles() {
+    assertThat(ClassUtils.toScalar("4.5", ALL)).isEqualTo(4.5);
+    assertThat(ClassUtils.toScalar("-.5", ALL)).isEqualTo(-0.5);
+    assertThat(ClassUtils.toScalar("1.23E2", ALL)).isEqualTo(123.0);
+    assertThat(ClassUtils.toScalar("1e-3", ALL)).isEqualTo(0.001);
+    for (String value : new String[] {".", "-", "1e", "1.2.3", "1d", "NaN", "0x1F", "1,2"}) {
+      assertThat(ClassUtils.toScalar(value, ALL)).isEqualTo(value);
+    }
+  }
+
+  /** Tests that booleans and null are recognized, and that other strings are kept. */
+  @Test
+  void shouldConvertBooleansAndNull() {
+    assertThat(ClassUtils.toScalar("TRUE", ALL)).isEqualTo(true);
+    assertThat(ClassUtils.toScalar("false", ALL)).isEqualTo(false);
+    assertThat(ClassUtils.toScalar("null", ALL)).isNull();
+    assertThat(ClassUtils.toScalar("Null", ALL)).isEqualTo("Null");
+    assertThat(ClassUtils.toScalar("truthy", ALL)).isEqualTo("truthy");
+    assertThat(ClassUtils.toScalar("", ALL)).isEqualTo("");
+  }
+
+  /** Tests that only the requested types are converted. */
+  @Test
+  void shouldOnlyConvertRequestedTypes() {
+    Set<ScalarType> longs = EnumSet.of(ScalarType.LONG);
+
+    assertThat(ClassUtils.toScalar("4.5", longs)).isEqualTo("4.5");
+    assertThat(ClassUtils.toScalar("true", longs)).isEqualTo("true");
+    assertThat(ClassUtils.toScalar("null", longs)).isEqualTo("null");
+    assertThat(ClassUtils.toScalar("12", EnumSet.of(ScalarType.DOUBLE))).isEqualTo(12.0);
+    assertThat(ClassUtils.toScalar("12", EnumSet.noneOf(ScalarType.class))).isEqualTo("12");
+  }
+}
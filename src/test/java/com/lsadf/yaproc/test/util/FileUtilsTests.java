@@ -3,10 +3,21 @@ package com.lsadf.yaproc.test.util;
 import com.lsadf.yaproc.file.FileData;
 import com.lsadf.yaproc.util.FileUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -31,4 +42,145 @@ class FileUtilsTests {
         assertThat(fileData.getType()).isEqualTo("json");
     }
 
+    @Test
+    void testReadFileKeepsLineEndings(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("crlf.yaml");
+        Files.writeString(file, "a: 1\r\nb: 2\r\n");
+        FileData fileData = FileUtils.readFile(file.toFile());
+        assertThat(fileData.getContent()).isEqualTo("a: 1\r\nb: 2\r\n");
+    }
+
+    @Test
+    void testReadFileWithUtf8Bom(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("bom.properties");
+        byte[] content = "key=h\u00e9llo".getBytes(StandardCharsets.UTF_8);
+        byte[] withBom = new byte[content.length + 3];
+        withBom[0] = (byte) 0xEF;
+        withBom[1] = (byte) 0xBB;
+        withBom[2] = (byte) 0xBF;
+        System.arraycopy(content, 0, withBom, 3, content.length);
+        Files.write(file, withBom);
+
+        FileData fileData = FileUtils.readFile(file.toFile());
+        assertThat(fileData.getContent()).isEqualTo("key=h\u00e9llo");
+    }
+
+    @Test
+    void testDetectCharsetWithoutBom() {
+        ByteBuffer bytes = ByteBuffer.wrap("key=value".getBytes(StandardCharsets.ISO_8859_1));
+        assertThat(FileUtils.detectCharset(bytes, "properties"))
+                .isEqualTo(StandardCharsets.ISO_8859_1);
+        assertThat(FileUtils.detectCharset(bytes, "json")).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(bytes.position()).isZero();
+    }
+
+    @Test
+    void testReadBytesMapsLargeFiles(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("large.json");
+        byte[] content = new byte[(int) FileUtils.MEMORY_MAP_THRESHOLD + 1];
+        Arrays.fill(content, (byte) ' ');
+        Files.write(file, content);
+
+        ByteBuffer bytes = FileUtils.readBytes(file.toFile());
+        assertThat(bytes.isDirect()).isTrue();
+        assertThat(bytes.remaining()).isEqualTo(content.length);
+    }
+
+    @Test
+    void testWriteFileStreamsContent(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("sub/output.json").toFile();
+        FileUtils.writeFile(
+                file,
+                false,
+                16,
+                out -> out.write("{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8)));
+        assertThat(Files.readString(file.toPath())).isEqualTo("{\"key\":\"value\"}");
+    }
+
+    @Test
+    void testWriteFileDeletesPartialOutputOnFailure(@TempDir Path tempDir) {
+        File file = tempDir.resolve("partial.json").toFile();
+        assertThrows(IOException.class, () -> FileUtils.writeFile(file, false, 16, out -> {
+            out.write(new byte[64]);
+            throw new IOException("Serialization failed");
+        }));
+        assertThat(file.exists()).isFalse();
+    }
+
+    @Test
+    void testWriteFileKeepsOverwrittenFileOnFailure(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("existing.json").toFile();
+        Files.writeString(file.toPath(), "{\"previous\":true}");
+        assertThrows(IOException.class, () -> FileUtils.writeFile(file, true, 16, out -> {
+            out.write(new byte[64]);
+            throw new IOException("Serialization failed");
+        }));
+        assertThat(Files.readString(file.toPath())).isEqualTo("{\"previous\":true}");
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.count()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    void testWriteFileReplacesExistingFileWithForce(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("existing.json").toFile();
+        Files.writeString(file.toPath(), "{\"previous\":true}");
+        FileUtils.writeFile(
+                file, true, 16, out -> out.write("{}".getBytes(StandardCharsets.UTF_8)));
+        assertThat(Files.readString(file.toPath())).isEqualTo("{}");
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.count()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    void testGetFileExtensionWithGzipFile() {
+        assertThat(FileUtils.getFileExtension(new File("config.json.gz"))).isEqualTo("json");
+        assertThat(FileUtils.getFileExtension(new File("config.yaml.GZ"))).isEqualTo("yaml");
+        assertThat(FileUtils.getFileExtension(new File("config.gz"))).isEqualTo("");
+        assertThat(FileUtils.isGzipFile(new File("config.json.gz"))).isTrue();
+        assertThat(FileUtils.isGzipFile(new File("config.json"))).isFalse();
+    }
+
+    @Test
+    void testReadFileWithGzipFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("config.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write("{\"test\": \"h\u00e9llo\"}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        FileData fileData = FileUtils.readFile(file.toFile());
+        assertThat(fileData.getType()).isEqualTo("json");
+        assertThat(fileData.hasBytes()).isFalse();
+        assertThat(fileData.getContent()).isEqualTo("{\"test\": \"h\u00e9llo\"}");
+        // The content can be read more than once
+        assertThat(fileData.getContent()).isEqualTo("{\"test\": \"h\u00e9llo\"}");
+    }
+
+    @Test
+    void testOpenInputStreamDetectsGzipMagicBytes(@TempDir Path tempDir) throws IOException {
+        // No .gz extension: the compression is detected from the content
+        Path file = tempDir.resolve("config.yaml");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write("a: 1".getBytes(StandardCharsets.UTF_8));
+        }
+        try (InputStream in = FileUtils.openInputStream(file.toFile())) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("a: 1");
+        }
+    }
+
+    @Test
+    void testWriteFileCompressesGzipFile(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("output.json.gz").toFile();
+        FileUtils.writeFile(
+                file,
+                false,
+                16,
+                out -> out.write("{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8)));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("{\"key\":\"value\"}");
+        }
+    }
+
 }
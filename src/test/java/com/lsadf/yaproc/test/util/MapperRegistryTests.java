@@ -0,0 +1,99 @@
+package com.lsadf.yaproc.test.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lsadf.yaproc.exception.UnsupportedFileFormatException;
+import com.lsadf.yaproc.file.ContentMap;
+import com.lsadf.yaproc.file.FileFormat;
+import com.lsadf.yaproc.file.handler.output.JsonOutputFileHandler;
+import com.lsadf.yaproc.util.MapperRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link MapperRegistry} that verifies the readers and writers are shared and keep
+ * the content of the converted files.
+ */
+class MapperRegistryTests {
+
+  /** Tests that every caller gets the same reader and writer for a format. */
+  @Test
+  void shouldShareReadersAndWriters() {
+    assertThat(MapperRegistry.getReader(FileFormat.JSON))
+        .isSameAs(MapperRegistry.getReader(FileFormat.JSON))
+        .isSameAs(MapperRegistry.getReader(FileFormat.NDJSON));
+    assertThat(MapperRegistry.getWriter(FileFormat.YAML))
+        .isSameAs(MapperRegistry.getWriter(FileFormat.YAML));
+    assertThat(MapperRegistry.getReader(FileFormat.YAML))
+        .isNotSameAs(MapperRegistry.getReader(FileFormat.JSON));
+  }
+
+  /** Tests that content written by a writer is read back as is by the reader of the format. */
+  @Test
+  void shouldRoundTripContent() throws IOException {
+    // Given
+    ContentMap nested = new ContentMap();
+    nested.put("list", List.of("a", 1, true));
+    ContentMap content = new ContentMap();
+    content.put("key", "value");
+    content.put("nested", nested);
+
+    for (FileFormat format : List.of(FileFormat.JSON, FileFormat.YAML)) {
+      // When
+      ObjectWriter writer = MapperRegistry.getWriter(format);
+      ObjectReader reader = MapperRegistry.getReader(format);
+      ContentMap read = reader.readValue(writer.writeValueAsBytes(content));
+
+      // Then
+      assertThat(read).isInstanceOf(ContentMap.class).isEqualTo(content);
+    }
+  }
+
+  /** Tests that the writers never close the stream of their caller. */
+  @Test
+  void shouldNotCloseOutputStream() throws IOException {
+    // Given
+    AtomicBoolean closed = new AtomicBoolean();
+    OutputStream outputStream =
+        new ByteArrayOutputStream() {
+          @Override
+          public void close() {
+            closed.set(true);
+          }
+        };
+    ContentMap content = new ContentMap();
+    content.put("key", "value");
+
+    // When
+    new JsonOutputFileHandler().write(content, outputStream);
+    MapperRegistry.getWriter(FileFormat.YAML).writeValue(outputStream, content);
+
+    // Then
+    assertThat(closed).isFalse();
+  }
+
+  /** Tests that the warm-up runs, and ignores the formats not backed by Jackson. */
+  @Test
+  void shouldWarmUp() {
+    MapperRegistry.warmUp();
+    MapperRegistry.warmUp(FileFormat.PROPERTIES, FileFormat.NDJSON);
+  }
+
+  /** Tests that the formats not backed by Jackson have no reader nor writer. */
+  @Test
+  void shouldRejectPropertiesFormat() {
+    assertThrows(
+        UnsupportedFileFormatException.class,
+        () -> MapperRegistry.getReader(FileFormat.PROPERTIES));
+    assertThrows(
+        UnsupportedFileFormatException.class,
+        () -> MapperRegistry.getWriter(FileFormat.PROPERTIES));
+  }
+}
@@ -0,0 +1,47 @@
+package com.lsadf.yaproc.test.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.util.ScalarResolver;
+import com.lsadf.yaproc.util.ScalarType;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link ScalarResolver} that verifies the inference levels and type hints. */
+class ScalarResolverTests {
+
+  /** Tests that each inference level converts its own types only. */
+  @Test
+  void shouldInferTypesOfLevel() {
+    assertThat(ScalarResolver.NONE.resolve("key", "42")).isEqualTo("42");
+    assertThat(ScalarResolver.DEFAULT.resolve("key", "42")).isEqualTo(42L);
+    assertThat(ScalarResolver.DEFAULT.resolve("key", "4.2")).isEqualTo("4.2");
+    assertThat(ScalarResolver.DEFAULT.resolve("key", "null")).isEqualTo("null");
+
+    ScalarResolver all = ScalarResolver.inferring(ScalarResolver.Inference.ALL);
+    assertThat(all.resolve("key", "4.2")).isEqualTo(4.2);
+    assertThat(all.resolve("key", "null")).isNull();
+  }
+
+  /** Tests that hints override the inference for their keys, the longest prefix winning. */
+  @Test
+  void shouldFollowHints() {
+    // Given
+    ScalarResolver resolver =
+        ScalarResolver.DEFAULT.withHints(
+            Map.of(
+                "zip", ScalarType.STRING,
+                "version", ScalarType.DOUBLE,
+                "app.*", ScalarType.STRING,
+                "app.port*", ScalarType.LONG));
+
+    // When / Then
+    assertThat(resolver.resolve("zip", "01234")).isEqualTo("01234");
+    assertThat(resolver.resolve("version", "2")).isEqualTo(2.0);
+    assertThat(resolver.resolve("version", "2.5")).isEqualTo(2.5);
+    assertThat(resolver.resolve("app.enabled", "true")).isEqualTo("true");
+    assertThat(resolver.resolve("app.port", "8080")).isEqualTo(8080L);
+    assertThat(resolver.resolve("app.port", "http")).isEqualTo("http");
+    assertThat(resolver.resolve("other", "8080")).isEqualTo(8080L);
+  }
+}
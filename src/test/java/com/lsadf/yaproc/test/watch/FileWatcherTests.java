@@ -0,0 +1,83 @@
+package com.lsadf.yaproc.test.watch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lsadf.yaproc.watch.FileWatcher;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link FileWatcher} that verifies the changes are reported once per batch, and
+ * only for the watched paths.
+ */
+class FileWatcherTests {
+  private static final Duration DEBOUNCE = Duration.ofMillis(100);
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @TempDir Path tempDir;
+
+  /** Tests that several writes to a watched file are reported as a single change. */
+  @Test
+  void shouldReportWatchedFileOnce() throws IOException, InterruptedException {
+    // Given
+    Path watched = Files.writeString(tempDir.resolve("watched.yaml"), "key: value");
+    Path other = Files.writeString(tempDir.resolve("other.yaml"), "key: value");
+
+    try (FileWatcher watcher = new FileWatcher(DEBOUNCE)) {
+      watcher.watchFile(watched);
+
+      // When
+      Files.writeString(other, "key: other");
+      Files.writeString(watched, "key: first");
+      Files.writeString(watched, "key: second");
+      Set<Path> changes = watcher.awaitChanges(TIMEOUT);
+
+      // Then
+      assertThat(changes).containsExactly(watched.toAbsolutePath().normalize());
+    }
+  }
+
+  /** Tests that the files created in a watched tree are reported, except in ignored paths. */
+  @Test
+  void shouldReportChangesInTreeExceptIgnored() throws IOException, InterruptedException {
+    // Given
+    Path nested = Files.createDirectories(tempDir.resolve("nested"));
+    Path ignored = Files.createDirectories(tempDir.resolve("out"));
+
+    try (FileWatcher watcher = new FileWatcher(DEBOUNCE)) {
+      watcher.ignore(ignored);
+      watcher.watchDirectory(tempDir);
+
+      // When
+      Path created = Files.writeString(nested.resolve("created.json"), "{}");
+      Files.writeString(ignored.resolve("output.json"), "{}");
+      Set<Path> changes = watcher.awaitChanges(TIMEOUT);
+
+      // Then
+      assertThat(changes).contains(created.toAbsolutePath().normalize());
+      assertThat(changes).noneMatch(path -> path.startsWith(ignored.toAbsolutePath().normalize()));
+    }
+  }
+
+  /** Tests that an empty set is returned when nothing changes before the timeout. */
+  @Test
+  void shouldReturnEmptySetOnTimeout() throws IOException, InterruptedException {
+    // Given
+    Path watched = Files.writeString(tempDir.resolve("watched.properties"), "key=value");
+
+    try (FileWatcher watcher = new FileWatcher(DEBOUNCE)) {
+      watcher.watchFile(watched);
+
+      // When
+      Set<Path> changes = watcher.awaitChanges(Duration.ofMillis(200));
+
+      // Then
+      assertThat(changes).isEmpty();
+    }
+  }
+}